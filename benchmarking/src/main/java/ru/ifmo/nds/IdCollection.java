@@ -85,23 +85,40 @@ public final class IdCollection {
         addNonDominatedSortingFactory("jfb.rbtree", JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1));
         addNonDominatedSortingFactory("jfb.rbtree.hybrid.fnds", JensenFortinBuzdalov.getRedBlackTreeSweepHybridFNDSImplementation(1));
         addNonDominatedSortingFactory("jfb.rbtree.hybrid.ens", JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1));
+        addNonDominatedSortingFactory("jfb.rbtree.hybrid.ens.sweep3d", JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSSweep3DImplementation(1));
+        addNonDominatedSortingFactory("jfb.rbtree.hybrid.mnds", JensenFortinBuzdalov.getRedBlackTreeSweepHybridMNDSImplementation(1));
+        addNonDominatedSortingFactory("jfb.rbtree.hybrid.composite", JensenFortinBuzdalov.getRedBlackTreeSweepHybridCompositeImplementation(1));
+        addNonDominatedSortingFactory("jfb.treap", JensenFortinBuzdalov.getTreapSweepImplementation(1));
+        addNonDominatedSortingFactory("jfb.treap.hybrid.ens", JensenFortinBuzdalov.getTreapSweepHybridENSImplementation(1));
+        addNonDominatedSortingFactory("jfb.rankspace", JensenFortinBuzdalov.getRankSpaceImplementation(1));
+        addNonDominatedSortingFactory("jfb.rankspace.hybrid.ens", JensenFortinBuzdalov.getRankSpaceHybridENSImplementation(1));
 
         int maxThreadsValue = Integer.parseInt(maxThreads);
         for (int threads = 2; threads <= maxThreadsValue; ++threads) {
             addNonDominatedSortingFactory("jfb.rbtree.th" + threads, JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(threads));
             addNonDominatedSortingFactory("jfb.rbtree.hybrid.fnds.th" + threads, JensenFortinBuzdalov.getRedBlackTreeSweepHybridFNDSImplementation(threads));
             addNonDominatedSortingFactory("jfb.rbtree.hybrid.ens.th" + threads, JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(threads));
+            addNonDominatedSortingFactory("jfb.rbtree.hybrid.mnds.th" + threads, JensenFortinBuzdalov.getRedBlackTreeSweepHybridMNDSImplementation(threads));
+            addNonDominatedSortingFactory("jfb.rbtree.hybrid.composite.th" + threads, JensenFortinBuzdalov.getRedBlackTreeSweepHybridCompositeImplementation(threads));
+            addNonDominatedSortingFactory("jfb.treap.hybrid.ens.th" + threads, JensenFortinBuzdalov.getTreapSweepHybridENSImplementation(threads));
+            addNonDominatedSortingFactory("jfb.veb.th" + threads, JensenFortinBuzdalov.getVanEmdeBoasImplementation(threads));
+            addNonDominatedSortingFactory("jfb.veb.hybrid.ens.th" + threads, JensenFortinBuzdalov.getVanEmdeBoasHybridENSImplementation(threads));
+            addNonDominatedSortingFactory("jfb.rankspace.th" + threads, JensenFortinBuzdalov.getRankSpaceImplementation(threads));
             for (int threshold : ndtThresholds) {
                 addNonDominatedSortingFactory("jfb.rbtree.hybrid.ndt." + threshold + ".th" + threads, JensenFortinBuzdalov.getRedBlackTreeSweepHybridNDTImplementation(threshold, threads));
             }
         }
         addNonDominatedSortingFactory("jfb.veb", JensenFortinBuzdalov.getVanEmdeBoasImplementation());
         addNonDominatedSortingFactory("jfb.veb.hybrid.ens", JensenFortinBuzdalov.getVanEmdeBoasHybridENSImplementation());
+        addNonDominatedSortingFactory("jfb.veb.hybrid.ens.sweep3d", JensenFortinBuzdalov.getVanEmdeBoasHybridENSSweep3DImplementation(1));
+        addNonDominatedSortingFactory("jfb.veb.hybrid.mnds", JensenFortinBuzdalov.getVanEmdeBoasHybridMNDSImplementation(1));
+        addNonDominatedSortingFactory("jfb.veb.hybrid.composite", JensenFortinBuzdalov.getVanEmdeBoasHybridCompositeImplementation(1));
 
         addNonDominatedSortingFactory("dcns.bs", SumitMishraDivideConquer.getDCNS_BS());
         addNonDominatedSortingFactory("dcns.ss", SumitMishraDivideConquer.getDCNS_SS());
 
         addNonDominatedSortingFactory("filter", FilterSort.getInstance());
         addNonDominatedSortingFactory("mnds.bitsets", SetIntersectionSort.getBitSetInstance());
+        addNonDominatedSortingFactory("adaptive", AdaptiveNonDominatedSortingFactory.getDefault());
     }
 }
@@ -0,0 +1,112 @@
+package ru.ifmo.nds;
+
+import java.io.*;
+import java.nio.file.Paths;
+import java.util.*;
+
+import ru.ifmo.nds.jfb.HybridThresholds;
+import ru.ifmo.nds.jmh.UniformCorrelated;
+import ru.ifmo.nds.jmh.UniformHypercube;
+import ru.ifmo.nds.jmh.UniformHyperplanes;
+
+/**
+ * Tunes the thresholds of the hybrid versions of the Jensen-Fortin-Buzdalov algorithm for this machine
+ * and the given workload, and saves them as a profile to be used with {@code -Dru.ifmo.nds.jfb.hybrid.thresholds}.
+ *
+ * The workload consists of populations generated in the same way as in the benchmarks, and of recorded populations
+ * stored in files of the same format as {@link MeasureGivenTest} reads.
+ */
+public class TuneHybridThresholds {
+    private static void usage() {
+        System.err.println("Usage: TuneHybridThresholds [options] --out=<profile>");
+        System.err.println("Options:");
+        System.err.println("  --hypercube=<n>,<d>        uniform points in a hypercube");
+        System.err.println("  --hyperplanes=<n>,<d>,<f>  points on f hyperplanes, f may be 'n' or 'n/k'");
+        System.err.println("  --correlated=<n>,<d>       correlated points, as in UniformCorrelated");
+        System.err.println("  --file=<file>              a recorded population");
+        System.err.println("  --instances=<k>            the number of instances of each generated kind (default 5)");
+        System.err.println("  --ndt-threshold=<t>        the tree threshold for the NDT fallback (default 8)");
+        System.err.println("  --start=<profile>          the profile to start from (default: built-in thresholds)");
+        System.exit(1);
+    }
+
+    private static double[][] readPopulation(String fileName) throws IOException {
+        try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+            StringTokenizer header = new StringTokenizer(in.readLine());
+            int n = Integer.parseInt(header.nextToken());
+            int d = Integer.parseInt(header.nextToken());
+            double[][] data = new double[n][d];
+            for (int i = 0; i < n; ++i) {
+                StringTokenizer st = new StringTokenizer(in.readLine());
+                for (int j = 0; j < d; ++j) {
+                    data[i][j] = Double.parseDouble(st.nextToken());
+                }
+            }
+            return data;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> generated = new ArrayList<>();
+        List<double[][]> workload = new ArrayList<>();
+        int instances = 5;
+        int ndtThreshold = 8;
+        HybridThresholds start = HybridThresholds.builtIn();
+        String outputFile = null;
+
+        for (String s : args) {
+            if (s.startsWith("--hypercube=") || s.startsWith("--hyperplanes=") || s.startsWith("--correlated=")) {
+                generated.add(s.substring(2));
+            } else if (s.startsWith("--file=")) {
+                workload.add(readPopulation(s.substring("--file=".length())));
+            } else if (s.startsWith("--instances=")) {
+                instances = Integer.parseInt(s.substring("--instances=".length()));
+            } else if (s.startsWith("--ndt-threshold=")) {
+                ndtThreshold = Integer.parseInt(s.substring("--ndt-threshold=".length()));
+            } else if (s.startsWith("--start=")) {
+                start = HybridThresholds.read(Paths.get(s.substring("--start=".length())));
+            } else if (s.startsWith("--out=")) {
+                outputFile = s.substring("--out=".length());
+            } else {
+                System.err.println("Error: unknown command '" + s + "'");
+                usage();
+            }
+        }
+
+        for (String kind : generated) {
+            String name = kind.substring(0, kind.indexOf('='));
+            String[] params = kind.substring(name.length() + 1).split(",");
+            int n = Integer.parseInt(params[0]);
+            int d = Integer.parseInt(params[1]);
+            Random random = new Random(Arrays.hashCode(params));
+            for (int i = 0; i < instances; ++i) {
+                double[][] instance = new double[n][d];
+                switch (name) {
+                    case "hypercube":
+                        UniformHypercube.fill(random, instance);
+                        break;
+                    case "hyperplanes":
+                        UniformHyperplanes.fill(random, instance, params[2]);
+                        break;
+                    default:
+                        UniformCorrelated.fill(random, instance, i % 2 == 0 ? 1 : d - 2);
+                        break;
+                }
+                workload.add(instance);
+            }
+        }
+
+        if (workload.isEmpty() || outputFile == null) {
+            usage();
+        }
+
+        System.out.println("Starting from: " + start);
+        HybridThresholds tuned = start.tuned(workload, ndtThreshold);
+        System.out.println("Tuned:         " + tuned);
+        try (Writer writer = new FileWriter(outputFile)) {
+            tuned.write(writer);
+        }
+        System.out.println("The profile is written to '" + outputFile + "'. To use it, run with "
+                + "-Dru.ifmo.nds.jfb.hybrid.thresholds=" + outputFile);
+    }
+}
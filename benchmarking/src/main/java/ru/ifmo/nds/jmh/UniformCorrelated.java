@@ -43,7 +43,18 @@ public class UniformCorrelated {
         }
     }
 
-    private void fill(Random random, double[][] instance, int x) {
+    /**
+     * Fills the given instance with points whose objectives are all equal, except for the objective {@code x},
+     * which is negated. If {@code x} is a valid objective index, all points are mutually non-dominating,
+     * otherwise every point has its own front.
+     *
+     * @param random the source of randomness.
+     * @param instance the instance, whose rows are already allocated.
+     * @param x the index of the negated objective.
+     */
+    public static void fill(Random random, double[][] instance, int x) {
+        int n = instance.length;
+        int d = instance[0].length;
         for (int i = 0; i < n; ++i) {
             double first = random.nextDouble();
             for (int k = 0; k < d; ++k) {
@@ -43,10 +43,15 @@ public class UniformHypercube {
         }
     }
 
-    private void fill(Random random, double[][] instance) {
-        for (int i = 0; i < n; ++i) {
-            for (int j = 0; j < d; ++j) {
-                instance[i][j] = random.nextDouble();
+    /**
+     * Fills the given instance with points sampled uniformly from the hypercube.
+     * @param random the source of randomness.
+     * @param instance the instance, whose rows are already allocated.
+     */
+    public static void fill(Random random, double[][] instance) {
+        for (double[] point : instance) {
+            for (int j = 0; j < point.length; ++j) {
+                point[j] = random.nextDouble();
             }
         }
     }
@@ -40,14 +40,37 @@ public class UniformHyperplanes {
     public void initializeSorterAndData() {
         sorting = IdCollection.getNonDominatedSortingFactory(algorithmId).getInstance(n, d);
         ranks = new int[n];
-        dataset = new double[INSTANCES][n][d];
+        dataset = generateDataset(n, d, f);
+    }
+
+    /**
+     * Generates the instances which are sorted by this benchmark with the given parameters.
+     *
+     * @param n the number of points.
+     * @param d the dimension.
+     * @param f the number of fronts, in the same form as for {@link #fill(Random, double[][], String)}.
+     * @return the instances.
+     */
+    public static double[][][] generateDataset(int n, int d, String f) {
+        double[][][] dataset = new double[INSTANCES][n][d];
         Random random = new Random(Arrays.hashCode(new Object[] {n, d, f}));
         for (int i = 0; i < INSTANCES; ++i) {
-            fill(random, dataset[i]);
+            fill(random, dataset[i], f);
         }
+        return dataset;
     }
 
-    private void fill(Random random, double[][] instance) {
+    /**
+     * Fills the given instance with points lying on the given number of parallel hyperplanes,
+     * each of which forms a front of roughly equal size.
+     *
+     * @param random the source of randomness.
+     * @param instance the instance, whose rows are already allocated.
+     * @param f the number of fronts: either a number, or {@code n}, or {@code n/k}, where {@code n} is the number of points.
+     */
+    public static void fill(Random random, double[][] instance, String f) {
+        int n = instance.length;
+        int d = instance[0].length;
         int realF;
         if (f.equals("n")) {
             realF = n;
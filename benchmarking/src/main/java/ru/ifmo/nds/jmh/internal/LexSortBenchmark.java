@@ -1,6 +1,7 @@
 package ru.ifmo.nds.jmh.internal;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.*;
@@ -17,15 +18,20 @@ import ru.ifmo.nds.util.ArraySorter;
 @Measurement(time = 1, iterations = 2)
 @Fork(value = 3)
 public class LexSortBenchmark {
-    @Param({"3", "10", "17", "31", "56", "100", "177", "316", "1000", "10000", "100000"})
+    @Param({"3", "10", "17", "31", "56", "100", "177", "316", "1000", "10000", "100000", "1000000"})
     private int size;
 
     @Param({"2", "5", "20"})
     private int dimension;
 
+    // With more than one thread, the parallel sort is used.
+    @Param({"1", "4"})
+    private int threads;
+
     private double[][][] data;
     private int[] indices;
     private ArraySorter sorter;
+    private ForkJoinPool pool;
 
     @Setup
     public void initialize() {
@@ -41,13 +47,22 @@ public class LexSortBenchmark {
         }
         indices = new int[size];
         sorter = new ArraySorter(size);
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @TearDown
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
     }
 
     @Benchmark
     public void run(Blackhole bh) {
         for (double[][] instance : data) {
             ArrayHelper.fillIdentity(indices, size);
-            sorter.lexicographicalSort(instance, indices, 0, size, dimension - 1);
+            sorter.lexicographicalSort(instance, indices, 0, size, dimension - 1, pool);
         }
     }
 }
@@ -18,11 +18,15 @@ import ru.ifmo.nds.util.ArraySorter;
 @Fork(value = 5)
 public class SortIndicesByValuesBenchmark {
     @Param({"1", "2", "3", "4", "5", "7", "10", "13", "17", "23",
-            "31", "42", "56", "74", "100", "133", "177", "237", "316"})
+            "31", "42", "56", "74", "100", "133", "177", "237", "316", "1000", "10000"})
     private int size;
 
+    @Param({"false", "true"})
+    private boolean smallRange;
+
     private int[][] data;
     private int[] indices;
+    private int[] scratch;
 
     @Setup
     public void initialize() {
@@ -31,10 +35,11 @@ public class SortIndicesByValuesBenchmark {
         data = new int[nInstances][size];
         for (int i = 0; i < nInstances; ++i) {
             for (int j = 0; j < size; ++j) {
-                data[i][j] = random.nextInt();
+                data[i][j] = smallRange ? random.nextInt(size) : random.nextInt();
             }
         }
         indices = new int[size];
+        scratch = new int[2 * size + 1];
     }
 
     @OperationsPerInvocation(100)
@@ -42,7 +47,7 @@ public class SortIndicesByValuesBenchmark {
     public void run(Blackhole bh) {
         for (int[] instance : data) {
             ArrayHelper.fillIdentity(indices, size);
-            ArraySorter.sortIndicesByValues(indices, instance, 0, size);
+            ArraySorter.sortIndicesByValues(indices, instance, 0, size, scratch, 0);
         }
     }
 }
@@ -0,0 +1,150 @@
+package ru.ifmo.nds.jmh.main;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ru.ifmo.nds.AdaptiveNonDominatedSortingFactory;
+import ru.ifmo.nds.IdCollection;
+import ru.ifmo.nds.adaptive.AdaptiveSorting;
+import ru.ifmo.nds.adaptive.DecisionTable;
+import ru.ifmo.nds.adaptive.FrontCountEstimator;
+import ru.ifmo.nds.jmh.UniformHyperplanes;
+
+/**
+ * Runs the {@link UniformHyperplanes} benchmark for the given algorithms, problem sizes and numbers of fronts,
+ * and writes the decision table for {@link AdaptiveNonDominatedSortingFactory}, which lists the fastest algorithm
+ * for every measured cell. The cells are keyed by the number of fronts estimated by {@link FrontCountEstimator},
+ * as it is done when the table is used, rather than by the true number of fronts.
+ */
+public class Calibrate {
+    private static List<String> split(String s) {
+        List<String> rv = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(s, ",");
+        while (st.hasMoreTokens()) {
+            rv.add(st.nextToken());
+        }
+        return rv;
+    }
+
+    // The table is consulted with the estimated number of fronts, so the cells are keyed by the same estimate.
+    private static int estimatedFrontCount(int n, int d, String f) {
+        if (n <= AdaptiveSorting.SAMPLE_SIZE) {
+            // For such small inputs, the number of fronts is not estimated at all.
+            return DecisionTable.ANY_FRONTS;
+        }
+        double[][][] dataset = UniformHyperplanes.generateDataset(n, d, f);
+        int[] estimates = new int[dataset.length];
+        try (FrontCountEstimator estimator = new FrontCountEstimator(AdaptiveSorting.SAMPLE_SIZE, d)) {
+            for (int i = 0; i < dataset.length; ++i) {
+                estimates[i] = estimator.estimate(dataset[i]);
+            }
+        }
+        Arrays.sort(estimates);
+        return estimates[estimates.length / 2];
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Set<String> algorithms = new TreeSet<>();
+        for (String id : IdCollection.getAllNonDominatedSortingIDs()) {
+            // Only the algorithms which the adaptive factory can create are the candidates.
+            if (AdaptiveNonDominatedSortingFactory.getBuiltInFactory(id) != null) {
+                algorithms.add(id);
+            }
+        }
+        List<String> n = Arrays.asList("10", "100", "1000", "10000");
+        List<String> d = Arrays.asList("2", "3", "5", "10");
+        List<String> f = Arrays.asList("1", "2", "n/10", "n/2", "n");
+        String outputFile = "decision-table.txt";
+
+        for (String s : args) {
+            if (s.startsWith("--out=")) {
+                outputFile = s.substring("--out=".length());
+            } else if (s.startsWith("--algo=")) {
+                algorithms.clear();
+                for (String id : split(s.substring("--algo=".length()))) {
+                    if (AdaptiveNonDominatedSortingFactory.getBuiltInFactory(id) == null) {
+                        System.err.println("Error: algorithm '" + id + "' is not known to the adaptive factory");
+                        System.exit(1);
+                    }
+                    algorithms.add(id);
+                }
+            } else if (s.startsWith("--n=")) {
+                n = split(s.substring("--n=".length()));
+            } else if (s.startsWith("--d=")) {
+                d = split(s.substring("--d=".length()));
+            } else if (s.startsWith("--f=")) {
+                f = split(s.substring("--f=".length()));
+            } else {
+                System.err.println("Error: unknown command '" + s + "'");
+                System.err.println("Usage: Calibrate [--algo=<algo1>,<algo2>,...] [--n=...] [--d=...] [--f=...] [--out=<file>]");
+                System.exit(1);
+            }
+        }
+
+        final String[] stub = new String[0];
+        Options options = new OptionsBuilder()
+                .include(UniformHyperplanes.class.getName())
+                .param("algorithmId", algorithms.toArray(stub))
+                .param("n", n.toArray(stub))
+                .param("d", d.toArray(stub))
+                .param("f", f.toArray(stub))
+                .forks(1)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        // The key is (d, n, estimated fronts), the value is the total time of every algorithm.
+        // Several cells may have the same estimate, and since they cannot be told apart when the table is used,
+        // the algorithm which is the fastest on all of them together is chosen.
+        Map<List<Integer>, Map<String, Double>> totalTime = new TreeMap<>((a, b) -> {
+            for (int i = 0; i < a.size(); ++i) {
+                int cmp = Integer.compare(a.get(i), b.get(i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        });
+        Map<List<String>, Integer> estimates = new HashMap<>();
+        for (RunResult result : results) {
+            String resultN = result.getParams().getParam("n");
+            String resultD = result.getParams().getParam("d");
+            String resultF = result.getParams().getParam("f");
+            Integer estimate = estimates.get(Arrays.asList(resultN, resultD, resultF));
+            if (estimate == null) {
+                estimate = estimatedFrontCount(Integer.parseInt(resultN), Integer.parseInt(resultD), resultF);
+                estimates.put(Arrays.asList(resultN, resultD, resultF), estimate);
+            }
+            String id = result.getParams().getParam("algorithmId");
+            double time = result.getPrimaryResult().getScore();
+            List<Integer> key = Arrays.asList(Integer.parseInt(resultD), Integer.parseInt(resultN), estimate);
+            totalTime.computeIfAbsent(key, k -> new HashMap<>()).merge(id, time, Double::sum);
+        }
+
+        DecisionTable.Builder builder = new DecisionTable.Builder();
+        for (Map.Entry<List<Integer>, Map<String, Double>> entry : totalTime.entrySet()) {
+            List<Integer> key = entry.getKey();
+            String bestAlgorithm = null;
+            double bestTime = Double.POSITIVE_INFINITY;
+            for (Map.Entry<String, Double> algorithm : entry.getValue().entrySet()) {
+                if (algorithm.getValue() < bestTime) {
+                    bestTime = algorithm.getValue();
+                    bestAlgorithm = algorithm.getKey();
+                }
+            }
+            builder.add(key.get(0), key.get(1), key.get(2), bestAlgorithm);
+        }
+        try (Writer writer = new FileWriter(outputFile)) {
+            builder.build().write(writer);
+        }
+        System.out.println("The decision table is written to '" + outputFile + "'. To use it, run with "
+                + "-Dru.ifmo.nds.adaptive.table=" + outputFile);
+    }
+}
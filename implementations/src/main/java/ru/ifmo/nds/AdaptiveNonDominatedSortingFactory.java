@@ -0,0 +1,170 @@
+package ru.ifmo.nds;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.function.Function;
+
+import ru.ifmo.nds.adaptive.AdaptiveSorting;
+import ru.ifmo.nds.adaptive.DecisionTable;
+
+/**
+ * This is a factory of non-dominated sorting algorithms which choose the actual algorithm on every call,
+ * depending on the number of points, the dimension and the estimated number of fronts, using a {@link DecisionTable}.
+ *
+ * The decision table for {@link #getDefault()} is loaded on the first call of this method from the file given
+ * by the system property {@code ru.ifmo.nds.adaptive.table}. Such a file is produced by a calibration run
+ * of the benchmarks on the target machine. If the property is not set, or the file cannot be used,
+ * every call is delegated to {@code jfb.rbtree.hybrid.ens.sweep3d}. In the latter case, a warning is printed to the standard error.
+ *
+ * The algorithms are referred to by the same IDs as in the benchmarking suite,
+ * see {@link #getBuiltInFactory(String)} for the list.
+ */
+public final class AdaptiveNonDominatedSortingFactory implements NonDominatedSortingFactory {
+    private static final String FALLBACK_ALGORITHM = "jfb.rbtree.hybrid.ens.sweep3d";
+
+    private final DecisionTable table;
+    private final Function<String, NonDominatedSortingFactory> resolver;
+
+    /**
+     * Creates a factory which resolves algorithm IDs using {@link #getBuiltInFactory(String)}.
+     * @param table the decision table.
+     */
+    public AdaptiveNonDominatedSortingFactory(DecisionTable table) {
+        this(table, AdaptiveNonDominatedSortingFactory::getBuiltInFactory);
+    }
+
+    /**
+     * Creates a factory which resolves algorithm IDs using the given function.
+     * All IDs from the table are resolved immediately, so that unknown IDs are reported early.
+     *
+     * @param table the decision table.
+     * @param resolver the function which returns the factory for the algorithm ID.
+     */
+    public AdaptiveNonDominatedSortingFactory(DecisionTable table, Function<String, NonDominatedSortingFactory> resolver) {
+        this.table = Objects.requireNonNull(table, "The decision table must not be null");
+        this.resolver = Objects.requireNonNull(resolver, "The algorithm resolver must not be null");
+        for (String id : table.getAlgorithmIds()) {
+            if (resolver.apply(id) == null) {
+                throw new IllegalArgumentException("The algorithm ID '" + id + "' from the decision table is not known");
+            }
+        }
+    }
+
+    /**
+     * Returns the factory which uses the decision table given by the system property {@code ru.ifmo.nds.adaptive.table}.
+     * @return the default adaptive factory.
+     */
+    public static AdaptiveNonDominatedSortingFactory getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    @Override
+    public NonDominatedSorting getInstance(int maximumPoints, int maximumDimension) {
+        return new AdaptiveSorting(maximumPoints, maximumDimension, table, resolver);
+    }
+
+    /**
+     * Returns the single-threaded factory for the given algorithm ID, or {@code null} if the ID is not known.
+     *
+     * The known IDs are: {@code bos.proteek}, {@code bos.improved}, {@code corner}, {@code deductive},
+     * {@code dominance.tree.nopresort.<merge>}, {@code dominance.tree.presort.<merge>.<delayed>},
+     * {@code ens.bs}, {@code ens.ss}, {@code ens.ndt.<threshold>}, {@code ens.ndt.one.tree.<threshold>},
+     * {@code ens.ndt.arrays}, {@code fnds.original}, {@code fnds.linear}, {@code jfb.fenwick}, {@code jfb.rbtree},
+     * {@code jfb.rbtree.hybrid.fnds}, {@code jfb.rbtree.hybrid.ens}, {@code jfb.rbtree.hybrid.ens.sweep3d},
+     * {@code jfb.rbtree.hybrid.mnds},
+     * {@code jfb.rbtree.hybrid.composite},
+     * {@code jfb.rbtree.hybrid.ndt.<threshold>}, {@code jfb.treap}, {@code jfb.treap.hybrid.ens}, {@code jfb.veb},
+     * {@code jfb.veb.hybrid.ens}, {@code jfb.veb.hybrid.ens.sweep3d}, {@code jfb.veb.hybrid.mnds}, {@code jfb.veb.hybrid.composite},
+     * {@code jfb.veb.hybrid.ndt.<threshold>}, {@code jfb.rankspace}, {@code jfb.rankspace.hybrid.ens},
+     * {@code dcns.bs}, {@code dcns.ss}, {@code filter} and {@code mnds.bitsets},
+     * where {@code <merge>} is {@code recmerge} or {@code seqmerge},
+     * and {@code <delayed>} is {@code delayed} or {@code nodelayed}.
+     *
+     * @param id the algorithm ID.
+     * @return the factory, or {@code null} if the ID is not known.
+     */
+    public static NonDominatedSortingFactory getBuiltInFactory(String id) {
+        switch (id) {
+            case "bos.proteek": return BestOrderSort.getProteekImplementation();
+            case "bos.improved": return BestOrderSort.getImprovedImplementation();
+            case "corner": return CornerSort.getInstance();
+            case "deductive": return DeductiveSort.getInstance();
+            // The names of the delayed variants are swapped in the benchmarking suite, and are kept so for compatibility.
+            case "dominance.tree.nopresort.recmerge": return DominanceTree.getNoPresortInsertion(true);
+            case "dominance.tree.nopresort.seqmerge": return DominanceTree.getNoPresortInsertion(false);
+            case "dominance.tree.presort.recmerge.delayed": return DominanceTree.getPresortInsertion(true, false);
+            case "dominance.tree.presort.recmerge.nodelayed": return DominanceTree.getPresortInsertion(true, true);
+            case "dominance.tree.presort.seqmerge.delayed": return DominanceTree.getPresortInsertion(false, false);
+            case "dominance.tree.presort.seqmerge.nodelayed": return DominanceTree.getPresortInsertion(false, true);
+            case "ens.bs": return ENS.getENS_BS();
+            case "ens.ss": return ENS.getENS_SS();
+            case "ens.ndt.arrays": return ENS.getENS_NDT_Arrays();
+            case "fnds.original": return FastNonDominatedSorting.getOriginalVersion();
+            case "fnds.linear": return FastNonDominatedSorting.getLinearMemoryImplementation();
+            case "jfb.fenwick": return JensenFortinBuzdalov.getFenwickSweepImplementation(1);
+            case "jfb.rbtree": return JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1);
+            case "jfb.rbtree.hybrid.fnds": return JensenFortinBuzdalov.getRedBlackTreeSweepHybridFNDSImplementation(1);
+            case "jfb.rbtree.hybrid.ens": return JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1);
+            case "jfb.rbtree.hybrid.ens.sweep3d": return JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSSweep3DImplementation(1);
+            case "jfb.rbtree.hybrid.mnds": return JensenFortinBuzdalov.getRedBlackTreeSweepHybridMNDSImplementation(1);
+            case "jfb.rbtree.hybrid.composite": return JensenFortinBuzdalov.getRedBlackTreeSweepHybridCompositeImplementation(1);
+            case "jfb.treap": return JensenFortinBuzdalov.getTreapSweepImplementation(1);
+            case "jfb.treap.hybrid.ens": return JensenFortinBuzdalov.getTreapSweepHybridENSImplementation(1);
+            case "jfb.veb": return JensenFortinBuzdalov.getVanEmdeBoasImplementation();
+            case "jfb.veb.hybrid.ens": return JensenFortinBuzdalov.getVanEmdeBoasHybridENSImplementation();
+            case "jfb.veb.hybrid.ens.sweep3d": return JensenFortinBuzdalov.getVanEmdeBoasHybridENSSweep3DImplementation(1);
+            case "jfb.veb.hybrid.mnds": return JensenFortinBuzdalov.getVanEmdeBoasHybridMNDSImplementation(1);
+            case "jfb.veb.hybrid.composite": return JensenFortinBuzdalov.getVanEmdeBoasHybridCompositeImplementation(1);
+            case "jfb.rankspace": return JensenFortinBuzdalov.getRankSpaceImplementation(1);
+            case "jfb.rankspace.hybrid.ens": return JensenFortinBuzdalov.getRankSpaceHybridENSImplementation(1);
+            case "dcns.bs": return SumitMishraDivideConquer.getDCNS_BS();
+            case "dcns.ss": return SumitMishraDivideConquer.getDCNS_SS();
+            case "filter": return FilterSort.getInstance();
+            case "mnds.bitsets": return SetIntersectionSort.getBitSetInstance();
+        }
+        int threshold;
+        if ((threshold = parseThreshold(id, "ens.ndt.one.tree.")) > 0) {
+            return ENS.getENS_NDT_OneTree(threshold);
+        }
+        if ((threshold = parseThreshold(id, "ens.ndt.")) > 0) {
+            return ENS.getENS_NDT(threshold);
+        }
+        if ((threshold = parseThreshold(id, "jfb.rbtree.hybrid.ndt.")) > 0) {
+            return JensenFortinBuzdalov.getRedBlackTreeSweepHybridNDTImplementation(threshold, 1);
+        }
+        if ((threshold = parseThreshold(id, "jfb.veb.hybrid.ndt.")) > 0) {
+            return JensenFortinBuzdalov.getVanEmdeBoasHybridNDTImplementation(threshold);
+        }
+        return null;
+    }
+
+    private static int parseThreshold(String id, String prefix) {
+        if (!id.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(id.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static AdaptiveNonDominatedSortingFactory loadDefault(String fileName) {
+        if (fileName != null) {
+            try {
+                return new AdaptiveNonDominatedSortingFactory(DecisionTable.read(Paths.get(fileName)));
+            } catch (IOException | IllegalArgumentException ex) {
+                System.err.println("Warning: could not use the decision table from '" + fileName + "': " + ex
+                        + ". Falling back to " + FALLBACK_ALGORITHM);
+            }
+        }
+        return new AdaptiveNonDominatedSortingFactory(DecisionTable.singleAlgorithm(FALLBACK_ALGORITHM));
+    }
+
+    // The table is loaded only when the default factory is requested for the first time.
+    private static final class DefaultHolder {
+        private static final AdaptiveNonDominatedSortingFactory INSTANCE
+                = loadDefault(System.getProperty("ru.ifmo.nds.adaptive.table"));
+    }
+}
@@ -0,0 +1,171 @@
+package ru.ifmo.nds;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import ru.ifmo.nds.jfb.JFBExecutionPolicy;
+
+/**
+ * This class performs non-dominated sorting of many independent populations in a single call.
+ *
+ * The populations are distributed between threads of a work-stealing {@link ForkJoinPool}, which is either
+ * created for this instance, or shared with other users as described by a {@link JFBExecutionPolicy}.
+ * Since instances of {@link NonDominatedSorting} are not thread-safe, each running task takes
+ * an instance from a pool of instances, which are created by the given factory and reused between calls.
+ * For this reason, the factory is best to produce single-threaded instances.
+ *
+ * The instances of this class are not thread-safe themselves, that is, {@link #sortBatch(double[][][], int[][])}
+ * shall not be called concurrently.
+ */
+public final class BatchNonDominatedSorting implements AutoCloseable {
+    private final NonDominatedSortingFactory factory;
+    private final JFBExecutionPolicy executionPolicy;
+    private final ConcurrentLinkedDeque<NonDominatedSorting> instances = new ConcurrentLinkedDeque<>();
+    private ForkJoinPool pool;
+    private int instanceMaximumPoints = 0;
+    private int instanceMaximumDimension = 0;
+    private boolean closeWasCalled = false;
+
+    /**
+     * Creates a new batch sorter.
+     * @param factory the factory to produce instances of non-dominated sorting.
+     * @param allowedThreads the number of threads to use. Non-positive values mean using all available processors.
+     */
+    public BatchNonDominatedSorting(NonDominatedSortingFactory factory, int allowedThreads) {
+        this(factory, JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    /**
+     * Creates a new batch sorter, which uses threads as the given policy says.
+     * If the policy uses a shared pool, it is not shut down when this sorter is closed.
+     *
+     * @param factory the factory to produce instances of non-dominated sorting.
+     * @param executionPolicy the policy which defines the threads to use.
+     */
+    public BatchNonDominatedSorting(NonDominatedSortingFactory factory, JFBExecutionPolicy executionPolicy) {
+        this.factory = Objects.requireNonNull(factory, "The factory must not be null");
+        this.executionPolicy = Objects.requireNonNull(executionPolicy, "The execution policy must not be null");
+        this.pool = executionPolicy.acquirePool();
+    }
+
+    /**
+     * Returns the name of the batch sorter.
+     * @return the name of the batch sorter.
+     */
+    public String getName() {
+        return "Batch sorting, " + executionPolicy.getDescription() + ", algorithm: " + factory.getName();
+    }
+
+    /**
+     * Performs non-dominated sorting of each of the given populations.
+     * @param populations the populations to be sorted.
+     * @param ranks the arrays to be filled with ranks of points, one for each population.
+     */
+    public void sortBatch(double[][][] populations, int[][] ranks) {
+        sortBatchImpl(populations, ranks, -1);
+    }
+
+    /**
+     * Performs non-dominated sorting of each of the given populations.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param populations the populations to be sorted.
+     * @param ranks the arrays to be filled with ranks of points, one for each population.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     */
+    public void sortBatch(double[][][] populations, int[][] ranks, int maximalMeaningfulRank) {
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+        sortBatchImpl(populations, ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Releases all resources, including the own thread pool and the pooled instances of non-dominated sorting.
+     */
+    @Override
+    public void close() {
+        if (closeWasCalled) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        closeWasCalled = true;
+        executionPolicy.releasePool(pool);
+        pool = null;
+        closeInstances();
+    }
+
+    private void sortBatchImpl(double[][][] populations, int[][] ranks, int maximalMeaningfulRank) {
+        if (closeWasCalled) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        Objects.requireNonNull(populations, "The array of populations must not be null");
+        Objects.requireNonNull(ranks, "The array of rank arrays must not be null");
+        if (populations.length != ranks.length) {
+            throw new IllegalArgumentException("The number of populations, " + populations.length
+                    + ", must coincide with the number of rank arrays, which is " + ranks.length);
+        }
+
+        int maxPoints = 0, maxDimension = 0;
+        for (double[][] population : populations) {
+            Objects.requireNonNull(population, "The populations must not be null");
+            maxPoints = Math.max(maxPoints, population.length);
+            if (population.length > 0 && population[0] != null) {
+                maxDimension = Math.max(maxDimension, population[0].length);
+            }
+        }
+        if (maxPoints > instanceMaximumPoints || maxDimension > instanceMaximumDimension) {
+            closeInstances();
+            instanceMaximumPoints = Math.max(maxPoints, instanceMaximumPoints);
+            instanceMaximumDimension = Math.max(maxDimension, instanceMaximumDimension);
+        }
+
+        if (pool != null && populations.length > 1) {
+            pool.invoke(batchAction(populations, ranks, maximalMeaningfulRank, 0, populations.length));
+        } else {
+            for (int i = 0; i < populations.length; ++i) {
+                sortOne(populations[i], ranks[i], maximalMeaningfulRank);
+            }
+        }
+    }
+
+    private void sortOne(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        NonDominatedSorting instance = instances.pollFirst();
+        if (instance == null) {
+            instance = factory.getInstance(instanceMaximumPoints, instanceMaximumDimension);
+        }
+        try {
+            if (maximalMeaningfulRank < 0) {
+                instance.sort(points, ranks);
+            } else {
+                instance.sort(points, ranks, maximalMeaningfulRank);
+            }
+        } finally {
+            instances.offerFirst(instance);
+        }
+    }
+
+    private void closeInstances() {
+        NonDominatedSorting instance;
+        while ((instance = instances.pollFirst()) != null) {
+            instance.close();
+        }
+    }
+
+    private RecursiveAction batchAction(final double[][][] populations, final int[][] ranks,
+                                        final int maximalMeaningfulRank, final int from, final int until) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (from + 1 == until) {
+                    sortOne(populations[from], ranks[from], maximalMeaningfulRank);
+                } else {
+                    int mid = (from + until) >>> 1;
+                    invokeAll(batchAction(populations, ranks, maximalMeaningfulRank, from, mid),
+                              batchAction(populations, ranks, maximalMeaningfulRank, mid, until));
+                }
+            }
+        };
+    }
+}
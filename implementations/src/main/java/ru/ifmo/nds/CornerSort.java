@@ -89,6 +89,24 @@ public final class CornerSort {
             }
             fillNonMeaningfulRanks(ranks, firstNotYetProcessed, n, maximalMeaningfulRank);
         }
+
+        @Override
+        protected int sortCheckedToFronts(double[][] points, int[] frontStart, int[] pointsByFront) {
+            // The fronts are peeled one after another, so the indices end up grouped by fronts.
+            int n = points.length;
+            int dim = points[0].length;
+            ArrayHelper.fillIdentity(indices, n);
+            int firstNotYetProcessed = 0;
+            int rank = 0;
+            while (firstNotYetProcessed < n) {
+                frontStart[rank] = firstNotYetProcessed;
+                firstNotYetProcessed = peelCurrentRank(points, pointsByFront, dim, firstNotYetProcessed, n, rank);
+                ++rank;
+            }
+            frontStart[rank] = n;
+            System.arraycopy(indices, 0, pointsByFront, 0, n);
+            return rank;
+        }
     };
 
     public static NonDominatedSortingFactory getInstance() {
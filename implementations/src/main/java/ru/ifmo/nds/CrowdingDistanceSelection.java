@@ -0,0 +1,136 @@
+package ru.ifmo.nds;
+
+import java.util.Objects;
+
+import ru.ifmo.nds.util.ArraySorter;
+
+/**
+ * This class performs the environmental selection of NSGA-II: it selects the given number of points
+ * from the first fronts, and, if the last front which is needed does not fit entirely,
+ * it keeps the points from this front which have the largest crowding distance.
+ *
+ * The non-dominated sorting is performed with {@link NonDominatedSorting#sortUntilCount(double[][], int[], int)},
+ * so the algorithms which support this mode natively do not spend time on the fronts which are not needed.
+ * The crowding distance is computed only for the points of the front which is split.
+ */
+public final class CrowdingDistanceSelection implements AutoCloseable {
+    private NonDominatedSorting sorting;
+    private ArraySorter sorter;
+    private int[] ranks;
+    private int[] splitFront;
+    private double[] negatedCrowdingDistance;
+
+    /**
+     * Creates a new instance of the selection.
+     * @param factory the factory of the non-dominated sorting algorithm to use.
+     * @param maximumPoints the maximum number of points to select from.
+     * @param maximumDimension the maximum dimension of the points.
+     */
+    public CrowdingDistanceSelection(NonDominatedSortingFactory factory, int maximumPoints, int maximumDimension) {
+        Objects.requireNonNull(factory, "The factory must not be null");
+        sorting = factory.getInstance(maximumPoints, maximumDimension);
+        sorter = new ArraySorter(maximumPoints);
+        ranks = new int[0];
+        splitFront = new int[maximumPoints];
+        negatedCrowdingDistance = new double[maximumPoints];
+    }
+
+    /**
+     * Returns the name of the selection, which includes the name of the non-dominated sorting algorithm.
+     * @return the name of the selection.
+     */
+    public String getName() {
+        return "Crowding distance selection, sorting: " + sorting.getName();
+    }
+
+    /**
+     * Selects the given number of points. The indices of the selected points are written to {@code selected}:
+     * first the points from the fronts which are selected entirely, in the increasing order of indices,
+     * then the points from the split front, in the decreasing order of the crowding distance.
+     *
+     * @param points the points to select from.
+     * @param count the number of points to select.
+     * @param selected the array to write the indices of the selected points, which must have at least
+     *                 {@code count} elements.
+     */
+    public void select(double[][] points, int count, int[] selected) {
+        if (sorting == null) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(selected, "The array of selected points must not be null");
+        int n = points.length;
+        if (count < 0 || count > n) {
+            throw new IllegalArgumentException("The number of points to select, " + count
+                    + ", must be between 0 and the number of points, " + n);
+        }
+        if (selected.length < count) {
+            throw new IllegalArgumentException("The array of selected points must have at least " + count
+                    + " elements, but its length is " + selected.length);
+        }
+        if (count == 0) {
+            return;
+        }
+
+        if (ranks.length != n) {
+            // The sorting needs the array of ranks of the exact size, which typically does not change between calls.
+            ranks = new int[n];
+        }
+        int nFronts = sorting.sortUntilCount(points, ranks, count);
+        int splitRank = nFronts - 1;
+
+        int nSelected = 0, splitSize = 0;
+        for (int i = 0; i < n; ++i) {
+            int rank = ranks[i];
+            if (rank < splitRank) {
+                selected[nSelected] = i;
+                ++nSelected;
+            } else if (rank == splitRank) {
+                splitFront[splitSize] = i;
+                ++splitSize;
+            }
+        }
+
+        int remaining = count - nSelected;
+        if (remaining < splitSize) {
+            computeCrowdingDistance(points, splitSize);
+            sorter.sort(negatedCrowdingDistance, 1, splitFront, 0, splitSize, 0);
+        }
+        System.arraycopy(splitFront, 0, selected, nSelected, remaining);
+    }
+
+    @Override
+    public void close() {
+        if (sorting != null) {
+            sorting.close();
+        }
+        sorting = null;
+        sorter = null;
+        ranks = null;
+        splitFront = null;
+        negatedCrowdingDistance = null;
+    }
+
+    private void computeCrowdingDistance(double[][] points, int size) {
+        for (int i = 0; i < size; ++i) {
+            negatedCrowdingDistance[splitFront[i]] = 0;
+        }
+        int dim = points[0].length;
+        int last = size - 1;
+        for (int d = 0; d < dim; ++d) {
+            // The order by the previous objective is a permutation of the front, so it can be sorted again.
+            sorter.sortComparingByIndicesIfEqual(points, splitFront, 0, size, d);
+            double min = points[splitFront[0]][d];
+            double max = points[splitFront[last]][d];
+            negatedCrowdingDistance[splitFront[0]] = Double.NEGATIVE_INFINITY;
+            negatedCrowdingDistance[splitFront[last]] = Double.NEGATIVE_INFINITY;
+            if (max > min) {
+                double range = max - min;
+                for (int i = 1; i < last; ++i) {
+                    double gap = points[splitFront[i + 1]][d] - points[splitFront[i - 1]][d];
+                    negatedCrowdingDistance[splitFront[i]] -= gap / range;
+                }
+            }
+        }
+    }
+}
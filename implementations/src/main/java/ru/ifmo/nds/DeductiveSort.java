@@ -20,6 +20,20 @@ public final class DeductiveSort {
 
         @Override
         protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+            sortImpl(points, ranks, maximalMeaningfulRank, null);
+        }
+
+        @Override
+        protected int sortCheckedToFronts(double[][] points, int[] frontStart, int[] pointsByFront) {
+            // The fronts are peeled one after another, so the indices end up grouped by fronts.
+            int n = points.length;
+            int nFronts = sortImpl(points, pointsByFront, n - 1, frontStart);
+            frontStart[nFronts] = n;
+            System.arraycopy(indices, 0, pointsByFront, 0, n);
+            return nFronts;
+        }
+
+        private int sortImpl(double[][] points, int[] ranks, int maximalMeaningfulRank, int[] frontStart) {
             final int[] indices = this.indices;
             final int n = points.length;
             final int dim = points[0].length;
@@ -28,7 +42,11 @@ public final class DeductiveSort {
             Arrays.fill(ranks, maximalMeaningfulRank + 1);
 
             int from = 0;
-            for (int rank = 0; from < n && rank <= maximalMeaningfulRank; ++rank) {
+            int rank = 0;
+            for (; from < n && rank <= maximalMeaningfulRank; ++rank) {
+                if (frontStart != null) {
+                    frontStart[rank] = from;
+                }
                 int curr = from;
                 int last = n;
                 while (curr < last) {
@@ -58,6 +76,7 @@ public final class DeductiveSort {
                 }
                 from = last;
             }
+            return rank;
         }
     };
 
@@ -23,6 +23,7 @@ public final class FilterSort {
         private int[] ranks = new int[maximumPoints];
         private int[] sumOfIndices = new int[maximumPoints];
         private int[] orderBySumOfIndices = new int[maximumPoints];
+        private int[] sortScratch = new int[2 * maximumPoints + 1];
         private int[] startOrderByObjective = new int[maximumDimension];
         private boolean[] alive = new boolean[maximumPoints];
         private boolean[] isCandidate = new boolean[maximumPoints];
@@ -52,6 +53,7 @@ public final class FilterSort {
             ranks = null;
             sumOfIndices = null;
             orderBySumOfIndices = null;
+            sortScratch = null;
             alive = null;
             isCandidate = null;
             candidates = null;
@@ -82,7 +84,7 @@ public final class FilterSort {
                 }
             }
             ArrayHelper.fillIdentity(orderBySumOfIndices, size);
-            ArraySorter.sortIndicesByValues(orderBySumOfIndices, sumOfIndices, 0, size);
+            ArraySorter.sortIndicesByValues(orderBySumOfIndices, sumOfIndices, 0, size, sortScratch, 0);
         }
 
         private int populateCandidates(int filterIndex, int obj, int nCandidates) {
@@ -184,6 +186,24 @@ public final class FilterSort {
             ArrayHelper.fillIdentity(indices, oldN);
             sorter.lexicographicalSort(points, indices, 0, oldN, dim);
             int n = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+            sortUniquePoints(oldN, n, dim, ranks, maximalMeaningfulRank);
+        }
+
+        @Override
+        protected void sortCheckedColumns(double[][] columns, int oldN, int[] ranks, int maximalMeaningfulRank) {
+            int dim = columns.length;
+            ArrayHelper.fillIdentity(indices, oldN);
+            sorter.lexicographicalSortByColumns(columns, indices, 0, oldN, dim);
+            // After that, indices[i] is the original index of the i-th unique point.
+            int n = ArraySorter.retainUniquePoints(columns, oldN, indices, ranks);
+            double[][] rowPool = getFlatPointRowPool();
+            for (int i = 0; i < n; ++i) {
+                this.points[i] = ArrayHelper.gatherToPooledRow(columns, dim, indices[i], rowPool, i);
+            }
+            sortUniquePoints(oldN, n, dim, ranks, maximalMeaningfulRank);
+        }
+
+        private void sortUniquePoints(int oldN, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
             initializeObjectiveIndices(n, dim);
             runSorting(n, dim - 1, maximalMeaningfulRank);
             for (int i = 0; i < oldN; ++i) {
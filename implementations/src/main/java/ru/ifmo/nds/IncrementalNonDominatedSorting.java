@@ -0,0 +1,178 @@
+package ru.ifmo.nds;
+
+import java.util.Objects;
+
+/**
+ * This is the base for classes which maintain non-dominated sorting of a population
+ * which changes by adding and removing single points.
+ *
+ * Every point, which is currently in the population, is identified by an integer ID,
+ * which is returned by {@link #add(double[])} and is valid until the point is removed by {@link #remove(int)}.
+ * The IDs of removed points may be reused by subsequent additions.
+ */
+public abstract class IncrementalNonDominatedSorting {
+    /**
+     * A listener which is notified when the rank of a point, which is already in the population,
+     * changes as a result of adding or removing another point.
+     */
+    @FunctionalInterface
+    public interface RankChangeListener {
+        /**
+         * Is called when the rank of the point with the given ID changes.
+         * @param id the ID of the point.
+         * @param oldRank the rank of the point before the change.
+         * @param newRank the rank of the point after the change.
+         */
+        void rankChanged(int id, int oldRank, int newRank);
+    }
+
+    private static final RankChangeListener NO_LISTENER = (id, oldRank, newRank) -> {};
+
+    private final int maximumPoints;
+    private final int dimension;
+    private RankChangeListener listener = NO_LISTENER;
+
+    protected IncrementalNonDominatedSorting(int maximumPoints, int dimension) {
+        if (maximumPoints < 0) {
+            throw new IllegalArgumentException("The maximum number of points must be non-negative");
+        }
+        if (dimension < 0) {
+            throw new IllegalArgumentException("The dimension must be non-negative");
+        }
+        this.maximumPoints = maximumPoints;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Returns the name of the algorithm.
+     * @return the name of the algorithm.
+     */
+    public abstract String getName();
+
+    /**
+     * Returns the maximum number of points this instance can hold at the same time.
+     * @return the maximum number of points this instance can hold at the same time.
+     */
+    public final int getMaximumPoints() {
+        return maximumPoints;
+    }
+
+    /**
+     * Returns the dimension of points this instance works with.
+     * @return the dimension of points this instance works with.
+     */
+    public final int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Sets the listener to be notified about rank changes. Passing {@code null} removes the current listener.
+     * @param listener the listener.
+     */
+    public final void setRankChangeListener(RankChangeListener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * Adds a point to the population. The point is copied, so the caller may change the array afterwards.
+     *
+     * The listener is notified about all other points whose ranks change, but not about the added point.
+     *
+     * @param point the point to add.
+     * @return the ID of the added point.
+     */
+    public final int add(double[] point) {
+        Objects.requireNonNull(point, "The point must not be null");
+        if (point.length != dimension) {
+            throw new IllegalArgumentException("The point has dimension " + point.length
+                    + ", but this instance works with dimension " + dimension);
+        }
+        for (double coordinate : point) {
+            if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                throw new IllegalArgumentException("Coordinates of points must not be NaN or Inf");
+            }
+        }
+        if (size() == maximumPoints) {
+            throw new IllegalStateException("The population already contains the maximum number of points, "
+                    + maximumPoints);
+        }
+        return addChecked(point);
+    }
+
+    /**
+     * Removes the point with the given ID from the population.
+     *
+     * The listener is notified about all other points whose ranks change, but not about the removed point.
+     *
+     * @param id the ID of the point to remove.
+     */
+    public final void remove(int id) {
+        checkId(id);
+        removeChecked(id);
+    }
+
+    /**
+     * Returns the current rank of the point with the given ID.
+     * @param id the ID of the point.
+     * @return the current rank of the point.
+     */
+    public final int rankOf(int id) {
+        checkId(id);
+        return rankOfChecked(id);
+    }
+
+    /**
+     * Returns whether the given ID belongs to a point which is currently in the population.
+     * @param id the ID to test.
+     * @return {@code true} if the ID belongs to a point in the population, {@code false} otherwise.
+     */
+    public abstract boolean contains(int id);
+
+    /**
+     * Returns the number of points currently in the population.
+     * @return the number of points currently in the population.
+     */
+    public abstract int size();
+
+    /**
+     * Returns the number of non-empty fronts, which is the maximum rank plus one.
+     * @return the number of non-empty fronts.
+     */
+    public abstract int getNumberOfFronts();
+
+    /**
+     * Performs actual addition of the point. Assumes the point is valid and there is space for it.
+     * @param point the point to add.
+     * @return the ID of the added point.
+     */
+    protected abstract int addChecked(double[] point);
+
+    /**
+     * Performs actual removal of the point. Assumes the ID is valid.
+     * @param id the ID of the point to remove.
+     */
+    protected abstract void removeChecked(int id);
+
+    /**
+     * Returns the rank of the point. Assumes the ID is valid.
+     * @param id the ID of the point.
+     * @return the rank of the point.
+     */
+    protected abstract int rankOfChecked(int id);
+
+    /**
+     * Notifies the listener that the rank of the point has changed.
+     * @param id the ID of the point.
+     * @param oldRank the old rank.
+     * @param newRank the new rank.
+     */
+    protected final void notifyRankChanged(int id, int oldRank, int newRank) {
+        listener.rankChanged(id, oldRank, newRank);
+    }
+
+    private void checkId(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("The ID " + id + " does not belong to a point in the population");
+        }
+    }
+}
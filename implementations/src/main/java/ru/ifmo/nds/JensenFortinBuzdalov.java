@@ -1,12 +1,12 @@
 package ru.ifmo.nds;
 
 import ru.ifmo.nds.jfb.*;
+import ru.ifmo.nds.jfb.hybrid.Composite;
 import ru.ifmo.nds.jfb.hybrid.Dummy;
-import ru.ifmo.nds.jfb.hybrid.ENS;
-import ru.ifmo.nds.jfb.hybrid.LinearNDS;
-import ru.ifmo.nds.jfb.hybrid.NDT;
+import ru.ifmo.nds.jfb.hybrid.HybridCostModel;
 import ru.ifmo.nds.util.FenwickRankQueryStructureDouble;
 import ru.ifmo.nds.util.RedBlackRankQueryStructure;
+import ru.ifmo.nds.util.TreapRankQueryStructure;
 import ru.ifmo.nds.util.VanEmdeBoasRankQueryStructureInt;
 import ru.ifmo.nds.util.median.DestructiveMedianFactory;
 import ru.ifmo.nds.util.median.SingleScanV1;
@@ -18,35 +18,208 @@ public final class JensenFortinBuzdalov {
         return SingleScanV1.factory();
     }
 
+    private static Composite defaultComposite(HybridCostModel costModel) {
+        return new Composite(costModel, 8);
+    }
+
     public static NonDominatedSortingFactory getRedBlackTreeSweepImplementation(int allowedThreads) {
-        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, allowedThreads, Dummy.getWrapperInstance(), defaultMedianFactory());
+        return getRedBlackTreeSweepImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepImplementation(JFBExecutionPolicy executionPolicy) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, Dummy.getWrapperInstance(), defaultMedianFactory());
     }
 
     public static NonDominatedSortingFactory getFenwickSweepImplementation(int allowedThreads) {
-        return (p, d) -> new JFBDouble(new FenwickRankQueryStructureDouble(p), d, allowedThreads, Dummy.getWrapperInstance(), defaultMedianFactory());
+        return getFenwickSweepImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getFenwickSweepImplementation(JFBExecutionPolicy executionPolicy) {
+        return (p, d) -> new JFBDouble(new FenwickRankQueryStructureDouble(p), d, executionPolicy, Dummy.getWrapperInstance(), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getTreapSweepImplementation(int allowedThreads) {
+        return getTreapSweepImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getTreapSweepImplementation(JFBExecutionPolicy executionPolicy) {
+        return (p, d) -> new JFBDouble(new TreapRankQueryStructure(p), d, executionPolicy, Dummy.getWrapperInstance(), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getTreapSweepHybridENSImplementation(int allowedThreads) {
+        return getTreapSweepHybridENSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getTreapSweepHybridENSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getTreapSweepHybridENSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getTreapSweepHybridENSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBDouble(new TreapRankQueryStructure(p), d, executionPolicy, thresholds.createENS(), defaultMedianFactory());
     }
 
     public static NonDominatedSortingFactory getVanEmdeBoasImplementation() {
-        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, 1, Dummy.getWrapperInstance(), defaultMedianFactory());
+        return getVanEmdeBoasImplementation(1);
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasImplementation(int allowedThreads) {
+        return getVanEmdeBoasImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasImplementation(JFBExecutionPolicy executionPolicy) {
+        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, Dummy.getWrapperInstance(), defaultMedianFactory());
     }
 
     public static NonDominatedSortingFactory getVanEmdeBoasHybridENSImplementation() {
-        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, 1, new ENS(100, 200), defaultMedianFactory());
+        return getVanEmdeBoasHybridENSImplementation(1);
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridENSImplementation(int allowedThreads) {
+        return getVanEmdeBoasHybridENSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridENSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getVanEmdeBoasHybridENSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridENSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, thresholds.createENS(), defaultMedianFactory());
+    }
+
+    // Single-threaded instances sort three-objective problems by ThreeDimensionalSweep instead of the recursion.
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridENSSweep3DImplementation(int allowedThreads) {
+        return getVanEmdeBoasHybridENSImplementation(JFBExecutionPolicy.ownPool(allowedThreads), HybridThresholds.getDefault(), true);
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridENSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds, boolean useThreeDimensionalSweep) {
+        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, thresholds.createENS(), defaultMedianFactory(), useThreeDimensionalSweep);
     }
 
     public static NonDominatedSortingFactory getVanEmdeBoasHybridNDTImplementation(int threshold) {
-        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, 1, new NDT(100, 20000, threshold), defaultMedianFactory());
+        return getVanEmdeBoasHybridNDTImplementation(threshold, 1);
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridNDTImplementation(int threshold, int allowedThreads) {
+        return getVanEmdeBoasHybridNDTImplementation(threshold, JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridNDTImplementation(int threshold, JFBExecutionPolicy executionPolicy) {
+        return getVanEmdeBoasHybridNDTImplementation(threshold, executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridNDTImplementation(int threshold, JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, thresholds.createNDT(threshold), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getRankSpaceImplementation(int allowedThreads) {
+        return getRankSpaceImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRankSpaceImplementation(JFBExecutionPolicy executionPolicy) {
+        return (p, d) -> new JFBRankSpace(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, Dummy.getWrapperInstance());
+    }
+
+    public static NonDominatedSortingFactory getRankSpaceHybridENSImplementation(int allowedThreads) {
+        return getRankSpaceHybridENSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRankSpaceHybridENSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getRankSpaceHybridENSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getRankSpaceHybridENSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBRankSpace(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, thresholds.createENS());
     }
 
     public static NonDominatedSortingFactory getRedBlackTreeSweepHybridFNDSImplementation(int allowedThreads) {
-        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, allowedThreads, LinearNDS.getWrapperInstance(), defaultMedianFactory());
+        return getRedBlackTreeSweepHybridFNDSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridFNDSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getRedBlackTreeSweepHybridFNDSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridFNDSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, thresholds.createLinearNDS(), defaultMedianFactory());
     }
 
     public static NonDominatedSortingFactory getRedBlackTreeSweepHybridENSImplementation(int allowedThreads) {
-        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, allowedThreads, new ENS(100, 200), defaultMedianFactory());
+        return getRedBlackTreeSweepHybridENSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridENSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getRedBlackTreeSweepHybridENSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridENSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, thresholds.createENS(), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridENSSweep3DImplementation(int allowedThreads) {
+        return getRedBlackTreeSweepHybridENSImplementation(JFBExecutionPolicy.ownPool(allowedThreads), HybridThresholds.getDefault(), true);
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridENSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds, boolean useThreeDimensionalSweep) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, thresholds.createENS(), defaultMedianFactory(), useThreeDimensionalSweep);
     }
 
     public static NonDominatedSortingFactory getRedBlackTreeSweepHybridNDTImplementation(int threshold, int allowedThreads) {
-        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, allowedThreads, new NDT(100, 20000, threshold), defaultMedianFactory());
+        return getRedBlackTreeSweepHybridNDTImplementation(threshold, JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridNDTImplementation(int threshold, JFBExecutionPolicy executionPolicy) {
+        return getRedBlackTreeSweepHybridNDTImplementation(threshold, executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridNDTImplementation(int threshold, JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, thresholds.createNDT(threshold), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridMNDSImplementation(int allowedThreads) {
+        return getRedBlackTreeSweepHybridMNDSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridMNDSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getRedBlackTreeSweepHybridMNDSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridMNDSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, thresholds.createMNDS(), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridMNDSImplementation(int allowedThreads) {
+        return getVanEmdeBoasHybridMNDSImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridMNDSImplementation(JFBExecutionPolicy executionPolicy) {
+        return getVanEmdeBoasHybridMNDSImplementation(executionPolicy, HybridThresholds.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridMNDSImplementation(JFBExecutionPolicy executionPolicy, HybridThresholds thresholds) {
+        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, thresholds.createMNDS(), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridCompositeImplementation(int allowedThreads) {
+        return getRedBlackTreeSweepHybridCompositeImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridCompositeImplementation(JFBExecutionPolicy executionPolicy) {
+        return getRedBlackTreeSweepHybridCompositeImplementation(executionPolicy, HybridCostModel.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getRedBlackTreeSweepHybridCompositeImplementation(JFBExecutionPolicy executionPolicy, HybridCostModel costModel) {
+        return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, executionPolicy, defaultComposite(costModel), defaultMedianFactory());
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridCompositeImplementation(int allowedThreads) {
+        return getVanEmdeBoasHybridCompositeImplementation(JFBExecutionPolicy.ownPool(allowedThreads));
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridCompositeImplementation(JFBExecutionPolicy executionPolicy) {
+        return getVanEmdeBoasHybridCompositeImplementation(executionPolicy, HybridCostModel.getDefault());
+    }
+
+    public static NonDominatedSortingFactory getVanEmdeBoasHybridCompositeImplementation(JFBExecutionPolicy executionPolicy, HybridCostModel costModel) {
+        return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, executionPolicy, defaultComposite(costModel), defaultMedianFactory());
     }
 }
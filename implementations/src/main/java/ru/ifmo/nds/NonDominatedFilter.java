@@ -0,0 +1,232 @@
+package ru.ifmo.nds;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import ru.ifmo.nds.util.DominanceHelper;
+
+/**
+ * This class finds the non-dominated points, that is, the points of rank zero, without ranking the others.
+ *
+ * First, a few points, which are typically non-dominated, are chosen as pivots: the point with the smallest sum
+ * of objectives, and, for every objective, the point with the smallest value in this objective
+ * (and the smallest sum among such points). All points dominated by the pivots are discarded in a single pass,
+ * which, for typical inputs with small first fronts, leaves only a small fraction of the points.
+ * The remaining points are sorted by the given algorithm with the maximal meaningful rank of zero.
+ * For the Jensen-Fortin-Buzdalov algorithm, this is the divide-and-conquer maxima search of Kung, Luccio and Preparata,
+ * as the points of nonzero rank are removed from the recursion as soon as they are found.
+ * A multithreaded algorithm may be used for the remaining points, the pass over the pivots is sequential.
+ */
+public final class NonDominatedFilter implements AutoCloseable {
+    // The sorting needs the array of ranks of the exact size. To avoid allocating it on every call,
+    // the surviving points are padded with copies of the first one, which do not change any ranks,
+    // as long as the padding stays within this fraction of the survivors.
+    private static final int PADDING_FRACTION = 8;
+
+    private NonDominatedSorting sorting;
+    private int[] pivots;
+    private int[] survivors;
+    private double[] sums;
+    private double[][] columns;
+    private double[][] survivingColumns;
+    private int[] ranks;
+
+    /**
+     * Creates a new instance of the filter.
+     * @param factory the factory of the non-dominated sorting algorithm to use for the points which remain after the pivots.
+     * @param maximumPoints the maximum number of points to filter.
+     * @param maximumDimension the maximum dimension of the points.
+     */
+    public NonDominatedFilter(NonDominatedSortingFactory factory, int maximumPoints, int maximumDimension) {
+        Objects.requireNonNull(factory, "The factory must not be null");
+        sorting = factory.getInstance(maximumPoints, maximumDimension);
+        pivots = new int[maximumDimension + 1];
+        survivors = new int[maximumPoints];
+        sums = new double[maximumPoints];
+        columns = new double[maximumDimension][maximumPoints];
+        survivingColumns = new double[0][];
+        ranks = new int[0];
+    }
+
+    /**
+     * Creates a new instance of the filter, which uses the Jensen-Fortin-Buzdalov algorithm
+     * with the red-black tree sweep, the ENS hybrid and, for three objectives, the staircase sweep.
+     *
+     * @param maximumPoints the maximum number of points to filter.
+     * @param maximumDimension the maximum dimension of the points.
+     * @param allowedThreads the number of threads to use. Non-positive values mean using all available processors.
+     */
+    public NonDominatedFilter(int maximumPoints, int maximumDimension, int allowedThreads) {
+        this(JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSSweep3DImplementation(allowedThreads), maximumPoints, maximumDimension);
+    }
+
+    /**
+     * Returns the name of the filter, which includes the name of the non-dominated sorting algorithm.
+     * @return the name of the filter.
+     */
+    public String getName() {
+        return "Non-dominated filter, sorting: " + sorting.getName();
+    }
+
+    /**
+     * Finds the non-dominated points. Their indices are written to {@code nonDominated} in the increasing order.
+     * Equal points are either all non-dominated or all dominated.
+     *
+     * @param points the points to be filtered.
+     * @param nonDominated the array to write the indices of the non-dominated points,
+     *                     which must have at least as many elements as there are points.
+     * @return the number of the non-dominated points.
+     */
+    public int filter(double[][] points, int[] nonDominated) {
+        if (sorting == null) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(nonDominated, "The array of non-dominated points must not be null");
+        int n = points.length;
+        if (n > sorting.getMaximumPoints()) {
+            throw new IllegalArgumentException("The number of points to be filtered, " + n
+                    + ", must not exceed the maximum number of points, " + sorting.getMaximumPoints());
+        }
+        if (nonDominated.length < n) {
+            throw new IllegalArgumentException("The array of non-dominated points must have at least " + n
+                    + " elements, but its length is " + nonDominated.length);
+        }
+        if (n == 0) {
+            return 0;
+        }
+        int dim = requirePointsAreValid(points);
+        if (dim > sorting.getMaximumDimension()) {
+            throw new IllegalArgumentException("The dimension of points to be filtered, " + dim
+                    + ", must not exceed the maximum dimension, " + sorting.getMaximumDimension());
+        }
+
+        for (int i = 0; i < n; ++i) {
+            sums[i] = sum(points[i], dim);
+        }
+        int nPivots = findPivots(points, dim);
+        int nSurvivors = 0;
+        for (int i = 0; i < n; ++i) {
+            if (!isDominatedByPivots(points, points[i], nPivots, dim)) {
+                survivors[nSurvivors] = i;
+                ++nSurvivors;
+            }
+        }
+
+        if (ranks.length < nSurvivors || ranks.length - nSurvivors > nSurvivors / PADDING_FRACTION) {
+            ranks = new int[Math.min(sorting.getMaximumPoints(), nSurvivors + nSurvivors / PADDING_FRACTION)];
+        }
+        int nSorted = ranks.length;
+        if (survivingColumns.length != dim) {
+            survivingColumns = Arrays.copyOf(columns, dim);
+        }
+        for (int i = 0; i < nSurvivors; ++i) {
+            double[] point = points[survivors[i]];
+            for (int j = 0; j < dim; ++j) {
+                columns[j][i] = point[j];
+            }
+        }
+        for (int j = 0; j < dim; ++j) {
+            Arrays.fill(columns[j], nSurvivors, nSorted, columns[j][0]);
+        }
+        sorting.sortColumns(survivingColumns, nSorted, ranks, 0);
+
+        int count = 0;
+        for (int i = 0; i < nSurvivors; ++i) {
+            if (ranks[i] == 0) {
+                nonDominated[count] = survivors[i];
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (sorting != null) {
+            sorting.close();
+        }
+        sorting = null;
+        pivots = null;
+        survivors = null;
+        sums = null;
+        columns = null;
+        survivingColumns = null;
+        ranks = null;
+    }
+
+    private static int requirePointsAreValid(double[][] points) {
+        int dim = -1;
+        for (double[] point : points) {
+            Objects.requireNonNull(point, "The points to be filtered must not be null");
+            if (dim == -1) {
+                dim = point.length;
+            } else if (dim != point.length) {
+                throw new IllegalArgumentException("All points to be filtered must have equal dimension");
+            }
+            for (double coordinate : point) {
+                if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                    throw new IllegalArgumentException("Coordinates of points to be filtered must not be NaN or Inf");
+                }
+            }
+        }
+        return dim;
+    }
+
+    private static double sum(double[] point, int dim) {
+        double rv = 0;
+        for (int j = 0; j < dim; ++j) {
+            rv += point[j];
+        }
+        return rv;
+    }
+
+    // A dominating point is not greater in every objective, and has a smaller sum, so the points chosen here
+    // are non-dominated, unless rounding of the sums interferes. Only dominated points are discarded anyway.
+    private int findPivots(double[][] points, int dim) {
+        int best = 0;
+        double bestSum = sums[0];
+        for (int i = 1; i < points.length; ++i) {
+            double currSum = sums[i];
+            if (currSum < bestSum) {
+                bestSum = currSum;
+                best = i;
+            }
+        }
+        int nPivots = 0;
+        pivots[nPivots++] = best;
+        for (int j = 0; j < dim; ++j) {
+            best = 0;
+            double bestValue = points[0][j];
+            bestSum = sums[0];
+            for (int i = 1; i < points.length; ++i) {
+                double value = points[i][j];
+                if (value <= bestValue) {
+                    double currSum = sums[i];
+                    if (value < bestValue || currSum < bestSum) {
+                        bestValue = value;
+                        bestSum = currSum;
+                        best = i;
+                    }
+                }
+            }
+            boolean isNew = true;
+            for (int p = 0; p < nPivots; ++p) {
+                isNew &= pivots[p] != best;
+            }
+            if (isNew) {
+                pivots[nPivots++] = best;
+            }
+        }
+        return nPivots;
+    }
+
+    private boolean isDominatedByPivots(double[][] points, double[] point, int nPivots, int dim) {
+        for (int p = 0; p < nPivots; ++p) {
+            if (DominanceHelper.strictlyDominates(points[pivots[p]], point, dim)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
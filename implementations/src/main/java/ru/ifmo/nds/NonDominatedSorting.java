@@ -12,6 +12,9 @@ import ru.ifmo.nds.util.ArraySorter;
  * @author Maxim Buzdalov
  */
 public abstract class NonDominatedSorting implements AutoCloseable {
+    // All integers of at most this absolute value are exactly representable as doubles.
+    private static final long MAXIMUM_EXACT_LONG = 1L << 53;
+
     private boolean closeWasCalled = false;
     private final int maximumPoints;
     private final int maximumDimension;
@@ -19,6 +22,10 @@ public abstract class NonDominatedSorting implements AutoCloseable {
     protected ArraySorter sorter;
     protected int[] indices;
 
+    private double[][] flatPointRows;
+    private double[][] flatPointWrapper;
+    private long[] longColumn;
+
     protected NonDominatedSorting(int maximumPoints, int maximumDimension) {
         this.maximumPoints = maximumPoints;
         this.maximumDimension = maximumDimension;
@@ -60,6 +67,9 @@ public abstract class NonDominatedSorting implements AutoCloseable {
         closeImpl();
         sorter = null;
         indices = null;
+        flatPointRows = null;
+        flatPointWrapper = null;
+        longColumn = null;
     }
 
     /**
@@ -126,6 +136,324 @@ public abstract class NonDominatedSorting implements AutoCloseable {
         }
     }
 
+    /**
+     * Performs non-dominated sorting only until the first fronts contain at least {@code requiredCount} points,
+     * which is what environmental selection typically needs.
+     *
+     * If the first {@code k} fronts are the shortest sequence of fronts containing at least {@code requiredCount}
+     * points in total, or all fronts if there are not enough points, the points from these fronts receive
+     * their ranks as usual, and all other points are reported as unranked by receiving the rank {@code k}.
+     * Algorithms which support this mode natively skip much of the work on the unranked points.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param requiredCount the number of points which must receive their ranks.
+     * @return the number {@code k} of fronts whose points received their ranks.
+     */
+    public final int sortUntilCount(double[][] points, int[] ranks, int requiredCount) {
+        requirePointsAreNonNull(points);
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+
+        checkNumbersOfPoints(points.length, ranks.length);
+
+        if (requiredCount <= 0) {
+            throw new IllegalArgumentException("The required count must be positive");
+        }
+
+        if (points.length == 0) {
+            // Nothing to be done here.
+            return 0;
+        }
+
+        int dimension = checkAndGetDimension(points);
+        if (dimension <= 1) {
+            sort(points, ranks);
+        } else {
+            sortCheckedUntilCount(points, ranks, requiredCount);
+        }
+        return markUnrankedPoints(ranks, requiredCount);
+    }
+
+    /**
+     * Performs non-dominated sorting and reports the fronts instead of the ranks of points.
+     *
+     * The fronts are stored in the compressed sparse row layout. If this method returns {@code k},
+     * then, for every {@code f} from {@code 0} to {@code k - 1}, the indices of the points with rank {@code f}
+     * are {@code pointsByFront[frontStart[f]]}, ..., {@code pointsByFront[frontStart[f + 1] - 1]}.
+     * Additionally, {@code frontStart[0] = 0} and {@code frontStart[k] = points.length}.
+     * The order of points within a front is unspecified.
+     *
+     * @param points the array of points to be sorted.
+     * @param frontStart the array to be filled with the starts of the fronts,
+     *                   which must have at least {@code points.length + 1} elements.
+     * @param pointsByFront the array to be filled with the indices of points grouped by fronts,
+     *                      which must have exactly {@code points.length} elements.
+     * @return the number of fronts.
+     */
+    public final int sortToFronts(double[][] points, int[] frontStart, int[] pointsByFront) {
+        requirePointsAreNonNull(points);
+        Objects.requireNonNull(frontStart, "The array of front starts must not be null");
+        Objects.requireNonNull(pointsByFront, "The array of points by front must not be null");
+
+        int n = points.length;
+        if (n > this.maximumPoints) {
+            throw new IllegalArgumentException(
+                    "The number of points to be sorted, " + n
+                            + ", must not exceed the maximum number of points, " + this.maximumPoints
+                            + ", which this instance of NonDominatedSorting can handle");
+        }
+        if (n != pointsByFront.length) {
+            throw new IllegalArgumentException(
+                    "The number of points, " + n
+                            + ", must coincide with the length of the array for points by front, which is "
+                            + pointsByFront.length);
+        }
+        if (n >= frontStart.length) {
+            throw new IllegalArgumentException(
+                    "The array of front starts must have at least " + (n + 1)
+                            + " elements, but its length is " + frontStart.length);
+        }
+
+        if (n == 0) {
+            frontStart[0] = 0;
+            return 0;
+        }
+
+        int dimension = checkAndGetDimension(points);
+        if (dimension <= 1) {
+            sort(points, pointsByFront);
+            return ranksToFronts(pointsByFront, n, frontStart, pointsByFront);
+        } else {
+            return sortCheckedToFronts(points, frontStart, pointsByFront);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points with {@code float} coordinates.
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sort(float[][] points, int[] ranks) {
+        sort(points, ranks, ranks == null ? 0 : ranks.length);
+    }
+
+    /**
+     * Performs non-dominated sorting of points with {@code float} coordinates.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code points.length}.
+     */
+    public final void sort(float[][] points, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        for (float[] point : points) {
+            Objects.requireNonNull(point, "The points to be sorted must not be null");
+            for (float coordinate : point) {
+                if (Float.isNaN(coordinate) || Float.isInfinite(coordinate)) {
+                    throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+                }
+            }
+        }
+        int dimension = points.length == 0 ? 0 : points[0].length;
+        for (float[] point : points) {
+            checkEqualDimension(dimension, point.length);
+        }
+        if (checkTypedArguments(points.length, dimension, ranks, maximalMeaningfulRank)) {
+            if (dimension <= 1) {
+                sort(widenToPooledRows(points), ranks, maximalMeaningfulRank);
+            } else {
+                sortCheckedFloat(points, ranks, maximalMeaningfulRank);
+                filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+            }
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points with {@code int} coordinates.
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sort(int[][] points, int[] ranks) {
+        sort(points, ranks, ranks == null ? 0 : ranks.length);
+    }
+
+    /**
+     * Performs non-dominated sorting of points with {@code int} coordinates.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code points.length}.
+     */
+    public final void sort(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        for (int[] point : points) {
+            Objects.requireNonNull(point, "The points to be sorted must not be null");
+        }
+        int dimension = points.length == 0 ? 0 : points[0].length;
+        for (int[] point : points) {
+            checkEqualDimension(dimension, point.length);
+        }
+        if (checkTypedArguments(points.length, dimension, ranks, maximalMeaningfulRank)) {
+            if (dimension <= 1) {
+                sort(widenToPooledRows(points), ranks, maximalMeaningfulRank);
+            } else {
+                sortCheckedInt(points, ranks, maximalMeaningfulRank);
+                filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+            }
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points with {@code long} coordinates.
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sort(long[][] points, int[] ranks) {
+        sort(points, ranks, ranks == null ? 0 : ranks.length);
+    }
+
+    /**
+     * Performs non-dominated sorting of points with {@code long} coordinates.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code points.length}.
+     */
+    public final void sort(long[][] points, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        for (long[] point : points) {
+            Objects.requireNonNull(point, "The points to be sorted must not be null");
+        }
+        int dimension = points.length == 0 ? 0 : points[0].length;
+        for (long[] point : points) {
+            checkEqualDimension(dimension, point.length);
+        }
+        if (checkTypedArguments(points.length, dimension, ranks, maximalMeaningfulRank)) {
+            if (dimension <= 1) {
+                sort(widenToPooledRows(points), ranks, maximalMeaningfulRank);
+            } else {
+                sortCheckedLong(points, ranks, maximalMeaningfulRank);
+                filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+            }
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored contiguously in a single row-major array,
+     * such that the {@code j}-th coordinate of the {@code i}-th point is {@code flatPoints[i * dim + j]}.
+     *
+     * @param flatPoints the array of points to be sorted, in the row-major order.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sort(double[] flatPoints, int n, int dim, int[] ranks) {
+        sort(flatPoints, n, dim, ranks, n);
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored contiguously in a single row-major array,
+     * such that the {@code j}-th coordinate of the {@code i}-th point is {@code flatPoints[i * dim + j]}.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param flatPoints the array of points to be sorted, in the row-major order.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code n}.
+     */
+    public final void sort(double[] flatPoints, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        requireFlatPointsAreValid(flatPoints, n, dim);
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+
+        checkNumbersOfPoints(n, ranks.length);
+
+        if (n == 0) {
+            // Nothing to be done here.
+            return;
+        }
+
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+
+        checkDimension(dim);
+        if (dim == 0) {
+            Arrays.fill(ranks, 0);
+        } else if (dim == 1) {
+            sortOneDimensional(flatPoints, n, ranks, maximalMeaningfulRank);
+        } else {
+            sortCheckedFlat(flatPoints, n, dim, ranks, maximalMeaningfulRank);
+            filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored in the column-major order,
+     * such that the {@code j}-th coordinate of the {@code i}-th point is {@code objectivesByColumn[j][i]}.
+     *
+     * This is a convenience for the callers which keep the objectives by columns. Some algorithms presort
+     * the columns directly, but all of them still compare the points as rows, which they make from the columns,
+     * so this is not faster than sorting the same points given as rows.
+     *
+     * @param objectivesByColumn the array of columns, one for each objective.
+     * @param n the number of points.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sortColumns(double[][] objectivesByColumn, int n, int[] ranks) {
+        sortColumns(objectivesByColumn, n, ranks, n);
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored in the column-major order,
+     * such that the {@code j}-th coordinate of the {@code i}-th point is {@code objectivesByColumn[j][i]}.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param objectivesByColumn the array of columns, one for each objective.
+     * @param n the number of points.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code n}.
+     */
+    public final void sortColumns(double[][] objectivesByColumn, int n, int[] ranks, int maximalMeaningfulRank) {
+        requireColumnsAreValid(objectivesByColumn, n);
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+
+        checkNumbersOfPoints(n, ranks.length);
+
+        if (n == 0) {
+            // Nothing to be done here.
+            return;
+        }
+
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+
+        int dim = objectivesByColumn.length;
+        checkDimension(dim);
+        if (dim == 0) {
+            Arrays.fill(ranks, 0);
+        } else if (dim == 1) {
+            sortOneDimensional(objectivesByColumn[0], n, ranks, maximalMeaningfulRank);
+        } else {
+            sortCheckedColumns(objectivesByColumn, n, ranks, maximalMeaningfulRank);
+            filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+        }
+    }
+
     /**
      * Performs actual release of any resources hold by the algorithm.
      */
@@ -140,6 +468,352 @@ public abstract class NonDominatedSorting implements AutoCloseable {
      */
     protected abstract void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank);
 
+    /**
+     * Performs actual sorting when only the first fronts containing at least {@code requiredCount} points are needed.
+     * Assumes the input arrays are valid and the dimension is at least two.
+     *
+     * The ranks of the points from these fronts must be correct. All other points must receive ranks
+     * not smaller than the number of these fronts, but otherwise arbitrary.
+     *
+     * The default implementation performs complete sorting.
+     * Algorithms which can skip some work in this case should override this method.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param requiredCount the number of points which must receive their ranks.
+     */
+    protected void sortCheckedUntilCount(double[][] points, int[] ranks, int requiredCount) {
+        sortChecked(points, ranks, points.length);
+    }
+
+    /**
+     * Performs actual sorting and reports the fronts as {@link #sortToFronts(double[][], int[], int[])} does.
+     * Assumes the input arrays are valid and the dimension is at least two.
+     *
+     * The default implementation sorts the points, using {@code pointsByFront} to store the ranks,
+     * and then groups the points by fronts with a counting pass.
+     * Algorithms which discover the fronts explicitly should override this method.
+     *
+     * @param points the points to be sorted.
+     * @param frontStart the array to be filled with the starts of the fronts.
+     * @param pointsByFront the array to be filled with the indices of points grouped by fronts.
+     * @return the number of fronts.
+     */
+    protected int sortCheckedToFronts(double[][] points, int[] frontStart, int[] pointsByFront) {
+        int n = points.length;
+        sortChecked(points, pointsByFront, n - 1);
+        return ranksToFronts(pointsByFront, n, frontStart, pointsByFront);
+    }
+
+    /**
+     * Groups the points by fronts using their ranks. The array of ranks may be the same as {@code pointsByFront}.
+     * The points within each front are listed in the increasing order of their indices.
+     * This method uses {@link #indices}, so it must not be called while they are in use.
+     *
+     * @param ranks the ranks of the points, which must be smaller than {@code n}.
+     * @param n the number of points.
+     * @param frontStart the array to be filled with the starts of the fronts.
+     * @param pointsByFront the array to be filled with the indices of points grouped by fronts.
+     * @return the number of fronts.
+     */
+    protected final int ranksToFronts(int[] ranks, int n, int[] frontStart, int[] pointsByFront) {
+        int[] pointRanks = indices;
+        System.arraycopy(ranks, 0, pointRanks, 0, n);
+        int nFronts = 0;
+        for (int i = 0; i < n; ++i) {
+            nFronts = Math.max(nFronts, pointRanks[i] + 1);
+        }
+        Arrays.fill(frontStart, 0, nFronts + 1, 0);
+        for (int i = 0; i < n; ++i) {
+            ++frontStart[pointRanks[i] + 1];
+        }
+        for (int f = 1; f < nFronts; ++f) {
+            frontStart[f] += frontStart[f - 1];
+        }
+        // While filling, frontStart[f] moves from the start of the front f to its end.
+        for (int i = 0; i < n; ++i) {
+            pointsByFront[frontStart[pointRanks[i]]++] = i;
+        }
+        System.arraycopy(frontStart, 0, frontStart, 1, nFronts);
+        frontStart[0] = 0;
+        return nFronts;
+    }
+
+    /**
+     * Performs actual sorting of points stored in a single row-major array. Assumes the input arrays are valid.
+     *
+     * The default implementation copies the points into rows which are reused between calls,
+     * and then calls {@link #sortChecked(double[][], int[], int)}.
+     * Algorithms which can work with the row-major layout natively should override this method.
+     *
+     * @param points the points to be sorted, in the row-major order.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedFlat(double[] points, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        double[][] wrapper = getPooledWrapper(n);
+        double[][] pool = getFlatPointRowPool();
+        for (int i = 0, offset = 0; i < n; ++i, offset += dim) {
+            wrapper[i] = ArrayHelper.copyToPooledRow(points, offset, dim, pool, i);
+        }
+        sortChecked(wrapper, ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points stored in the column-major order. Assumes the input arrays are valid.
+     *
+     * The default implementation copies the points into rows which are reused between calls,
+     * and then calls {@link #sortChecked(double[][], int[], int)}.
+     * Algorithms which can presort the columns directly, or need the columns themselves, may override this method.
+     *
+     * @param columns the points to be sorted, one column for each objective.
+     * @param n the number of points.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedColumns(double[][] columns, int n, int[] ranks, int maximalMeaningfulRank) {
+        double[][] wrapper = getPooledWrapper(n);
+        double[][] pool = getFlatPointRowPool();
+        for (int i = 0, dim = columns.length; i < n; ++i) {
+            wrapper[i] = ArrayHelper.gatherToPooledRow(columns, dim, i, pool, i);
+        }
+        sortChecked(wrapper, ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points with {@code float} coordinates.
+     * Assumes the input arrays are valid and the dimension is at least two.
+     *
+     * The default implementation widens the points into rows which are reused between calls,
+     * and then calls {@link #sortChecked(double[][], int[], int)}.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedFloat(float[][] points, int[] ranks, int maximalMeaningfulRank) {
+        sortChecked(widenToPooledRows(points), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points with {@code int} coordinates.
+     * Assumes the input arrays are valid and the dimension is at least two.
+     *
+     * The default implementation widens the points into rows which are reused between calls,
+     * and then calls {@link #sortChecked(double[][], int[], int)}. Since every {@code int} is exactly
+     * representable as a {@code double}, the widened points have integral coordinates.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedInt(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        sortChecked(widenToPooledRows(points), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points with {@code long} coordinates.
+     * Assumes the input arrays are valid and the dimension is at least two.
+     *
+     * The default implementation widens the points into rows which are reused between calls,
+     * and then calls {@link #sortChecked(double[][], int[], int)}. If some coordinates are too large
+     * to be represented exactly as a {@code double}, every coordinate is replaced by its rank
+     * among the values of the same objective, so the widened points always have integral coordinates.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedLong(long[][] points, int[] ranks, int maximalMeaningfulRank) {
+        sortChecked(widenToPooledRows(points), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Returns the pool of rows which can be used to store copies of points given in the row-major
+     * or in the column-major order.
+     * The rows are allocated lazily and reused between calls, see {@link ArrayHelper#copyToPooledRow}.
+     *
+     * @return the pool of rows.
+     */
+    protected final double[][] getFlatPointRowPool() {
+        if (flatPointRows == null) {
+            flatPointRows = new double[maximumPoints][];
+        }
+        return flatPointRows;
+    }
+
+    private double[][] getPooledWrapper(int n) {
+        double[][] wrapper = flatPointWrapper;
+        if (wrapper == null || wrapper.length != n) {
+            flatPointWrapper = wrapper = new double[n][];
+        }
+        return wrapper;
+    }
+
+    private double[][] widenToPooledRows(float[][] points) {
+        int n = points.length;
+        double[][] wrapper = getPooledWrapper(n);
+        double[][] pool = getFlatPointRowPool();
+        for (int i = 0; i < n; ++i) {
+            wrapper[i] = ArrayHelper.widenToPooledRow(points[i], pool, i);
+        }
+        return wrapper;
+    }
+
+    private double[][] widenToPooledRows(int[][] points) {
+        int n = points.length;
+        double[][] wrapper = getPooledWrapper(n);
+        double[][] pool = getFlatPointRowPool();
+        for (int i = 0; i < n; ++i) {
+            wrapper[i] = ArrayHelper.widenToPooledRow(points[i], pool, i);
+        }
+        return wrapper;
+    }
+
+    private double[][] widenToPooledRows(long[][] points) {
+        int n = points.length;
+        double[][] wrapper = getPooledWrapper(n);
+        double[][] pool = getFlatPointRowPool();
+        boolean isExact = true;
+        for (int i = 0; i < n; ++i) {
+            long[] point = points[i];
+            wrapper[i] = ArrayHelper.widenToPooledRow(point, pool, i);
+            for (long coordinate : point) {
+                isExact &= -MAXIMUM_EXACT_LONG <= coordinate && coordinate <= MAXIMUM_EXACT_LONG;
+            }
+        }
+        if (!isExact) {
+            // The order of the values of every objective is all that matters, so they are replaced by their ranks.
+            int dim = points[0].length;
+            if (longColumn == null) {
+                longColumn = new long[maximumPoints];
+            }
+            for (int j = 0; j < dim; ++j) {
+                for (int i = 0; i < n; ++i) {
+                    longColumn[i] = points[i][j];
+                }
+                Arrays.sort(longColumn, 0, n);
+                int nUnique = 1;
+                for (int i = 1; i < n; ++i) {
+                    if (longColumn[i] != longColumn[nUnique - 1]) {
+                        longColumn[nUnique] = longColumn[i];
+                        ++nUnique;
+                    }
+                }
+                for (int i = 0; i < n; ++i) {
+                    wrapper[i][j] = Arrays.binarySearch(longColumn, 0, nUnique, points[i][j]);
+                }
+            }
+        }
+        return wrapper;
+    }
+
+    private boolean checkTypedArguments(int n, int dimension, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+        checkNumbersOfPoints(n, ranks.length);
+        if (n == 0) {
+            // Nothing to be done here.
+            return false;
+        }
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+        checkDimension(dimension);
+        return true;
+    }
+
+    private void sortOneDimensional(double[] values, int n, int[] ranks, int maximalMeaningfulRank) {
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.sort(values, 1, indices, 0, n, 0);
+        double last = Double.NaN;
+        int rank = -1;
+        int index = 0;
+        while (rank <= maximalMeaningfulRank && index < n) {
+            int ii = indices[index];
+            double curr = values[ii];
+            if (curr != last) {
+                ++rank;
+                last = curr;
+            }
+            ranks[ii] = rank;
+            ++index;
+        }
+        while (index < n) {
+            ranks[indices[index]] = rank;
+            ++index;
+        }
+    }
+
+    private int markUnrankedPoints(int[] ranks, int requiredCount) {
+        // The meaningful ranks are below the number of points, so the indices can be used to count front sizes.
+        int n = ranks.length;
+        int[] frontSizes = indices;
+        Arrays.fill(frontSizes, 0, n, 0);
+        for (int rank : ranks) {
+            if (rank < n) {
+                ++frontSizes[rank];
+            }
+        }
+        int nFronts = 0, count = 0;
+        while (nFronts < n && count < requiredCount && frontSizes[nFronts] > 0) {
+            count += frontSizes[nFronts];
+            ++nFronts;
+        }
+        for (int i = 0; i < n; ++i) {
+            if (ranks[i] > nFronts) {
+                ranks[i] = nFronts;
+            }
+        }
+        return nFronts;
+    }
+
+    private void requireColumnsAreValid(double[][] columns, int n) {
+        Objects.requireNonNull(columns, "The array of columns must not be null");
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of points must be non-negative");
+        }
+        for (double[] column : columns) {
+            Objects.requireNonNull(column, "The columns of points to be sorted must not be null");
+            if (column.length < n) {
+                throw new IllegalArgumentException("The column has length " + column.length
+                        + ", which is insufficient for " + n + " points");
+            }
+            for (int i = 0; i < n; ++i) {
+                double coordinate = column[i];
+                if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                    throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+                }
+            }
+        }
+    }
+
+    private void requireFlatPointsAreValid(double[] flatPoints, int n, int dim) {
+        Objects.requireNonNull(flatPoints, "The array of points must not be null");
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of points must be non-negative");
+        }
+        if (dim < 0) {
+            throw new IllegalArgumentException("The dimension of points must be non-negative");
+        }
+        if ((long) n * dim > flatPoints.length) {
+            throw new IllegalArgumentException("The array of points has length " + flatPoints.length
+                    + ", which is insufficient for " + n + " points of dimension " + dim);
+        }
+        for (int i = 0, size = n * dim; i < size; ++i) {
+            double coordinate = flatPoints[i];
+            if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+            }
+        }
+    }
+
     private void requirePointsAreNonNull(double[][] points) {
         Objects.requireNonNull(points, "The array of points must not be null");
         for (double[] point : points) {
@@ -163,17 +837,25 @@ public abstract class NonDominatedSorting implements AutoCloseable {
     private int checkAndGetDimension(double[][] points) {
         int dimension = points[0].length;
         for (int i = 1; i < points.length; ++i) {
-            if (points[i].length != dimension) {
-                throw new IllegalArgumentException("All points to be sorted must have equal dimension");
-            }
+            checkEqualDimension(dimension, points[i].length);
+        }
+        checkDimension(dimension);
+        return dimension;
+    }
+
+    private static void checkEqualDimension(int expected, int found) {
+        if (expected != found) {
+            throw new IllegalArgumentException("All points to be sorted must have equal dimension");
         }
+    }
+
+    private void checkDimension(int dimension) {
         if (dimension > this.maximumDimension) {
             throw new IllegalArgumentException(
                     "The dimension of points to be sorted, " + dimension
                             + ", must not exceed the maximum dimension, " + this.maximumDimension
                             + ", which this instance of NonDominatedSorting can handle");
         }
-        return dimension;
     }
 
     private void checkNumbersOfPoints(int pointsLength, int ranksLength) {
@@ -0,0 +1,148 @@
+package ru.ifmo.nds;
+
+import java.util.Objects;
+
+import ru.ifmo.nds.util.ArraySorter;
+
+/**
+ * This class wraps factories of non-dominated sorting algorithms, so that the objectives
+ * which are redundant for the given points are removed before the wrapped algorithm is run.
+ *
+ * An objective is redundant if it orders the points exactly as some other objective does,
+ * that is, if on the given points it is a strictly increasing function of that objective,
+ * or if it is the same for all points. Such an objective never changes whether one point dominates another,
+ * so the wrapped algorithm, which sorts the points by the remaining objectives, produces the same ranks.
+ *
+ * To find such objectives, the values of every objective are replaced by their ranks among the values
+ * of this objective, see {@link ArraySorter#compressCoordinates(double[], int[], int[], int, int)},
+ * and the resulting arrays are compared. This takes {@code O(n log n)} time per objective,
+ * which is small compared to sorting itself, but is wasted if no objective is redundant.
+ */
+public final class ObjectiveReduction {
+    private ObjectiveReduction() {}
+
+    /**
+     * Returns the factory which produces instances of the given algorithm, which remove redundant objectives first.
+     * @param factory the factory of the algorithm to be run on the remaining objectives.
+     * @return the factory of the algorithm which removes redundant objectives.
+     */
+    public static NonDominatedSortingFactory wrap(NonDominatedSortingFactory factory) {
+        Objects.requireNonNull(factory, "The factory must not be null");
+        return (maximumPoints, maximumDimension) -> new Instance(
+                factory.getInstance(maximumPoints, maximumDimension), maximumPoints, maximumDimension);
+    }
+
+    private static final class Instance extends NonDominatedSorting {
+        private NonDominatedSorting delegate;
+        private double[][] columns;
+        private int[][] compressed;
+        private int[] distinctValues;
+        private int[] keptObjectives;
+
+        private Instance(NonDominatedSorting delegate, int maximumPoints, int maximumDimension) {
+            super(maximumPoints, maximumDimension);
+            this.delegate = delegate;
+            // The rows are allocated when the corresponding objectives are first needed.
+            this.columns = new double[maximumDimension][];
+            this.compressed = new int[maximumDimension][];
+            this.distinctValues = new int[maximumDimension];
+            this.keptObjectives = new int[maximumDimension];
+        }
+
+        @Override
+        public String getName() {
+            return "Objective reduction, algorithm: " + delegate.getName();
+        }
+
+        @Override
+        protected void closeImpl() {
+            delegate.close();
+            delegate = null;
+            columns = null;
+            compressed = null;
+            distinctValues = null;
+            keptObjectives = null;
+        }
+
+        @Override
+        protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+            int n = points.length;
+            int dim = points[0].length;
+            for (int j = 0; j < dim; ++j) {
+                double[] column = columns[j];
+                if (column == null) {
+                    columns[j] = column = new double[getMaximumPoints()];
+                }
+                for (int i = 0; i < n; ++i) {
+                    column[i] = points[i][j];
+                }
+            }
+            int nKept = findKeptObjectives(columns, n, dim);
+            if (nKept == dim) {
+                delegate.sort(points, ranks, maximalMeaningfulRank);
+            } else {
+                delegate.sortColumns(gatherKeptColumns(columns, nKept), n, ranks, maximalMeaningfulRank);
+            }
+        }
+
+        @Override
+        protected void sortCheckedColumns(double[][] columns, int n, int[] ranks, int maximalMeaningfulRank) {
+            int dim = columns.length;
+            int nKept = findKeptObjectives(columns, n, dim);
+            delegate.sortColumns(nKept == dim ? columns : gatherKeptColumns(columns, nKept), n, ranks, maximalMeaningfulRank);
+        }
+
+        private double[][] gatherKeptColumns(double[][] columns, int nKept) {
+            double[][] rv = new double[nKept][];
+            for (int k = 0; k < nKept; ++k) {
+                rv[k] = columns[keptObjectives[k]];
+            }
+            return rv;
+        }
+
+        // Fills keptObjectives with the first objective from every group of equivalent ones, returns their number.
+        // The compressed values of the k-th kept objective are stored in compressed[k].
+        private int findKeptObjectives(double[][] columns, int n, int dim) {
+            int nKept = 0;
+            for (int j = 0; j < dim; ++j) {
+                int[] target = compressed[nKept];
+                if (target == null) {
+                    compressed[nKept] = target = new int[getMaximumPoints()];
+                }
+                sorter.compressCoordinates(columns[j], indices, target, 0, n);
+                int distinct = 0;
+                for (int i = 0; i < n; ++i) {
+                    distinct = Math.max(distinct, target[i] + 1);
+                }
+                if (distinct > 1 && !hasEquivalentObjective(target, distinct, n, nKept)) {
+                    distinctValues[nKept] = distinct;
+                    keptObjectives[nKept] = j;
+                    ++nKept;
+                }
+            }
+            if (nKept == 0) {
+                // All objectives are the same for all points, so any one of them will do.
+                keptObjectives[nKept++] = 0;
+            }
+            return nKept;
+        }
+
+        private boolean hasEquivalentObjective(int[] target, int distinct, int n, int nKept) {
+            for (int k = 0; k < nKept; ++k) {
+                if (distinctValues[k] == distinct && equalPrefixes(compressed[k], target, n)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean equalPrefixes(int[] a, int[] b, int n) {
+            for (int i = 0; i < n; ++i) {
+                if (a[i] != b[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package ru.ifmo.nds;
+
+import java.util.Objects;
+
+import ru.ifmo.nds.ndt.Split;
+import ru.ifmo.nds.ndt.SplitBuilder;
+import ru.ifmo.nds.ndt.TreeNode;
+import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.ArraySorter;
+
+/**
+ * This class holds a population of points, which is sorted once, and answers queries of the form
+ * "which rank would this point get if it were added to the population". The population is not changed by queries.
+ *
+ * The rank of a point is the number of fronts which contain a point dominating it. If a point from some front
+ * dominates the query point, so does some point from every previous front, so these fronts are found
+ * by binary search. To check whether a front dominates the query point, the points of every front are stored
+ * in a tree of the ENS-NDT algorithm, see {@link ru.ifmo.nds.ndt.ENS_NDT}, which is built over all objectives.
+ * The query points equal to some points of the population get the ranks of these points.
+ *
+ * The instances of this class do not change after construction, so queries may be run concurrently.
+ */
+public final class RankedPopulation {
+    private static final int SPLIT_THRESHOLD = 8;
+
+    private final int dimension;
+    private final int[] ranks;
+    private final double[][] uniquePoints;
+    private final int[] uniqueRanks;
+    private final TreeNode[] fronts;
+    private final Split[] splits;
+
+    /**
+     * Sorts the given points with the given algorithm and builds the population.
+     * The points are copied, so the caller may change them afterwards.
+     *
+     * @param sorting the algorithm to sort the points.
+     * @param points the points, all of the same dimension.
+     */
+    public RankedPopulation(NonDominatedSorting sorting, double[][] points) {
+        Objects.requireNonNull(sorting, "The sorting algorithm must not be null");
+        Objects.requireNonNull(points, "The array of points must not be null");
+        int n = points.length;
+        ranks = new int[n];
+        sorting.sort(points, ranks);
+        dimension = n == 0 ? 0 : points[0].length;
+
+        int[] indices = new int[n];
+        ArrayHelper.fillIdentity(indices, n);
+        new ArraySorter(n).lexicographicalSort(points, indices, 0, n, dimension);
+
+        // The points are stored with an additional objective in front of the others, which is never compared,
+        // so that the trees, which never look at the first objective, take all the actual objectives into account.
+        int nUnique = 0;
+        double[][] sortedUnique = new double[n][];
+        int[] sortedUniqueRanks = new int[n];
+        for (int i = 0; i < n; ++i) {
+            double[] point = points[indices[i]];
+            if (nUnique == 0 || compareLexicographically(sortedUnique[nUnique - 1], point) != 0) {
+                double[] copy = new double[dimension + 1];
+                System.arraycopy(point, 0, copy, 1, dimension);
+                sortedUnique[nUnique] = copy;
+                sortedUniqueRanks[nUnique] = ranks[indices[i]];
+                ++nUnique;
+            }
+        }
+        uniquePoints = new double[nUnique][];
+        uniqueRanks = new int[nUnique];
+        System.arraycopy(sortedUnique, 0, uniquePoints, 0, nUnique);
+        System.arraycopy(sortedUniqueRanks, 0, uniqueRanks, 0, nUnique);
+
+        int nFronts = 0;
+        for (int i = 0; i < nUnique; ++i) {
+            nFronts = Math.max(nFronts, uniqueRanks[i] + 1);
+        }
+        // The points are grouped by fronts, retaining the lexicographical order in every front.
+        int[] frontStart = new int[nFronts + 1];
+        for (int i = 0; i < nUnique; ++i) {
+            ++frontStart[uniqueRanks[i] + 1];
+        }
+        for (int f = 0; f < nFronts; ++f) {
+            frontStart[f + 1] += frontStart[f];
+        }
+        int[] byFront = new int[nUnique];
+        int[] frontEnd = new int[nFronts];
+        System.arraycopy(frontStart, 0, frontEnd, 0, nFronts);
+        for (int i = 0; i < nUnique; ++i) {
+            byFront[frontEnd[uniqueRanks[i]]++] = i;
+        }
+
+        double[][] transposedPoints = new double[dimension + 1][];
+        for (int j = 1; j <= dimension; ++j) {
+            double[] column = transposedPoints[j] = new double[nUnique];
+            for (int i = 0; i < nUnique; ++i) {
+                column[i] = uniquePoints[i][j];
+            }
+        }
+        SplitBuilder splitBuilder = new SplitBuilder(transposedPoints, nUnique, SPLIT_THRESHOLD);
+        fronts = new TreeNode[nFronts];
+        splits = new Split[nFronts];
+        for (int f = 0; f < nFronts; ++f) {
+            Split split = splitBuilder.result(frontStart[f], frontStart[f + 1], byFront, dimension + 1);
+            TreeNode tree = TreeNode.EMPTY;
+            for (int i = frontStart[f]; i < frontStart[f + 1]; ++i) {
+                tree = tree.add(uniquePoints[byFront[i]], split, SPLIT_THRESHOLD);
+            }
+            fronts[f] = tree;
+            splits[f] = split;
+        }
+    }
+
+    /**
+     * Returns the number of points in the population.
+     * @return the number of points in the population.
+     */
+    public int size() {
+        return ranks.length;
+    }
+
+    /**
+     * Returns the dimension of the points in the population, or zero if the population is empty.
+     * @return the dimension of the points.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of fronts in the population.
+     * @return the number of fronts.
+     */
+    public int getNumberOfFronts() {
+        return fronts.length;
+    }
+
+    /**
+     * Returns the rank of the point with the given index in the population.
+     * @param index the index of the point, in the order the points were given to the constructor.
+     * @return the rank of the point.
+     */
+    public int getRank(int index) {
+        return ranks[index];
+    }
+
+    /**
+     * Returns the rank the given point would get if it were added to the population.
+     * The ranks of the points in the population could change as a result, but they are not reported.
+     *
+     * @param point the point to be queried.
+     * @return the rank of the point.
+     */
+    public int queryRank(double[] point) {
+        Objects.requireNonNull(point, "The point must not be null");
+        if (fronts.length == 0) {
+            return 0;
+        }
+        if (point.length != dimension) {
+            throw new IllegalArgumentException("The point has dimension " + point.length
+                    + ", but the population has dimension " + dimension);
+        }
+        int equal = findEqualPoint(point);
+        if (equal >= 0) {
+            return uniqueRanks[equal];
+        }
+        // Since the point is not equal to any point of the population, the trees check strict dominance.
+        double[] query = new double[dimension + 1];
+        System.arraycopy(point, 0, query, 1, dimension);
+        if (!fronts[0].dominates(query, splits[0])) {
+            return 0;
+        }
+        int left = 0, right = fronts.length;
+        while (right - left > 1) {
+            int mid = (left + right) >>> 1;
+            if (fronts[mid].dominates(query, splits[mid])) {
+                left = mid;
+            } else {
+                right = mid;
+            }
+        }
+        return right;
+    }
+
+    /**
+     * Computes the ranks, which every of the given points would get if it alone were added to the population.
+     * @param points the points to be queried.
+     * @param ranks the array to be filled with the ranks.
+     */
+    public void queryRanks(double[][] points, int[] ranks) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+        if (points.length != ranks.length) {
+            throw new IllegalArgumentException("The number of points (" + points.length
+                    + ") does not match the number of ranks (" + ranks.length + ")");
+        }
+        for (int i = 0; i < points.length; ++i) {
+            ranks[i] = queryRank(points[i]);
+        }
+    }
+
+    private int findEqualPoint(double[] point) {
+        int left = 0, right = uniquePoints.length - 1;
+        while (left <= right) {
+            int mid = (left + right) >>> 1;
+            int cmp = compareLexicographically(uniquePoints[mid], point);
+            if (cmp == 0) {
+                return mid;
+            } else if (cmp < 0) {
+                left = mid + 1;
+            } else {
+                right = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    // The stored point has the additional objective in front, which is skipped.
+    private int compareLexicographically(double[] stored, double[] point) {
+        for (int j = 0; j < dimension; ++j) {
+            double s = stored[j + 1], p = point[j];
+            if (s < p) {
+                return -1;
+            }
+            if (s > p) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+}
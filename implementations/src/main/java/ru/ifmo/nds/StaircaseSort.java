@@ -0,0 +1,82 @@
+package ru.ifmo.nds;
+
+import java.util.Arrays;
+
+import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.ThreeDimensionalSweep;
+
+/**
+ * This is the factory of the non-dominated sorting algorithm for at most three objectives,
+ * which sweeps over the points in the lexicographical order and keeps a two-dimensional staircase for every front,
+ * see {@link ThreeDimensionalSweep}. This takes {@code O(n log n log k)} expected time for {@code k} fronts,
+ * which is not the optimal {@code O(n log n)}, but is fast in practice. The single-threaded Jensen-Fortin-Buzdalov
+ * algorithm can use the same sweep in three dimensions, see {@code JensenFortinBuzdalov.get*Sweep3DImplementation}.
+ *
+ * The instances accept any maximum dimension, but sorting points with more than three objectives
+ * throws an {@link IllegalArgumentException}.
+ */
+public final class StaircaseSort {
+    private StaircaseSort() {}
+
+    private static final NonDominatedSortingFactory INSTANCE = (maximumPoints, maximumDimension) ->
+            new NonDominatedSorting(maximumPoints, maximumDimension) {
+        private double[][] points = new double[maximumPoints][];
+        private double[] ys = new double[maximumPoints];
+        private double[] zs = new double[maximumPoints];
+        private int[] ranks = new int[maximumPoints];
+        private ThreeDimensionalSweep sweep = new ThreeDimensionalSweep(maximumPoints);
+
+        @Override
+        public String getName() {
+            return "Staircase Sort";
+        }
+
+        @Override
+        protected void closeImpl() {
+            points = null;
+            ys = null;
+            zs = null;
+            ranks = null;
+            sweep = null;
+        }
+
+        @Override
+        protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+            int oldN = points.length;
+            int dim = points[0].length;
+            if (dim > 3) {
+                throw new IllegalArgumentException("Staircase Sort supports at most three objectives, found " + dim);
+            }
+            ArrayHelper.fillIdentity(indices, oldN);
+            sorter.lexicographicalSort(points, indices, 0, oldN, dim);
+            int n = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+
+            // The missing objectives are the same for all points, so they never prevent dominance.
+            if (dim > 1) {
+                for (int i = 0; i < n; ++i) {
+                    ys[i] = this.points[i][1];
+                }
+            } else {
+                Arrays.fill(ys, 0, n, 0);
+            }
+            if (dim > 2) {
+                for (int i = 0; i < n; ++i) {
+                    zs[i] = this.points[i][2];
+                }
+            } else {
+                Arrays.fill(zs, 0, n, 0);
+            }
+            sweep.sort(ys, zs, n, this.ranks, maximalMeaningfulRank);
+
+            for (int i = 0; i < oldN; ++i) {
+                ranks[i] = this.ranks[ranks[i]];
+                this.points[i] = null;
+            }
+        }
+    };
+
+    public static NonDominatedSortingFactory getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.ifmo.nds.adaptive;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+
+/**
+ * This is a non-dominated sorting algorithm which, on every call, chooses the actual algorithm
+ * using a {@link DecisionTable}. If the table depends on the number of fronts,
+ * this number is estimated using a {@link FrontCountEstimator} beforehand.
+ *
+ * The instances of the actual algorithms are created lazily and reused between calls.
+ */
+public final class AdaptiveSorting extends NonDominatedSorting {
+    /**
+     * The number of points sorted to estimate the number of fronts.
+     */
+    public static final int SAMPLE_SIZE = 100;
+
+    private final DecisionTable table;
+    private final Function<String, NonDominatedSortingFactory> resolver;
+    private Map<String, NonDominatedSorting> instances;
+    private FrontCountEstimator estimator;
+
+    public AdaptiveSorting(int maximumPoints, int maximumDimension,
+                           DecisionTable table, Function<String, NonDominatedSortingFactory> resolver) {
+        super(maximumPoints, maximumDimension);
+        this.table = Objects.requireNonNull(table, "The decision table must not be null");
+        this.resolver = Objects.requireNonNull(resolver, "The algorithm resolver must not be null");
+        this.instances = new HashMap<>();
+        if (table.usesFrontCount() && maximumPoints > SAMPLE_SIZE) {
+            estimator = new FrontCountEstimator(SAMPLE_SIZE, maximumDimension);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Adaptive selection";
+    }
+
+    @Override
+    protected void closeImpl() {
+        for (NonDominatedSorting instance : instances.values()) {
+            instance.close();
+        }
+        instances = null;
+        if (estimator != null) {
+            estimator.close();
+            estimator = null;
+        }
+    }
+
+    /**
+     * Returns the algorithm which would be chosen to sort the given points.
+     * @param points the points, all of the same dimension.
+     * @return the chosen algorithm.
+     */
+    public NonDominatedSorting choose(double[][] points) {
+        int n = points.length;
+        int dim = n == 0 ? 0 : points[0].length;
+        int fronts = estimator != null && n > SAMPLE_SIZE ? estimator.estimate(points) : DecisionTable.ANY_FRONTS;
+        String id = table.select(dim, n, fronts);
+        NonDominatedSorting instance = instances.get(id);
+        if (instance == null) {
+            NonDominatedSortingFactory factory = resolver.apply(id);
+            if (factory == null) {
+                throw new IllegalArgumentException("The algorithm ID '" + id + "' from the decision table is not known");
+            }
+            instance = factory.getInstance(getMaximumPoints(), getMaximumDimension());
+            instances.put(id, instance);
+        }
+        return instance;
+    }
+
+    @Override
+    protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        choose(points).sort(points, ranks, maximalMeaningfulRank);
+    }
+
+    @Override
+    protected void sortCheckedUntilCount(double[][] points, int[] ranks, int requiredCount) {
+        choose(points).sortUntilCount(points, ranks, requiredCount);
+    }
+
+    @Override
+    protected int sortCheckedToFronts(double[][] points, int[] frontStart, int[] pointsByFront) {
+        return choose(points).sortToFronts(points, frontStart, pointsByFront);
+    }
+}
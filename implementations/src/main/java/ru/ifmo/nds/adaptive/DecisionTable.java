@@ -0,0 +1,253 @@
+package ru.ifmo.nds.adaptive;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringTokenizer;
+
+/**
+ * This is a decision table which maps the size of a problem to the ID of the algorithm which should solve it.
+ *
+ * Every entry of the table is a measured cell: the dimension, the number of points, the number of fronts
+ * as estimated by {@link FrontCountEstimator}, and the ID of the algorithm which was the fastest on this cell. The number of fronts may be {@link #ANY_FRONTS},
+ * which means that the entry applies to any number of fronts.
+ *
+ * An actual problem is mapped to the closest cell. The closeness is lexicographic: first, the dimension
+ * is matched, then the number of points, then the number of fronts, each in the logarithmic scale.
+ * If several cells are equally close, the one which comes first in the table wins.
+ *
+ * The text form of the table has one entry per line: {@code <dimension> <points> <fronts> <algorithm ID>},
+ * where {@code <fronts>} may be {@code *} for {@link #ANY_FRONTS}. Empty lines and lines starting with {@code #}
+ * are ignored.
+ */
+public final class DecisionTable {
+    /**
+     * The number of fronts which denotes that an entry applies to any number of fronts.
+     */
+    public static final int ANY_FRONTS = -1;
+
+    private final int[] dimensions;
+    private final int[] points;
+    private final int[] fronts;
+    private final String[] algorithmIds;
+    private final boolean usesFrontCount;
+
+    private DecisionTable(List<Entry> entries) {
+        int size = entries.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("The decision table must contain at least one entry");
+        }
+        dimensions = new int[size];
+        points = new int[size];
+        fronts = new int[size];
+        algorithmIds = new String[size];
+        boolean usesFrontCount = false;
+        for (int i = 0; i < size; ++i) {
+            Entry entry = entries.get(i);
+            dimensions[i] = entry.dimension;
+            points[i] = entry.points;
+            fronts[i] = entry.fronts;
+            algorithmIds[i] = entry.algorithmId;
+            usesFrontCount |= entry.fronts != ANY_FRONTS;
+        }
+        this.usesFrontCount = usesFrontCount;
+    }
+
+    /**
+     * Returns whether any entry of this table depends on the number of fronts.
+     * If not, there is no need to estimate the number of fronts before consulting the table.
+     *
+     * @return {@code true} if the number of fronts matters for this table, {@code false} otherwise.
+     */
+    public boolean usesFrontCount() {
+        return usesFrontCount;
+    }
+
+    /**
+     * Returns the list of distinct algorithm IDs mentioned in this table, in the order of their first appearance.
+     * @return the list of algorithm IDs.
+     */
+    public List<String> getAlgorithmIds() {
+        List<String> rv = new ArrayList<>();
+        for (String id : algorithmIds) {
+            if (!rv.contains(id)) {
+                rv.add(id);
+            }
+        }
+        return Collections.unmodifiableList(rv);
+    }
+
+    /**
+     * Returns the ID of the algorithm which should be used for the given problem.
+     *
+     * @param dimension the dimension of the problem.
+     * @param n the number of points.
+     * @param nFronts the (estimated) number of fronts, or {@link #ANY_FRONTS} if it is unknown,
+     *                in which case the square root of {@code n} is assumed.
+     * @return the ID of the algorithm.
+     */
+    public String select(int dimension, int n, int nFronts) {
+        double logDimension = Math.log(Math.max(1, dimension));
+        double logN = Math.log(Math.max(1, n));
+        double logFronts = nFronts == ANY_FRONTS ? logN / 2 : Math.log(Math.max(1, nFronts));
+
+        int best = 0;
+        double bestDimensionDiff = Double.POSITIVE_INFINITY;
+        double bestPointsDiff = Double.POSITIVE_INFINITY;
+        double bestFrontsDiff = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < algorithmIds.length; ++i) {
+            double dimensionDiff = Math.abs(Math.log(dimensions[i]) - logDimension);
+            if (dimensionDiff > bestDimensionDiff) {
+                continue;
+            }
+            double pointsDiff = Math.abs(Math.log(points[i]) - logN);
+            if (dimensionDiff == bestDimensionDiff && pointsDiff > bestPointsDiff) {
+                continue;
+            }
+            double frontsDiff = fronts[i] == ANY_FRONTS ? 0 : Math.abs(Math.log(fronts[i]) - logFronts);
+            if (dimensionDiff == bestDimensionDiff && pointsDiff == bestPointsDiff && frontsDiff >= bestFrontsDiff) {
+                continue;
+            }
+            best = i;
+            bestDimensionDiff = dimensionDiff;
+            bestPointsDiff = pointsDiff;
+            bestFrontsDiff = frontsDiff;
+        }
+        return algorithmIds[best];
+    }
+
+    /**
+     * Writes this table in the text form, which can be read back by {@link #read(Reader)}.
+     * @param writer the writer to write the table to.
+     * @throws IOException if writing fails.
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("# dimension, points, fronts, algorithm ID\n");
+        for (int i = 0; i < algorithmIds.length; ++i) {
+            writer.write(dimensions[i] + " " + points[i] + " "
+                    + (fronts[i] == ANY_FRONTS ? "*" : String.valueOf(fronts[i])) + " " + algorithmIds[i] + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads the table in the text form.
+     * @param reader the reader to read the table from.
+     * @return the table.
+     * @throws IOException if reading fails.
+     * @throws IllegalArgumentException if the table is malformed.
+     */
+    public static DecisionTable read(Reader reader) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            ++lineNumber;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            StringTokenizer st = new StringTokenizer(line);
+            if (st.countTokens() != 4) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of the decision table must have 4 tokens: '"
+                        + line + "'");
+            }
+            try {
+                int dimension = Integer.parseInt(st.nextToken());
+                int points = Integer.parseInt(st.nextToken());
+                String frontsToken = st.nextToken();
+                int fronts = frontsToken.equals("*") ? ANY_FRONTS : Integer.parseInt(frontsToken);
+                builder.add(dimension, points, fronts, st.nextToken());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Line " + lineNumber + " of the decision table is malformed: '"
+                        + line + "'", ex);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the table in the text form from the given file.
+     * @param path the file to read the table from.
+     * @return the table.
+     * @throws IOException if reading fails.
+     * @throws IllegalArgumentException if the table is malformed.
+     */
+    public static DecisionTable read(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Returns a table which always selects the same algorithm.
+     * @param algorithmId the ID of the algorithm.
+     * @return the table.
+     */
+    public static DecisionTable singleAlgorithm(String algorithmId) {
+        return new Builder().add(2, 2, ANY_FRONTS, algorithmId).build();
+    }
+
+    /**
+     * This is a builder for decision tables.
+     */
+    public static final class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+
+        /**
+         * Adds an entry to the table.
+         *
+         * @param dimension the dimension, which must be positive.
+         * @param points the number of points, which must be positive.
+         * @param fronts the number of fronts, which must be positive or {@link #ANY_FRONTS}.
+         * @param algorithmId the ID of the algorithm, which must not contain whitespace.
+         * @return this builder.
+         */
+        public Builder add(int dimension, int points, int fronts, String algorithmId) {
+            Objects.requireNonNull(algorithmId, "The algorithm ID must not be null");
+            if (dimension <= 0) {
+                throw new IllegalArgumentException("The dimension must be positive, found " + dimension);
+            }
+            if (points <= 0) {
+                throw new IllegalArgumentException("The number of points must be positive, found " + points);
+            }
+            if (fronts <= 0 && fronts != ANY_FRONTS) {
+                throw new IllegalArgumentException("The number of fronts must be positive, found " + fronts);
+            }
+            if (algorithmId.isEmpty() || new StringTokenizer(algorithmId).countTokens() != 1) {
+                throw new IllegalArgumentException("The algorithm ID must be a single non-empty token, found '"
+                        + algorithmId + "'");
+            }
+            entries.add(new Entry(dimension, points, fronts, algorithmId));
+            return this;
+        }
+
+        /**
+         * Builds the table.
+         * @return the table.
+         */
+        public DecisionTable build() {
+            return new DecisionTable(entries);
+        }
+    }
+
+    private static final class Entry {
+        private final int dimension;
+        private final int points;
+        private final int fronts;
+        private final String algorithmId;
+
+        private Entry(int dimension, int points, int fronts, String algorithmId) {
+            this.dimension = dimension;
+            this.points = points;
+            this.fronts = fronts;
+            this.algorithmId = algorithmId;
+        }
+    }
+}
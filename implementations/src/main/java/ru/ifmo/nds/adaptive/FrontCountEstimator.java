@@ -0,0 +1,116 @@
+package ru.ifmo.nds.adaptive;
+
+import java.util.Random;
+
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.ndt.ENS_NDT;
+
+/**
+ * This class estimates the number of fronts in a set of points by sorting a small sample of them.
+ *
+ * The sample consists of points chosen uniformly at random, with a fixed seed to keep the results reproducible.
+ * If the fronts have roughly equal sizes, the sample of {@code m} points drawn from {@code f} fronts hits about {@code f * (1 - exp(-m / f))} of them.
+ * The estimate is the value of {@code f} for which this equals the number of fronts observed in the sample.
+ *
+ * This model holds only if the fronts are stacked, that is, almost every point is dominated by almost every point
+ * of every previous front. Otherwise, the sample contains much fewer fronts than it hits, and the true number
+ * of fronts is underestimated, sometimes by orders of magnitude. For this reason, the decision tables
+ * for {@link AdaptiveSorting} must be keyed by the estimates of this class computed on the calibration inputs,
+ * rather than by the true numbers of fronts in these inputs.
+ */
+public final class FrontCountEstimator implements AutoCloseable {
+    private NonDominatedSorting sampleSorting;
+    private double[][] sample;
+    private int[] sampleRanks;
+    private final Random random = new Random(3141592653L);
+
+    /**
+     * Creates a new estimator.
+     * @param sampleSize the number of points to sort, which must be positive.
+     * @param maximumDimension the maximum dimension of the points.
+     */
+    public FrontCountEstimator(int sampleSize, int maximumDimension) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("The sample size must be positive, found " + sampleSize);
+        }
+        sampleSorting = new ENS_NDT(sampleSize, maximumDimension, 8);
+        sample = new double[sampleSize][];
+        sampleRanks = new int[sampleSize];
+    }
+
+    /**
+     * Returns the sample size of this estimator.
+     * @return the sample size.
+     */
+    public int getSampleSize() {
+        return sample.length;
+    }
+
+    /**
+     * Estimates the number of fronts in the given points.
+     * If there are not more points than the sample size, the exact number of fronts is returned.
+     *
+     * @param points the points, all of the same dimension not exceeding the maximum dimension.
+     * @return the estimated number of fronts, which is between 1 and the number of points, or 0 if there are no points.
+     */
+    public int estimate(double[][] points) {
+        if (sample == null) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        int n = points.length;
+        if (n == 0) {
+            return 0;
+        }
+        int m = Math.min(n, sample.length);
+        double[][] sample = m == this.sample.length ? this.sample : new double[m][];
+        if (m == n) {
+            System.arraycopy(points, 0, sample, 0, n);
+        } else {
+            for (int i = 0; i < m; ++i) {
+                sample[i] = points[random.nextInt(n)];
+            }
+        }
+        int[] ranks = m == sampleRanks.length ? sampleRanks : new int[m];
+        sampleSorting.sort(sample, ranks);
+        int observed = 0;
+        for (int i = 0; i < m; ++i) {
+            observed = Math.max(observed, ranks[i] + 1);
+            sample[i] = null;
+        }
+        return m == n ? observed : extrapolate(observed, m, n);
+    }
+
+    @Override
+    public void close() {
+        if (sampleSorting != null) {
+            sampleSorting.close();
+        }
+        sampleSorting = null;
+        sample = null;
+        sampleRanks = null;
+    }
+
+    static int extrapolate(int observed, int sampleSize, int n) {
+        if (observed >= sampleSize) {
+            return n;
+        }
+        // f * (1 - exp(-m / f)) grows with f, so the solution is found by bisection.
+        double lo = observed, hi = n;
+        if (expectedObserved(hi, sampleSize) <= observed) {
+            return n;
+        }
+        for (int iteration = 0; iteration < 60 && hi - lo > 0.5; ++iteration) {
+            double mid = (lo + hi) / 2;
+            if (expectedObserved(mid, sampleSize) < observed) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return (int) Math.max(1, Math.min(n, Math.round((lo + hi) / 2)));
+    }
+
+    private static double expectedObserved(double fronts, int sampleSize) {
+        return fronts * -Math.expm1(-sampleSize / fronts);
+    }
+}
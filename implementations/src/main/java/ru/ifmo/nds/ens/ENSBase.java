@@ -6,21 +6,36 @@ import static ru.ifmo.nds.util.DominanceHelper.strictlyDominatesAssumingLexicogr
 
 import ru.ifmo.nds.NonDominatedSorting;
 import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.DominanceKernel;
+import ru.ifmo.nds.util.RequiredCountTracker;
 
 public abstract class ENSBase extends NonDominatedSorting {
+    // The first block of front points is small, as the dominating point is often found early.
+    private static final int FIRST_BLOCK_SIZE = 4;
+
     private int[] prevIndex;
     private int[] lastRankIndex;
+    private int[] lastDuplicateIndex;
+    private int[] frontBlock;
+    private RequiredCountTracker requiredCountTracker;
+    private final DominanceKernel kernel = DominanceKernel.getDefault();
 
     ENSBase(int maximumPoints, int maximumDimension) {
         super(maximumPoints, maximumDimension);
         prevIndex = new int[maximumPoints];
         lastRankIndex = new int[maximumPoints];
+        lastDuplicateIndex = new int[maximumPoints];
+        frontBlock = new int[DominanceKernel.BLOCK_SIZE];
+        requiredCountTracker = new RequiredCountTracker(maximumPoints);
     }
 
     @Override
     protected void closeImpl() {
         prevIndex = null;
         lastRankIndex = null;
+        lastDuplicateIndex = null;
+        frontBlock = null;
+        requiredCountTracker = null;
     }
 
     final boolean frontDominates(int frontIndex, double[][] points, double[] point) {
@@ -30,11 +45,41 @@ public abstract class ENSBase extends NonDominatedSorting {
             // This is essentially how the 2D case of JFB works.
             return strictlyDominatesAssumingLexicographicallySmaller(points[index], point, maxObj);
         } else {
+            int blockSize = FIRST_BLOCK_SIZE;
+            while (index >= 0) {
+                int count = 0;
+                while (index >= 0 && count < blockSize) {
+                    frontBlock[count] = index;
+                    ++count;
+                    index = prevIndex[index];
+                }
+                if (kernel.anyDominatesAssumingLexicographicallySmaller(points, frontBlock, count, point, maxObj)) {
+                    return true;
+                }
+                blockSize = Math.min(blockSize * 2, frontBlock.length);
+            }
+            return false;
+        }
+    }
+
+    final boolean frontDominates(int frontIndex, double[] points, int dim, int pointOffset) {
+        int index = lastRankIndex[frontIndex];
+        int maxObj = dim - 1;
+        if (maxObj == 1) {
+            return strictlyDominatesAssumingLexicographicallySmaller(points, index * dim, pointOffset, maxObj);
+        } else {
+            int blockSize = FIRST_BLOCK_SIZE;
             while (index >= 0) {
-                if (strictlyDominatesAssumingLexicographicallySmaller(points[index], point, maxObj)) {
+                int count = 0;
+                while (index >= 0 && count < blockSize) {
+                    frontBlock[count] = index;
+                    ++count;
+                    index = prevIndex[index];
+                }
+                if (kernel.anyDominatesAssumingLexicographicallySmaller(points, dim, frontBlock, count, pointOffset, maxObj)) {
                     return true;
                 }
-                index = prevIndex[index];
+                blockSize = Math.min(blockSize * 2, frontBlock.length);
             }
             return false;
         }
@@ -56,9 +101,44 @@ public abstract class ENSBase extends NonDominatedSorting {
     }
 
     abstract int findRank(double[][] points, double[] curr, int maxRank);
+    abstract int findRank(double[] points, int dim, int currOffset, int maxRank);
 
     @Override
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        sortImpl(points, ranks, maximalMeaningfulRank, null, false);
+    }
+
+    @Override
+    protected void sortCheckedUntilCount(double[][] points, int[] ranks, int requiredCount) {
+        int n = ranks.length;
+        requiredCountTracker.reset(requiredCount, n - 1);
+        sortImpl(points, ranks, n - 1, requiredCountTracker, false);
+    }
+
+    @Override
+    protected int sortCheckedToFronts(double[][] points, int[] frontStart, int[] pointsByFront) {
+        int n = points.length;
+        Arrays.fill(lastDuplicateIndex, 0, n, -1);
+        // The fronts are already linked together, the duplicate points are linked separately.
+        int maxRank = sortImpl(points, pointsByFront, n - 1, null, true);
+        int count = 0;
+        for (int rank = 0; rank <= maxRank; ++rank) {
+            frontStart[rank] = count;
+            for (int index = lastRankIndex[rank]; index >= 0; index = prevIndex[index]) {
+                pointsByFront[count] = index;
+                ++count;
+            }
+            for (int index = lastDuplicateIndex[rank]; index >= 0; index = prevIndex[index]) {
+                pointsByFront[count] = index;
+                ++count;
+            }
+        }
+        frontStart[maxRank + 1] = count;
+        return maxRank + 1;
+    }
+
+    private int sortImpl(double[][] points, int[] ranks, int maximalMeaningfulRank,
+                         RequiredCountTracker tracker, boolean linkDuplicates) {
         int n = ranks.length;
         final int len = points[0].length;
         ArrayHelper.fillIdentity(indices, n);
@@ -69,16 +149,52 @@ public abstract class ENSBase extends NonDominatedSorting {
         int lastRank = 0;
         int maxRank = 0;
         double[] last = points[i0];
+        if (tracker != null) {
+            maximalMeaningfulRank = tracker.add(0, 1);
+        }
         for (int i = 1; i < n; ++i) {
             int index = indices[i];
             double[] curr = points[index];
             if (ArrayHelper.equal(last, curr, len)) {
                 ranks[index] = lastRank;
+                if (linkDuplicates) {
+                    prevIndex[index] = lastDuplicateIndex[lastRank];
+                    lastDuplicateIndex[lastRank] = index;
+                }
             } else {
                 lastRank = findRank(points, curr, maxRank);
                 last = curr;
                 maxRank = setRank(index, ranks, lastRank, maxRank, maximalMeaningfulRank);
             }
+            if (tracker != null) {
+                // The ranks are final once assigned, so the fronts beyond the required count can be forgotten.
+                maximalMeaningfulRank = tracker.add(lastRank, 1);
+                maxRank = Math.min(maxRank, maximalMeaningfulRank);
+            }
+        }
+        return maxRank;
+    }
+
+    @Override
+    protected void sortCheckedFlat(double[] points, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        ArrayHelper.fillIdentity(indices, n);
+        Arrays.fill(prevIndex, 0, n, -1);
+        sorter.lexicographicalSort(points, dim, indices, 0, n, dim);
+        int i0 = indices[0];
+        setRank(i0, ranks, 0, -1, maximalMeaningfulRank);
+        int lastRank = 0;
+        int maxRank = 0;
+        int last = i0 * dim;
+        for (int i = 1; i < n; ++i) {
+            int index = indices[i];
+            int curr = index * dim;
+            if (ArrayHelper.equal(points, last, points, curr, dim)) {
+                ranks[index] = lastRank;
+            } else {
+                lastRank = findRank(points, dim, curr, maxRank);
+                last = curr;
+                maxRank = setRank(index, ranks, lastRank, maxRank, maximalMeaningfulRank);
+            }
         }
     }
 }
@@ -19,6 +19,20 @@ public final class ENS_BS extends ENSBase {
         return rightRank;
     }
 
+    @Override
+    final int findRank(double[] points, int dim, int pointOffset, int maxRank) {
+        int leftRank = -1, rightRank = maxRank + 1;
+        while (rightRank - leftRank > 1) {
+            int currRank = (leftRank + rightRank) >>> 1;
+            if (frontDominates(currRank, points, dim, pointOffset)) {
+                leftRank = currRank;
+            } else {
+                rightRank = currRank;
+            }
+        }
+        return rightRank;
+    }
+
     @Override
     public String getName() {
         return "ENS-BS";
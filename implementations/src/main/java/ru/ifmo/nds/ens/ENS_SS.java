@@ -18,6 +18,19 @@ public final class ENS_SS extends ENSBase {
         return currRank;
     }
 
+    @Override
+    final int findRank(double[] points, int dim, int pointOffset, int maxRank) {
+        int currRank = 0;
+        while (currRank <= maxRank) {
+            if (frontDominates(currRank, points, dim, pointOffset)) {
+                ++currRank;
+            } else {
+                break;
+            }
+        }
+        return currRank;
+    }
+
     @Override
     public String getName() {
         return "ENS-SS";
@@ -0,0 +1,232 @@
+package ru.ifmo.nds.incremental;
+
+import java.util.Arrays;
+
+import ru.ifmo.nds.IncrementalNonDominatedSorting;
+import ru.ifmo.nds.util.DominanceHelper;
+
+/**
+ * An incremental non-dominated sorting which keeps every front as a doubly linked list of point IDs,
+ * similarly to the fronts of ENS. The rank of a new point is found by a binary search over fronts.
+ * After an addition or a removal, the ranks of other points change by at most one,
+ * so only the points dominated by the points which changed their fronts are revisited, front by front.
+ */
+public final class LinkedFronts extends IncrementalNonDominatedSorting {
+    private final double[][] points;
+    private final int[] ranks;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] frontHead;
+    private final int[] frontSize;
+    private final int[] freeIds;
+    private int[] moving;
+    private int[] nextMoving;
+
+    private int nFree;
+    private int nFronts;
+
+    public LinkedFronts(int maximumPoints, int dimension) {
+        super(maximumPoints, dimension);
+        points = new double[maximumPoints][];
+        ranks = new int[maximumPoints];
+        next = new int[maximumPoints];
+        prev = new int[maximumPoints];
+        frontHead = new int[maximumPoints];
+        frontSize = new int[maximumPoints];
+        freeIds = new int[maximumPoints];
+        moving = new int[maximumPoints];
+        nextMoving = new int[maximumPoints];
+
+        Arrays.fill(ranks, -1);
+        for (int i = 0; i < maximumPoints; ++i) {
+            freeIds[i] = maximumPoints - 1 - i;
+        }
+        nFree = maximumPoints;
+        nFronts = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "Linked fronts";
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id >= 0 && id < ranks.length && ranks[id] >= 0;
+    }
+
+    @Override
+    public int size() {
+        return ranks.length - nFree;
+    }
+
+    @Override
+    public int getNumberOfFronts() {
+        return nFronts;
+    }
+
+    @Override
+    protected int rankOfChecked(int id) {
+        return ranks[id];
+    }
+
+    @Override
+    protected int addChecked(double[] point) {
+        final int dim = getDimension();
+        final int id = freeIds[--nFree];
+        double[] row = points[id];
+        if (row == null) {
+            points[id] = row = new double[dim];
+        }
+        System.arraycopy(point, 0, row, 0, dim);
+
+        int rank = findRank(row, dim);
+        if (rank == nFronts) {
+            createFront();
+        }
+
+        // Points from the same front, which the new point dominates, move to the next front.
+        int nMoving = 0;
+        for (int q = frontHead[rank]; q != -1; q = next[q]) {
+            if (DominanceHelper.strictlyDominates(row, points[q], dim)) {
+                moving[nMoving] = q;
+                ++nMoving;
+            }
+        }
+        link(id, rank);
+
+        // Moving points further, while some points in the next front are dominated by the moved ones.
+        while (nMoving > 0) {
+            for (int i = 0; i < nMoving; ++i) {
+                unlink(moving[i]);
+            }
+            int target = rank + 1;
+            if (target == nFronts) {
+                createFront();
+            }
+            int nNext = 0;
+            for (int q = frontHead[target]; q != -1; q = next[q]) {
+                if (isDominatedByAny(points[q], moving, nMoving, dim)) {
+                    nextMoving[nNext] = q;
+                    ++nNext;
+                }
+            }
+            for (int i = 0; i < nMoving; ++i) {
+                int m = moving[i];
+                link(m, target);
+                notifyRankChanged(m, rank, target);
+            }
+            int[] tmp = moving;
+            moving = nextMoving;
+            nextMoving = tmp;
+            nMoving = nNext;
+            rank = target;
+        }
+        return id;
+    }
+
+    @Override
+    protected void removeChecked(int id) {
+        final int dim = getDimension();
+        int rank = ranks[id];
+        unlink(id);
+        ranks[id] = -1;
+        freeIds[nFree] = id;
+        ++nFree;
+
+        // The points which are no longer dominated by anything from the previous front move to that front.
+        // The removed point still stays in its row until the next addition, so it can be used as a source.
+        moving[0] = id;
+        int nMoving = 1;
+        while (nMoving > 0 && rank + 1 < nFronts) {
+            int source = rank + 1;
+            int nNext = 0;
+            for (int q = frontHead[source]; q != -1; q = next[q]) {
+                double[] pq = points[q];
+                if (isDominatedByAny(pq, moving, nMoving, dim) && !frontDominates(rank, pq, dim)) {
+                    nextMoving[nNext] = q;
+                    ++nNext;
+                }
+            }
+            for (int i = 0; i < nNext; ++i) {
+                int m = nextMoving[i];
+                unlink(m);
+                link(m, rank);
+                notifyRankChanged(m, source, rank);
+            }
+            int[] tmp = moving;
+            moving = nextMoving;
+            nextMoving = tmp;
+            nMoving = nNext;
+            rank = source;
+        }
+
+        // Only the last fronts can become empty.
+        while (nFronts > 0 && frontSize[nFronts - 1] == 0) {
+            --nFronts;
+        }
+    }
+
+    private int findRank(double[] point, int dim) {
+        int left = -1, right = nFronts;
+        while (right - left > 1) {
+            int mid = (left + right) >>> 1;
+            if (frontDominates(mid, point, dim)) {
+                left = mid;
+            } else {
+                right = mid;
+            }
+        }
+        return right;
+    }
+
+    private boolean frontDominates(int front, double[] point, int dim) {
+        for (int q = frontHead[front]; q != -1; q = next[q]) {
+            if (DominanceHelper.strictlyDominates(points[q], point, dim)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDominatedByAny(double[] point, int[] ids, int count, int dim) {
+        for (int i = 0; i < count; ++i) {
+            if (DominanceHelper.strictlyDominates(points[ids[i]], point, dim)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void createFront() {
+        frontHead[nFronts] = -1;
+        frontSize[nFronts] = 0;
+        ++nFronts;
+    }
+
+    private void link(int id, int front) {
+        int head = frontHead[front];
+        next[id] = head;
+        prev[id] = -1;
+        if (head != -1) {
+            prev[head] = id;
+        }
+        frontHead[front] = id;
+        ++frontSize[front];
+        ranks[id] = front;
+    }
+
+    private void unlink(int id) {
+        int front = ranks[id];
+        int p = prev[id], n = next[id];
+        if (p == -1) {
+            frontHead[front] = n;
+        } else {
+            next[p] = n;
+        }
+        if (n != -1) {
+            prev[n] = p;
+        }
+        --frontSize[front];
+    }
+}
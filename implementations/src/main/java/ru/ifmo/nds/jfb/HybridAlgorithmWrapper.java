@@ -8,7 +8,8 @@ public abstract class HybridAlgorithmWrapper {
     public static abstract class Instance {
         /**
          * Tries to invoke the hook for the role of helperA on points at indices [{@code from}; {@code until})
-         * with the given maximum objective and maximal meaningful rank.
+         * with the given maximum objective and maximal meaningful rank,
+         * and also assuming that the free-space indices start at {@code tempFrom}.
          *
          * The method returns the new value for the largest index of the points to consider (exclusively).
          * Normally, it is the same as {@code until}.
@@ -19,10 +20,11 @@ public abstract class HybridAlgorithmWrapper {
          * @param from the smallest index of the points to consider (inclusively).
          * @param until the largest index of the points to consider (exclusively).
          * @param obj the maximum objective to consider.
+         * @param tempFrom the smallest index of the free space.
          * @param maximalMeaningfulRank the maximal meaningful rank.
          * @return -1 if the job is not complete, the new value for {@code until} otherwise.
          */
-        public abstract int helperAHook(int from, int until, int obj, int maximalMeaningfulRank);
+        public abstract int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank);
 
         /**
          * Tries to invoke the hook for the role of helperB
@@ -47,5 +49,11 @@ public abstract class HybridAlgorithmWrapper {
          * @return -1 if the job is not complete, the new value for {@code weakUntil} otherwise.
          */
         public abstract int helperBHook(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int obj, int tempFrom, int maximalMeaningfulRank);
+
+        /**
+         * Releases the memory which is kept by this instance between the calls of the hooks.
+         * This is called when the sorter which owns this instance is closed. The default implementation does nothing.
+         */
+        public void close() {}
     }
 }
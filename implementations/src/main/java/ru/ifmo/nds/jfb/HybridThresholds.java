@@ -0,0 +1,339 @@
+package ru.ifmo.nds.jfb;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.jfb.hybrid.ENS;
+import ru.ifmo.nds.jfb.hybrid.LinearNDS;
+import ru.ifmo.nds.jfb.hybrid.MNDS;
+import ru.ifmo.nds.jfb.hybrid.NDT;
+import ru.ifmo.nds.util.RedBlackRankQueryStructure;
+import ru.ifmo.nds.util.median.SingleScanV1;
+
+/**
+ * This class describes the sizes of subproblems, below which the hybrid versions of the Jensen-Fortin-Buzdalov
+ * algorithm hand them over to the fallback algorithm: {@link ENS}, {@link NDT}, {@link LinearNDS} or {@link MNDS}.
+ * For every fallback, there is a threshold for three-dimensional subproblems and a threshold for all higher dimensions.
+ *
+ * The built-in thresholds were tuned on a single machine. The thresholds for the current machine and workload
+ * can be found by {@link #tuned(List, int)} and saved as a profile by {@link #write(Writer)}.
+ * The profile is a file in the {@link Properties} format, whose keys are
+ * {@code ens.threshold3D}, {@code ens.thresholdAll}, {@code ndt.threshold3D}, {@code ndt.thresholdAll},
+ * {@code linear.threshold3D}, {@code linear.thresholdAll}, {@code mnds.threshold3D} and {@code mnds.thresholdAll}.
+ * The missing keys take the built-in values.
+ *
+ * The thresholds returned by {@link #getDefault()}, which are used by the factories
+ * in {@link ru.ifmo.nds.JensenFortinBuzdalov}, are loaded on the first call of this method from the profile given by
+ * the system property {@code ru.ifmo.nds.jfb.hybrid.thresholds}. If it is not set, or the profile cannot be used,
+ * these are the built-in thresholds. In the latter case, a warning is printed to the standard error.
+ *
+ * The instances of this class are immutable.
+ */
+public final class HybridThresholds {
+    private static final int TUNING_REPEATS = 3;
+    private static final int TUNING_ROUNDS = 3;
+    private static final double TUNING_MINIMUM_GAIN = 0.02;
+    // The memory of MNDS is quadratic in its thresholds, this bound keeps it at eight megabytes per thread.
+    private static final int TUNING_MAXIMUM_MNDS_THRESHOLD = 1 << 13;
+
+    private static final String[] KEYS = {
+            "ens.threshold3D", "ens.thresholdAll",
+            "ndt.threshold3D", "ndt.thresholdAll",
+            "linear.threshold3D", "linear.thresholdAll",
+            "mnds.threshold3D", "mnds.thresholdAll"
+    };
+
+    private static final HybridThresholds BUILT_IN = new HybridThresholds(new int[] { 100, 200, 100, 20000, 50, 100, 400, 3000 });
+
+    private final int[] values;
+
+    private HybridThresholds(int[] values) {
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] < 1) {
+                throw new IllegalArgumentException("The value of " + KEYS[i] + " must be positive, found " + values[i]);
+            }
+        }
+        this.values = values;
+    }
+
+    /**
+     * Returns the built-in thresholds.
+     * @return the built-in thresholds.
+     */
+    public static HybridThresholds builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Returns the thresholds from the profile given by the system property, or the built-in ones if no profile was given.
+     * @return the default thresholds.
+     */
+    public static HybridThresholds getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the thresholds which are the same as these, except for the thresholds of {@link ENS}.
+     * @param threshold3D the threshold for three-dimensional subproblems.
+     * @param thresholdAll the threshold for subproblems of higher dimensions.
+     * @return the new thresholds.
+     */
+    public HybridThresholds withENS(int threshold3D, int thresholdAll) {
+        return with(0, threshold3D, thresholdAll);
+    }
+
+    /**
+     * Returns the thresholds which are the same as these, except for the thresholds of {@link NDT}.
+     * @param threshold3D the threshold for three-dimensional subproblems.
+     * @param thresholdAll the threshold for subproblems of higher dimensions.
+     * @return the new thresholds.
+     */
+    public HybridThresholds withNDT(int threshold3D, int thresholdAll) {
+        return with(2, threshold3D, thresholdAll);
+    }
+
+    /**
+     * Returns the thresholds which are the same as these, except for the thresholds of {@link LinearNDS}.
+     * @param threshold3D the threshold for three-dimensional subproblems.
+     * @param thresholdAll the threshold for subproblems of higher dimensions.
+     * @return the new thresholds.
+     */
+    public HybridThresholds withLinearNDS(int threshold3D, int thresholdAll) {
+        return with(4, threshold3D, thresholdAll);
+    }
+
+    /**
+     * Returns the thresholds which are the same as these, except for the thresholds of {@link MNDS}.
+     * The memory used by {@link MNDS} is quadratic in the larger of these thresholds.
+     *
+     * @param threshold3D the threshold for three-dimensional subproblems.
+     * @param thresholdAll the threshold for subproblems of higher dimensions.
+     * @return the new thresholds.
+     */
+    public HybridThresholds withMNDS(int threshold3D, int thresholdAll) {
+        return with(6, threshold3D, thresholdAll);
+    }
+
+    /**
+     * Creates the {@link ENS} fallback with these thresholds.
+     * @return the fallback.
+     */
+    public ENS createENS() {
+        return new ENS(values[0], values[1]);
+    }
+
+    /**
+     * Creates the {@link NDT} fallback with these thresholds.
+     * @param treeThreshold the maximum number of points in a leaf of the tree.
+     * @return the fallback.
+     */
+    public NDT createNDT(int treeThreshold) {
+        return new NDT(values[2], values[3], treeThreshold);
+    }
+
+    /**
+     * Creates the {@link LinearNDS} fallback with these thresholds.
+     * @return the fallback.
+     */
+    public LinearNDS createLinearNDS() {
+        return hasSameValues(BUILT_IN, 4) ? LinearNDS.getWrapperInstance() : new LinearNDS(values[4], values[5]);
+    }
+
+    /**
+     * Creates the {@link MNDS} fallback with these thresholds.
+     * @return the fallback.
+     */
+    public MNDS createMNDS() {
+        return new MNDS(values[6], values[7]);
+    }
+
+    /**
+     * Returns the thresholds tuned for the given workload on this machine.
+     *
+     * Starting from these thresholds, each one is changed by a factor of two in both directions
+     * while the total time of sorting all the populations from the workload decreases by at least two percent,
+     * using the red-black tree version of the algorithm with the corresponding fallback.
+     * The thresholds of {@link MNDS} are not increased beyond 8192, as its memory is quadratic in them.
+     * This is repeated several times or until no threshold changes.
+     * The tuning takes time proportional to the time of sorting the workload, times several hundreds.
+     *
+     * @param workload the populations to sort, which should be representative for the intended use.
+     * @param ndtTreeThreshold the maximum number of points in a leaf of the tree for the {@link NDT} fallback.
+     * @return the tuned thresholds.
+     */
+    public HybridThresholds tuned(List<double[][]> workload, int ndtTreeThreshold) {
+        Objects.requireNonNull(workload, "The workload must not be null");
+        if (workload.isEmpty()) {
+            throw new IllegalArgumentException("The workload must not be empty");
+        }
+        int maximumPoints = 0, maximumDimension = 0;
+        for (double[][] population : workload) {
+            maximumPoints = Math.max(maximumPoints, population.length);
+            for (double[] point : population) {
+                maximumDimension = Math.max(maximumDimension, point.length);
+            }
+        }
+        int[] values = this.values.clone();
+        // The first measurement warms up the code, so that it does not favour whatever is measured later.
+        measure(values, 0, workload, maximumPoints, maximumDimension, ndtTreeThreshold);
+        for (int round = 0; round < TUNING_ROUNDS; ++round) {
+            boolean changed = false;
+            for (int index = 0; index < values.length; ++index) {
+                changed |= tuneOne(values, index, workload, maximumPoints, maximumDimension, ndtTreeThreshold);
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return new HybridThresholds(values);
+    }
+
+    /**
+     * Writes these thresholds as a profile.
+     * @param writer the writer to write the profile to.
+     * @throws IOException if writing fails.
+     */
+    public void write(Writer writer) throws IOException {
+        Properties properties = new Properties();
+        for (int i = 0; i < KEYS.length; ++i) {
+            properties.setProperty(KEYS[i], String.valueOf(values[i]));
+        }
+        properties.store(writer, "Hybrid thresholds for the Jensen-Fortin-Buzdalov algorithm");
+    }
+
+    /**
+     * Reads the thresholds from a profile. The missing keys take the built-in values.
+     * @param reader the reader to read the profile from.
+     * @return the thresholds.
+     * @throws IOException if reading fails.
+     * @throws IllegalArgumentException if some values are not positive integers.
+     */
+    public static HybridThresholds read(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        int[] values = BUILT_IN.values.clone();
+        for (int i = 0; i < KEYS.length; ++i) {
+            String value = properties.getProperty(KEYS[i]);
+            if (value != null) {
+                try {
+                    values[i] = Integer.parseInt(value.trim());
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("The value of " + KEYS[i] + " is not an integer: '" + value + "'");
+                }
+            }
+        }
+        return new HybridThresholds(values);
+    }
+
+    /**
+     * Reads the thresholds from a profile stored in the given file.
+     * @param path the file to read the profile from.
+     * @return the thresholds.
+     * @throws IOException if reading fails.
+     * @throws IllegalArgumentException if some values are not positive integers.
+     */
+    public static HybridThresholds read(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("HybridThresholds{");
+        for (int i = 0; i < KEYS.length; ++i) {
+            sb.append(i == 0 ? "" : ", ").append(KEYS[i]).append(" = ").append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    private HybridThresholds with(int offset, int threshold3D, int thresholdAll) {
+        int[] newValues = values.clone();
+        newValues[offset] = threshold3D;
+        newValues[offset + 1] = thresholdAll;
+        return new HybridThresholds(newValues);
+    }
+
+    private boolean hasSameValues(HybridThresholds that, int offset) {
+        return values[offset] == that.values[offset] && values[offset + 1] == that.values[offset + 1];
+    }
+
+    private static boolean tuneOne(int[] values, int index, List<double[][]> workload,
+                                   int maximumPoints, int maximumDimension, int ndtTreeThreshold) {
+        long bestTime = measure(values, index, workload, maximumPoints, maximumDimension, ndtTreeThreshold);
+        int upperBound = index >= 6 ? TUNING_MAXIMUM_MNDS_THRESHOLD : Integer.MAX_VALUE;
+        boolean changed = false;
+        for (int direction : new int[] { 1, -1 }) {
+            while (true) {
+                int oldValue = values[index];
+                int newValue = direction > 0 ? oldValue * 2 : oldValue / 2;
+                if (newValue < 1 || newValue == oldValue
+                        || direction > 0 && (oldValue > maximumPoints || newValue > upperBound)) {
+                    break;
+                }
+                values[index] = newValue;
+                long time = measure(values, index, workload, maximumPoints, maximumDimension, ndtTreeThreshold);
+                if (time < bestTime * (1 - TUNING_MINIMUM_GAIN)) {
+                    bestTime = time;
+                    changed = true;
+                } else {
+                    values[index] = oldValue;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static long measure(int[] values, int index, List<double[][]> workload,
+                                int maximumPoints, int maximumDimension, int ndtTreeThreshold) {
+        HybridThresholds thresholds = new HybridThresholds(values.clone());
+        HybridAlgorithmWrapper wrapper = index < 2 ? thresholds.createENS()
+                : index < 4 ? thresholds.createNDT(ndtTreeThreshold)
+                : index < 6 ? thresholds.createLinearNDS()
+                : thresholds.createMNDS();
+        long total = 0;
+        try (NonDominatedSorting sorting = new JFBDouble(new RedBlackRankQueryStructure(maximumPoints),
+                maximumDimension, JFBExecutionPolicy.sequential(), wrapper, SingleScanV1.factory())) {
+            int[] ranks = new int[maximumPoints];
+            for (double[][] population : workload) {
+                int[] populationRanks = ranks.length == population.length ? ranks : new int[population.length];
+                long best = Long.MAX_VALUE;
+                for (int t = 0; t < TUNING_REPEATS; ++t) {
+                    long time = System.nanoTime();
+                    sorting.sort(population, populationRanks);
+                    best = Math.min(best, System.nanoTime() - time);
+                }
+                total += best;
+            }
+        }
+        return total;
+    }
+
+    private static HybridThresholds loadDefault(String fileName) {
+        if (fileName == null) {
+            return BUILT_IN;
+        }
+        try {
+            return read(Paths.get(fileName));
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Warning: could not use the hybrid thresholds from '" + fileName + "': " + ex
+                    + ". Falling back to the built-in thresholds");
+            return BUILT_IN;
+        }
+    }
+
+    // The profile is read only when the default thresholds are requested for the first time.
+    private static final class DefaultHolder {
+        private static final HybridThresholds INSTANCE = loadDefault(System.getProperty("ru.ifmo.nds.jfb.hybrid.thresholds"));
+    }
+}
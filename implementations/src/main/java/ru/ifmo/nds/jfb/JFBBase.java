@@ -12,7 +12,7 @@ import ru.ifmo.nds.util.median.DestructiveMedianAlgorithm;
 import ru.ifmo.nds.util.median.DestructiveMedianFactory;
 
 public abstract class JFBBase extends NonDominatedSorting {
-    private static final int FORK_JOIN_THRESHOLD = 400;
+    private static final DominanceKernel DOMINANCE_KERNEL = DominanceKernel.getDefault();
 
     // Shared resources (int[] indices from super also belongs here)
     int[] ranks;
@@ -24,43 +24,76 @@ public abstract class JFBBase extends NonDominatedSorting {
 
     // Data which is interval-shared between threads.
     private double[] temporary; // also used in 2D-only sweep
+    private int[] dominanceScratch;
     private SplitMergeHelper splitMerge;
     private HybridAlgorithmWrapper.Instance hybrid;
     private DestructiveMedianAlgorithm destructiveMedian;
 
+    // Data used only in three dimensions, which are sorted without the recursion if this was requested.
+    private ThreeDimensionalSweep threeDimensionalSweep;
+
+    // Data used only to convert to the rank space in parallel, one per objective, allocated on the first such run.
+    private ArraySorter[] rankSpaceSorters;
+    private int[][] rankSpaceIndices;
+
+    // Data used only when sorting until the required count, which is done in the current thread only.
+    private RequiredCountTracker requiredCountTracker;
+    private int[] multiplicities;
+    private boolean tracksRequiredCount;
+
     private ForkJoinPool pool;
 
-    private final int allowedThreads;
+    // forkThresholds[obj] is the fork threshold for subproblems where objectives up to obj are considered.
+    private final int[] forkThresholds;
+    private final JFBExecutionPolicy executionPolicy;
     private final String nameAddend;
 
+    // If set, every objective is replaced by the ranks of its values before the recursion,
+    // and the ranges are split at the middle of their value ranges instead of at their medians.
+    final boolean rankSpace;
+
     JFBBase(int maximumPoints,
             int maximumDimension,
-            int allowedThreads,
+            JFBExecutionPolicy executionPolicy,
             HybridAlgorithmWrapper hybridWrapper,
             DestructiveMedianFactory medianFactory,
+            boolean rankSpace,
+            boolean useThreeDimensionalSweep,
             String nameAddend) {
         super(maximumPoints, maximumDimension);
+        this.rankSpace = rankSpace;
         if (!hybridWrapper.supportsMultipleThreads()) {
-            allowedThreads = 1;
+            executionPolicy = JFBExecutionPolicy.sequential();
         }
-        this.nameAddend = nameAddend + ", hybrid: " + hybridWrapper.getName();
+        this.executionPolicy = executionPolicy;
+        this.nameAddend = nameAddend + ", hybrid: " + hybridWrapper.getName()
+                + (useThreeDimensionalSweep ? ", 3D sweep" : "");
 
-        if (allowedThreads != 1 && makesSenseRunInParallel(maximumPoints, maximumDimension)) {
-            pool = allowedThreads > 1 ? new ForkJoinPool(allowedThreads) : new ForkJoinPool();
+        forkThresholds = new int[Math.max(maximumDimension, 2)];
+        for (int obj = 1; obj < forkThresholds.length; ++obj) {
+            forkThresholds[obj] = executionPolicy.getForkThreshold(obj + 1);
+        }
+        if (executionPolicy.isParallel() && makesSenseRunInParallel(maximumPoints, maximumDimension)) {
+            pool = executionPolicy.acquirePool();
         } else {
             pool = null; // current thread only execution
         }
-        this.allowedThreads = allowedThreads > 0 ? allowedThreads : -1;
 
         temporary = new double[maximumPoints];
         ranks = new int[maximumPoints];
 
         if (maximumDimension > 2) {
-            destructiveMedian = medianFactory.createInstance(maximumPoints);
+            destructiveMedian = rankSpace ? null : medianFactory.createInstance(maximumPoints);
             points = new double[maximumPoints][];
             transposedPoints = new double[maximumDimension][maximumPoints];
             splitMerge = new SplitMergeHelper(maximumPoints);
+            dominanceScratch = new int[maximumPoints];
             hybrid = hybridWrapper.create(ranks, indices, points, transposedPoints);
+            requiredCountTracker = new RequiredCountTracker(maximumPoints);
+            multiplicities = new int[maximumPoints];
+            if (useThreeDimensionalSweep && maximumDimension >= 3) {
+                threeDimensionalSweep = new ThreeDimensionalSweep(maximumPoints);
+            }
         }
     }
 
@@ -71,19 +104,26 @@ public abstract class JFBBase extends NonDominatedSorting {
         points = null;
         transposedPoints = null;
         splitMerge = null;
+        dominanceScratch = null;
         destructiveMedian = null;
+        requiredCountTracker = null;
+        multiplicities = null;
+        threeDimensionalSweep = null;
+        rankSpaceSorters = null;
+        rankSpaceIndices = null;
 
-        if (pool != null) {
-            pool.shutdown();
-            pool = null;
-        }
+        executionPolicy.releasePool(pool);
+        pool = null;
 
+        if (hybrid != null) {
+            hybrid.close();
+        }
         hybrid = null;
     }
 
     @Override
     public String getName() {
-        return "Jensen-Fortin-Buzdalov, " + getThreadDescription() + ", " + nameAddend;
+        return "Jensen-Fortin-Buzdalov, " + executionPolicy.getDescription() + ", " + nameAddend;
     }
 
     @Override
@@ -92,7 +132,7 @@ public abstract class JFBBase extends NonDominatedSorting {
         final int dim = points[0].length;
         Arrays.fill(ranks, 0);
         ArrayHelper.fillIdentity(indices, n);
-        sorter.lexicographicalSort(points, indices, 0, n, dim);
+        sorter.lexicographicalSort(points, indices, 0, n, dim, pool);
 
         this.maximalMeaningfulRank = maximalMeaningfulRank;
 
@@ -103,36 +143,287 @@ public abstract class JFBBase extends NonDominatedSorting {
             // 3: General case.
             // 3.1: Moving points in a sorted order to internal structures
             final int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
-            Arrays.fill(this.ranks, 0, newN, 0);
 
             // 3.2: Transposing points. This should fit in cache for reasonable dimensions.
-            for (int i = 0; i < newN; ++i) {
-                for (int j = 0; j < dim; ++j) {
-                    transposedPoints[j][i] = this.points[i][j];
+            transposeUniquePoints(newN, dim);
+            sortUniquePoints(n, newN, dim, ranks, true);
+        }
+    }
+
+    @Override
+    protected final void sortCheckedUntilCount(double[][] points, int[] ranks, int requiredCount) {
+        final int n = points.length;
+        final int dim = points[0].length;
+        if (dim == 2 || usesThreeDimensionalSweep(dim) || pool != null && makesSenseRunInParallel(n, dim)) {
+            // The 2D case and the 3D sweep are fast anyway, and parallel runs would have to synchronize on the counts.
+            sortChecked(points, ranks, n - 1);
+            return;
+        }
+
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(points, indices, 0, n, dim, pool);
+
+        final int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        transposeUniquePoints(newN, dim);
+
+        // Every unique point counts as many times as it occurs in the input.
+        Arrays.fill(multiplicities, 0, newN, 0);
+        for (int i = 0; i < n; ++i) {
+            ++multiplicities[ranks[i]];
+        }
+        this.maximalMeaningfulRank = newN - 1;
+        requiredCountTracker.reset(requiredCount, newN - 1);
+        tracksRequiredCount = true;
+        try {
+            sortUniquePoints(n, newN, dim, ranks, true);
+        } finally {
+            tracksRequiredCount = false;
+        }
+    }
+
+    @Override
+    protected final void sortCheckedFlat(double[] points, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(points, dim, indices, 0, n, dim, pool);
+
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        if (dim == 2) {
+            // 2: Special case: binary search.
+            twoDimensionalCaseStrided(points, 0, points, 1, 2, ranks);
+        } else {
+            // 3: General case.
+            // 3.1: Copying unique points in a sorted order to internal structures, reusing the rows from the pool
+            final int newN = ArraySorter.retainUniquePoints(points, n, dim, indices,
+                    getFlatPointRowPool(), this.points, ranks);
+
+            // 3.2: Transposing points.
+            transposeUniquePoints(newN, dim);
+            sortUniquePoints(n, newN, dim, ranks, true);
+        }
+    }
+
+    @Override
+    protected final void sortCheckedColumns(double[][] columns, int n, int[] ranks, int maximalMeaningfulRank) {
+        final int dim = columns.length;
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSortByColumns(columns, indices, 0, n, dim, pool);
+
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        if (dim == 2) {
+            // 2: Special case: binary search.
+            twoDimensionalCaseStrided(columns[0], 0, columns[1], 0, 1, ranks);
+        } else {
+            // 3: General case.
+            // 3.1: Finding unique points. After that, indices[i] is the original index of the i-th unique point.
+            final int newN = ArraySorter.retainUniquePoints(columns, n, indices, ranks);
+
+            // 3.2: Gathering the columns, which replaces transposition.
+            // The rows for pointwise comparisons are made from them later, and only if they are needed.
+            for (int j = 0; j < dim; ++j) {
+                double[] source = columns[j];
+                double[] target = transposedPoints[j];
+                for (int i = 0; i < newN; ++i) {
+                    target[i] = source[indices[i]];
                 }
             }
+            sortUniquePoints(n, newN, dim, ranks, false);
+        }
+    }
 
-            postTransposePointHook(newN);
-            ArrayHelper.fillIdentity(indices, newN);
+    @Override
+    protected final void sortCheckedFloat(float[][] points, int[] ranks, int maximalMeaningfulRank) {
+        final int n = points.length;
+        final int dim = points[0].length;
+        if (dim == 2) {
+            // There is no transposed storage for two objectives, and the binary search does not need it anyway.
+            super.sortCheckedFloat(points, ranks, maximalMeaningfulRank);
+            return;
+        }
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        // The presort reads the float coordinates directly, so the points are not widened as a whole.
+        sorter.lexicographicalSort(points, indices, 0, n, dim, pool);
 
-            // 3.3: Calling the actual sorting
-            if (pool != null && makesSenseRunInParallel(n, dim)) {
-                RecursiveAction action = new RecursiveAction() {
-                    @Override
-                    protected void compute() {
-                        helperA(0, newN, dim - 1);
-                    }
-                };
-                pool.invoke(action);
-            } else {
-                helperA(0, newN, dim - 1);
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        // 3.1: Finding unique points. After that, indices[i] is the original index of the i-th unique point.
+        final int newN = ArraySorter.retainUniquePoints(points, n, indices, ranks);
+
+        // 3.2: Only the unique points are widened, right into the transposed storage.
+        for (int i = 0; i < newN; ++i) {
+            float[] point = points[indices[i]];
+            for (int j = 0; j < dim; ++j) {
+                transposedPoints[j][i] = point[j];
+            }
+        }
+
+        sortUniquePoints(n, newN, dim, ranks, false);
+    }
+
+    private void transposeUniquePoints(int newN, int dim) {
+        for (int i = 0; i < newN; ++i) {
+            double[] point = this.points[i];
+            for (int j = 0; j < dim; ++j) {
+                transposedPoints[j][i] = point[j];
             }
+        }
+    }
 
-            // 3.4: Applying the results back. After that, the argument "ranks" array stops being abused.
+    // If hasRows is false, only the transposed points are filled, and the rows are made from them if needed.
+    private void sortUniquePoints(int n, int newN, int dim, int[] ranks, boolean hasRows) {
+        if (usesThreeDimensionalSweep(dim)) {
+            // 3.3, three objectives, if requested: a sweep over the staircases of fronts,
+            // which needs neither recursion, nor the rank query structure, nor the hybrid, nor rank space.
+            // It takes O(n log n log k) time for k fronts, but it is sequential, so the recursion is used with a pool.
+            threeDimensionalSweep.sort(transposedPoints[1], transposedPoints[2], newN, this.ranks, maximalMeaningfulRank);
             for (int i = 0; i < n; ++i) {
                 ranks[i] = this.ranks[ranks[i]];
                 this.points[i] = null;
             }
+            return;
+        }
+
+        Arrays.fill(this.ranks, 0, newN, 0);
+
+        if (rankSpace) {
+            convertToRankSpace(newN, dim);
+        } else if (!hasRows) {
+            double[][] rowPool = getFlatPointRowPool();
+            for (int i = 0; i < newN; ++i) {
+                this.points[i] = ArrayHelper.gatherToPooledRow(transposedPoints, dim, i, rowPool, i);
+            }
+        }
+        postTransposePointHook(newN);
+        ArrayHelper.fillIdentity(indices, newN);
+
+        // 3.3: Calling the actual sorting
+        if (pool != null && makesSenseRunInParallel(n, dim)) {
+            RecursiveAction action = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    helperA(0, newN, dim - 1, 0);
+                }
+            };
+            pool.invoke(action);
+        } else {
+            helperA(0, newN, dim - 1, 0);
+        }
+
+        // 3.4: Applying the results back. After that, the argument "ranks" array stops being abused.
+        for (int i = 0; i < n; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+            this.points[i] = null;
+        }
+    }
+
+    private void convertToRankSpace(int newN, int dim) {
+        // The rows may belong to the caller, so the converted points go to the pooled rows,
+        // which are filled together with the columns. The hybrids compare the rows with the split values
+        // taken from the columns, so both must be in the rank space.
+        double[][] rowPool = getFlatPointRowPool();
+        for (int i = 0; i < newN; ++i) {
+            double[] row = rowPool[i];
+            if (row == null || row.length != dim) {
+                rowPool[i] = row = new double[dim];
+            }
+            this.points[i] = row;
+        }
+        // The points are sorted lexicographically, so the first objective does not need sorting.
+        double[] first = transposedPoints[0];
+        double prev = first[0];
+        for (int i = 0, rank = 0; i < newN; ++i) {
+            double curr = first[i];
+            if (curr != prev) {
+                prev = curr;
+                ++rank;
+            }
+            first[i] = rank;
+            this.points[i][0] = rank;
+        }
+        if (pool != null && makesSenseRunInParallel(newN, dim)) {
+            // Every objective is compressed by its own task, which needs its own sorter and index array.
+            if (rankSpaceSorters == null) {
+                rankSpaceSorters = new ArraySorter[transposedPoints.length];
+                rankSpaceIndices = new int[transposedPoints.length][];
+                rankSpaceSorters[1] = sorter;
+                rankSpaceIndices[1] = indices;
+            }
+            final RecursiveAction[] tasks = new RecursiveAction[dim - 1];
+            for (int obj = 1; obj < dim; ++obj) {
+                if (rankSpaceSorters[obj] == null) {
+                    rankSpaceSorters[obj] = new ArraySorter(indices.length);
+                    rankSpaceIndices[obj] = new int[indices.length];
+                }
+                tasks[obj - 1] = compressObjectiveAsync(newN, obj);
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } else {
+            for (int obj = 1; obj < dim; ++obj) {
+                compressObjective(sorter, indices, newN, obj);
+            }
+        }
+    }
+
+    private RecursiveAction compressObjectiveAsync(final int newN, final int obj) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                compressObjective(rankSpaceSorters[obj], rankSpaceIndices[obj], newN, obj);
+            }
+        };
+    }
+
+    private void compressObjective(ArraySorter sorter, int[] indices, int newN, int obj) {
+        double[] column = transposedPoints[obj];
+        sorter.compressCoordinates(column, indices, column, 0, newN);
+        for (int i = 0; i < newN; ++i) {
+            this.points[i][obj] = column[i];
+        }
+    }
+
+    // In the rank space, the value between the minimum and the maximum of a range at least halves the value span
+    // of every part of the split, so the recursion depth is still logarithmic.
+    private double middleOfValueRange(double[] values, int from, int until) {
+        double min = values[indices[from]], max = min;
+        for (int i = from + 1; i < until; ++i) {
+            double value = values[indices[i]];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        return min == max ? Double.NaN : Math.floor((min + max) / 2);
+    }
+
+    // Returns negative infinity if no good point is greater than a weak point, positive infinity if all weak points
+    // are smaller than all good points, and the middle of the common value range otherwise.
+    private double splitValueInRankSpace(double[] values, int goodFrom, int goodUntil, int weakFrom, int weakUntil) {
+        double goodMin = values[indices[goodFrom]], goodMax = goodMin;
+        for (int i = goodFrom + 1; i < goodUntil; ++i) {
+            double value = values[indices[i]];
+            goodMin = Math.min(goodMin, value);
+            goodMax = Math.max(goodMax, value);
+        }
+        double weakMin = values[indices[weakFrom]], weakMax = weakMin;
+        for (int i = weakFrom + 1; i < weakUntil; ++i) {
+            double value = values[indices[i]];
+            weakMin = Math.min(weakMin, value);
+            weakMax = Math.max(weakMax, value);
+        }
+        if (goodMax <= weakMin) {
+            return Double.NEGATIVE_INFINITY;
+        } else if (weakMax < goodMin) {
+            return Double.POSITIVE_INFINITY;
+        } else {
+            return Math.floor((Math.min(goodMin, weakMin) + Math.max(goodMax, weakMax)) / 2);
         }
     }
 
@@ -148,12 +439,38 @@ public abstract class JFBBase extends NonDominatedSorting {
         return newUntil;
     }
 
+    // Called when the ranks of the points in [from; until) become final, returns the new end of the range.
+    private int completeRange(int from, int until) {
+        if (tracksRequiredCount) {
+            int newMaximalMeaningfulRank = maximalMeaningfulRank;
+            for (int i = from; i < until; ++i) {
+                int ii = indices[i];
+                newMaximalMeaningfulRank = requiredCountTracker.add(ranks[ii], multiplicities[ii]);
+            }
+            if (newMaximalMeaningfulRank < maximalMeaningfulRank) {
+                // The points from the fronts beyond the required count are no longer needed anywhere.
+                maximalMeaningfulRank = newMaximalMeaningfulRank;
+                return kickOutOverflowedRanks(indices, ranks, newMaximalMeaningfulRank, from, until);
+            }
+        }
+        return until;
+    }
+
     protected void postTransposePointHook(int newN) {}
 
-    protected abstract int sweepA(int from, int until);
+    protected abstract int sweepA(int from, int until, int tempFrom);
     protected abstract int sweepB(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom);
 
-    private int helperA(int from, int until, int obj) {
+    private ForkJoinTask<Integer> helperAAsync(final int from, final int until, final int obj, final int tempFrom) {
+        return new RecursiveTask<Integer>() {
+            @Override
+            protected Integer compute() {
+                return helperA(from, until, obj, tempFrom);
+            }
+        }.fork();
+    }
+
+    private int helperA(int from, int until, int obj, int tempFrom) {
         int n = until - from;
         if (n <= 2) {
             if (n == 2) {
@@ -163,76 +480,87 @@ public abstract class JFBBase extends NonDominatedSorting {
                 if (ranks[weakIndex] <= goodRank && DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[goodIndex], points[weakIndex], obj)) {
                     ranks[weakIndex] = 1 + goodRank;
                     if (goodRank >= maximalMeaningfulRank) {
-                        return from + 1;
+                        return completeRange(from, from + 1);
                     }
                 }
             }
-            return until;
+            return completeRange(from, until);
         } else {
             while (obj > 1) {
-                int hookResponse = hybrid.helperAHook(from, until, obj, maximalMeaningfulRank);
+                int hookResponse = hybrid.helperAHook(from, until, obj, tempFrom, maximalMeaningfulRank);
                 if (hookResponse >= 0) {
-                    return hookResponse;
+                    return completeRange(from, hookResponse);
                 }
-                if (ArrayHelper.transplantAndCheckIfSame(transposedPoints[obj], indices, from, until, temporary, from)) {
+                double median;
+                if (rankSpace) {
+                    median = middleOfValueRange(transposedPoints[obj], from, until);
+                } else if (ArrayHelper.transplantAndCheckIfSame(transposedPoints[obj], indices, from, until, temporary, tempFrom)) {
+                    median = Double.NaN;
+                } else {
+                    median = destructiveMedian.solve(temporary, tempFrom, tempFrom + n);
+                }
+                if (Double.isNaN(median)) {
                     --obj;
                 } else {
-                    double median = destructiveMedian.solve(temporary, from, until);
-                    long split = splitMerge.splitInThree(transposedPoints[obj], indices, from, from, until, median);
+                    long split = splitMerge.splitInThree(transposedPoints[obj], indices, tempFrom, from, until, median);
                     int startMid = SplitMergeHelper.extractMid(split);
                     int startRight = SplitMergeHelper.extractRight(split);
 
-                    int newStartMid = helperA(from, startMid, obj);
+                    int newStartMid = helperA(from, startMid, obj, tempFrom);
                     --obj;
-                    int newStartRight = helperB(from, newStartMid, startMid, startRight, obj, from);
-                    newStartRight = helperA(startMid, newStartRight, obj);
-                    int newUntil = helperB(from, newStartMid, startRight, until, obj, from);
-                    newUntil = helperB(startMid, newStartRight, startRight, newUntil, obj, from);
+                    int newStartRight = helperB(from, newStartMid, startMid, startRight, obj, tempFrom);
+                    int newUntil;
+                    if (pool != null && newStartRight - startMid > forkThresholds[obj]) {
+                        // The middle part and the left-to-right update touch disjoint sets of points.
+                        // The latter takes the free space that follows the space of the former.
+                        ForkJoinTask<Integer> newStartRightTask = helperAAsync(startMid, newStartRight, obj, tempFrom);
+                        newUntil = helperB(from, newStartMid, startRight, until, obj, tempFrom + startRight - startMid);
+                        newStartRight = newStartRightTask.join();
+                    } else {
+                        newStartRight = helperA(startMid, newStartRight, obj, tempFrom);
+                        newUntil = helperB(from, newStartMid, startRight, until, obj, tempFrom);
+                    }
+                    newUntil = helperB(startMid, newStartRight, startRight, newUntil, obj, tempFrom);
                     ++obj;
-                    newUntil = helperA(startRight, newUntil, obj);
+                    newUntil = helperA(startRight, newUntil, obj, tempFrom);
 
-                    return splitMerge.mergeThree(indices, from, from, newStartMid, startMid, newStartRight, startRight, newUntil);
+                    return splitMerge.mergeThree(indices, tempFrom, from, newStartMid, startMid, newStartRight, startRight, newUntil);
                 }
             }
-            return sweepA(from, until);
+            return completeRange(from, sweepA(from, until, tempFrom));
         }
     }
 
-    public static int updateByPoint(int[] ranks, int[] indices, double[][] points, int maximalMeaningfulRank,
+    public static int updateByPoint(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints,
+                                    int[] scratch, int scratchFrom, int maximalMeaningfulRank,
                                     int pointIndex, int from, int until, int obj) {
+        // The positions of the dominated points are stored in scratch[scratchFrom; scratchFrom + until - from).
         int ri = ranks[pointIndex];
-        double[] pi = points[pointIndex];
         if (ri == maximalMeaningfulRank) {
-            int minOverflow = updateByPointCritical(ranks, indices, points, maximalMeaningfulRank, pi, from, until, obj);
-            return kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, until);
+            int nDominated = DOMINANCE_KERNEL.findDominatedAssumingLexicographicallySmaller(points[pointIndex],
+                    points, transposedPoints, indices, from, until, obj, scratch, scratchFrom);
+            if (nDominated == 0) {
+                return until;
+            }
+            for (int i = scratchFrom, scratchUntil = scratchFrom + nDominated; i < scratchUntil; ++i) {
+                ranks[indices[scratch[i]]] = maximalMeaningfulRank + 1;
+            }
+            return kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, scratch[scratchFrom], until);
         } else {
-            updateByPointNormal(ranks, indices, points, pi, ri, from, until, obj);
-            return until;
-        }
-    }
-
-    private static void updateByPointNormal(int[] ranks, int[] indices, double[][] points, double[] pt,
-                                            int pointRank, int from, int until, int obj) {
-        int rankPlus1 = pointRank + 1;
-        for (int i = from; i < until; ++i) {
-            int ii = indices[i];
-            if (ranks[ii] < rankPlus1 && DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(pt, points[ii], obj)) {
-                ranks[ii] = rankPlus1;
+            // The points which already have a rank of at least rankPlus1 are not tested at all.
+            int rankPlus1 = ri + 1;
+            int scratchUntil = scratchFrom;
+            for (int i = from; i < until; ++i) {
+                scratch[scratchUntil] = i;
+                scratchUntil += ranks[indices[i]] < rankPlus1 ? 1 : 0;
             }
-        }
-    }
-
-    private static int updateByPointCritical(int[] ranks, int[] indices, double[][] points, int maximalMeaningfulRank,
-                                             double[] pt, int from, int until, int obj) {
-        int minOverflow = until;
-        for (int i = until; --i >= from; ) {
-            int ii = indices[i];
-            if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(pt, points[ii], obj)) {
-                ranks[ii] = maximalMeaningfulRank + 1;
-                minOverflow = i;
+            int nDominated = DOMINANCE_KERNEL.retainDominatedAssumingLexicographicallySmaller(points[pointIndex],
+                    points, transposedPoints, indices, scratch, scratchFrom, scratchUntil, obj);
+            for (int i = scratchFrom, dominatedUntil = scratchFrom + nDominated; i < dominatedUntil; ++i) {
+                ranks[indices[scratch[i]]] = rankPlus1;
             }
+            return until;
         }
-        return minOverflow;
     }
 
     // Try to update the rank of the single weak point by points in [goodFrom; goodUntil).
@@ -311,25 +639,43 @@ public abstract class JFBBase extends NonDominatedSorting {
         int weakN = weakUntil - weakFrom;
         if (goodN > 0 && weakN > 0) {
             if (goodN == 1) {
-                return updateByPoint(ranks, indices, points, maximalMeaningfulRank, indices[goodFrom], weakFrom, weakUntil, obj);
+                return updateByPoint(ranks, indices, points, transposedPoints, dominanceScratch, tempFrom,
+                        maximalMeaningfulRank, indices[goodFrom], weakFrom, weakUntil, obj);
             } else if (weakN == 1) {
                 return helperBWeak1(goodFrom, goodUntil, weakFrom, obj);
             } else {
-                while (obj > 1) {
-                    int hookResponse = hybrid.helperBHook(goodFrom, goodUntil, weakFrom, weakUntil, obj, tempFrom, maximalMeaningfulRank);
-                    if (hookResponse >= 0) {
-                        return hookResponse;
+                // In the parallel mode, large problems are split by the last objective as well,
+                // as otherwise the sweep would become the sequential bottleneck, especially in three dimensions.
+                boolean splitLastObjective = pool != null && goodN + weakN > forkThresholds[1];
+                while (obj > 1 || obj == 1 && splitLastObjective) {
+                    if (obj > 1) {
+                        int hookResponse = hybrid.helperBHook(goodFrom, goodUntil, weakFrom, weakUntil, obj, tempFrom, maximalMeaningfulRank);
+                        if (hookResponse >= 0) {
+                            return hookResponse;
+                        }
                     }
                     double[] currentPoints = transposedPoints[obj];
-                    switch (ArrayHelper.transplantAndDecide(currentPoints, indices,
-                            goodFrom, goodUntil, weakFrom, weakUntil, temporary, tempFrom)) {
+                    double median = Double.NaN;
+                    int decision;
+                    if (rankSpace) {
+                        median = splitValueInRankSpace(currentPoints, goodFrom, goodUntil, weakFrom, weakUntil);
+                        decision = median == Double.NEGATIVE_INFINITY ? ArrayHelper.TRANSPLANT_LEFT_NOT_GREATER
+                                : median == Double.POSITIVE_INFINITY ? ArrayHelper.TRANSPLANT_RIGHT_SMALLER
+                                : ArrayHelper.TRANSPLANT_GENERAL_CASE;
+                    } else {
+                        decision = ArrayHelper.transplantAndDecide(currentPoints, indices,
+                                goodFrom, goodUntil, weakFrom, weakUntil, temporary, tempFrom);
+                    }
+                    switch (decision) {
                         case ArrayHelper.TRANSPLANT_LEFT_NOT_GREATER:
                             --obj;
                             break;
                         case ArrayHelper.TRANSPLANT_RIGHT_SMALLER:
                             return weakUntil;
                         case ArrayHelper.TRANSPLANT_GENERAL_CASE:
-                            double median = destructiveMedian.solve(temporary, tempFrom, tempFrom + goodUntil - goodFrom + weakUntil - weakFrom);
+                            if (!rankSpace) {
+                                median = destructiveMedian.solve(temporary, tempFrom, tempFrom + goodUntil - goodFrom + weakUntil - weakFrom);
+                            }
                             long goodSplit = splitMerge.splitInThree(currentPoints, indices, tempFrom, goodFrom, goodUntil, median);
                             int goodMidL = SplitMergeHelper.extractMid(goodSplit);
                             int goodMidR = SplitMergeHelper.extractRight(goodSplit);
@@ -347,7 +693,7 @@ public abstract class JFBBase extends NonDominatedSorting {
                             ++obj;
 
                             ForkJoinTask<Integer> newWeakMidLTask = null;
-                            if (pool != null && leftCallSize > FORK_JOIN_THRESHOLD) {
+                            if (pool != null && leftCallSize > forkThresholds[obj]) {
                                 newWeakMidLTask = helperBAsync(goodFrom, goodMidL, weakFrom, weakMidL, obj, tempFrom);
                             }
                             newWeakUntil = helperB(goodMidR, goodUntil, weakMidR, newWeakUntil, obj, tempFrom + leftCallSize);
@@ -360,12 +706,34 @@ public abstract class JFBBase extends NonDominatedSorting {
                                     weakFrom, newWeakMidL, weakMidL, newWeakMidR, weakMidR, newWeakUntil);
                     }
                 }
-                return sweepB(goodFrom, goodUntil, weakFrom, weakUntil, tempFrom);
+                return obj == 0
+                        ? sweepB0(goodFrom, goodUntil, weakFrom, weakUntil)
+                        : sweepB(goodFrom, goodUntil, weakFrom, weakUntil, tempFrom);
             }
         }
         return weakUntil;
     }
 
+    // When no objectives are left, every good point dominates all weak points which follow it in the index order.
+    private int sweepB0(int goodFrom, int goodUntil, int weakFrom, int weakUntil) {
+        int goodI = goodFrom;
+        int maxGoodRank = -1;
+        int minOverflow = weakUntil;
+        for (int weakI = weakFrom; weakI < weakUntil; ++weakI) {
+            int weakCurr = indices[weakI];
+            while (goodI < goodUntil && indices[goodI] < weakCurr) {
+                maxGoodRank = Math.max(maxGoodRank, ranks[indices[goodI]]);
+                ++goodI;
+            }
+            int result = Math.max(ranks[weakCurr], maxGoodRank + 1);
+            ranks[weakCurr] = result;
+            if (result > maximalMeaningfulRank && minOverflow > weakI) {
+                minOverflow = weakI;
+            }
+        }
+        return kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, weakUntil);
+    }
+
     private void twoDimensionalCase(double[][] points, int[] ranks) {
         int maxRank = 1;
         int n = ranks.length;
@@ -431,11 +799,64 @@ public abstract class JFBBase extends NonDominatedSorting {
         }
     }
 
-    private boolean makesSenseRunInParallel(int nPoints, int dimension) {
-        return nPoints > FORK_JOIN_THRESHOLD && dimension > 3;
+    private void twoDimensionalCaseStrided(double[] xs, int xOffset, double[] ys, int yOffset, int stride, int[] ranks) {
+        // This is the same as twoDimensionalCase, but works with the row-major and the column-major layouts.
+        int maxRank = 1;
+        int n = ranks.length;
+
+        int firstIndex = stride * indices[0];
+        double lastX = xs[firstIndex + xOffset];
+        double lastY = ys[firstIndex + yOffset];
+        int lastRank = 0;
+
+        double minY = lastY;
+
+        for (int i = 1; i < n; ++i) {
+            int ii = indices[i];
+            int index = stride * ii;
+            double currX = xs[index + xOffset];
+            double currY = ys[index + yOffset];
+
+            if (currX == lastX && currY == lastY) {
+                ranks[ii] = lastRank;
+            } else if (currY < minY) {
+                minY = currY;
+                lastRank = 0;
+            } else {
+                int left, right;
+                if (currY < lastY) {
+                    left = 0;
+                    right = lastRank;
+                } else {
+                    left = lastRank;
+                    right = maxRank;
+                }
+                while (right - left > 1) {
+                    int mid = (left + right) >>> 1;
+                    double midY = temporary[mid];
+                    if (currY < midY) {
+                        right = mid;
+                    } else {
+                        left = mid;
+                    }
+                }
+                ranks[ii] = lastRank = right;
+                temporary[right] = currY;
+                if (right == maxRank && maxRank <= maximalMeaningfulRank) {
+                    ++maxRank;
+                }
+            }
+
+            lastX = currX;
+            lastY = currY;
+        }
     }
 
-    private String getThreadDescription() {
-        return allowedThreads == -1 ? "unlimited threads" : allowedThreads + " thread(s)";
+    private boolean usesThreeDimensionalSweep(int dimension) {
+        return dimension == 3 && threeDimensionalSweep != null && pool == null;
+    }
+
+    private boolean makesSenseRunInParallel(int nPoints, int dimension) {
+        return dimension > 2 && nPoints > forkThresholds[dimension - 1];
     }
 }
@@ -11,10 +11,28 @@ public class JFBDouble extends JFBBase {
                      int allowedThreads,
                      HybridAlgorithmWrapper hybridWrapper,
                      DestructiveMedianFactory medianFactory) {
+        this(rankQueryStructure, maximumDimension, JFBExecutionPolicy.ownPool(allowedThreads),
+                hybridWrapper, medianFactory);
+    }
+
+    public JFBDouble(RankQueryStructureDouble rankQueryStructure,
+                     int maximumDimension,
+                     JFBExecutionPolicy executionPolicy,
+                     HybridAlgorithmWrapper hybridWrapper,
+                     DestructiveMedianFactory medianFactory) {
+        this(rankQueryStructure, maximumDimension, executionPolicy, hybridWrapper, medianFactory, false);
+    }
+
+    public JFBDouble(RankQueryStructureDouble rankQueryStructure,
+                     int maximumDimension,
+                     JFBExecutionPolicy executionPolicy,
+                     HybridAlgorithmWrapper hybridWrapper,
+                     DestructiveMedianFactory medianFactory,
+                     boolean useThreeDimensionalSweep) {
         super(rankQueryStructure.maximumPoints(),
                 maximumDimension,
-                rankQueryStructure.supportsMultipleThreads() ? allowedThreads : 1,
-                hybridWrapper, medianFactory,
+                rankQueryStructure.supportsMultipleThreads() ? executionPolicy : JFBExecutionPolicy.sequential(),
+                hybridWrapper, medianFactory, false, useThreeDimensionalSweep,
                 "no ordinate compression, data structure = " + rankQueryStructure.getName());
         this.rankQuery = rankQueryStructure;
     }
@@ -26,9 +44,9 @@ public class JFBDouble extends JFBBase {
     }
 
     @Override
-    protected int sweepA(int from, int until) {
+    protected int sweepA(int from, int until, int tempFrom) {
         double[] local = transposedPoints[1];
-        RankQueryStructureDouble.RangeHandle rankQuery = this.rankQuery.createHandle(from, from, until, indices, local);
+        RankQueryStructureDouble.RangeHandle rankQuery = this.rankQuery.createHandle(tempFrom, from, until, indices, local);
         int minOverflow = until;
         for (int i = from; i < until; ++i) {
             int curr = indices[i];
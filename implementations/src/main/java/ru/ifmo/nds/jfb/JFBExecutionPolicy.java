@@ -0,0 +1,251 @@
+package ru.ifmo.nds.jfb;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.jfb.hybrid.Dummy;
+import ru.ifmo.nds.util.RedBlackRankQueryStructure;
+import ru.ifmo.nds.util.median.SingleScanV1;
+
+/**
+ * This class describes how the Jensen-Fortin-Buzdalov algorithm uses threads.
+ *
+ * A policy either runs everything in the calling thread, or creates a {@link ForkJoinPool} for each sorter instance,
+ * or uses an external {@link ForkJoinPool} which may be shared by many sorter instances. In the latter case,
+ * the pool is not shut down when a sorter is closed. Plain {@link java.util.concurrent.Executor}s are not supported,
+ * since the subproblems wait for each other, which, without work stealing, easily runs out of threads.
+ *
+ * A subproblem is forked only if its size exceeds the fork threshold for its dimension.
+ * The default thresholds are higher for lower dimensions, since less work is done there per point.
+ * They can be set explicitly by {@link #withForkThresholds(int...)} or measured on the current machine
+ * by {@link #calibrated(int)}.
+ *
+ * The instances of this class are immutable.
+ */
+public final class JFBExecutionPolicy {
+    private static final int[] DEFAULT_FORK_THRESHOLDS = { 2000, 800, 400 };
+    private static final int CALIBRATION_FORK_COST_RATIO = 50;
+    private static final int CALIBRATION_FORKS = 10000;
+    private static final int CALIBRATION_MAXIMUM_POINTS = 1 << 15;
+    private static final int CALIBRATION_REPEATS = 3;
+
+    private static final JFBExecutionPolicy SEQUENTIAL = new JFBExecutionPolicy(null, 1, DEFAULT_FORK_THRESHOLDS);
+
+    private final ForkJoinPool sharedPool;
+    private final int allowedThreads;
+    private final int[] forkThresholds;
+
+    private JFBExecutionPolicy(ForkJoinPool sharedPool, int allowedThreads, int[] forkThresholds) {
+        this.sharedPool = sharedPool;
+        this.allowedThreads = allowedThreads;
+        this.forkThresholds = forkThresholds;
+    }
+
+    /**
+     * Returns the policy which runs everything in the calling thread.
+     * @return the sequential policy.
+     */
+    public static JFBExecutionPolicy sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns the policy which makes every sorter create its own {@link ForkJoinPool}.
+     * @param allowedThreads the number of threads to use. Non-positive values mean using all available processors,
+     *                       the value of 1 means sequential execution.
+     * @return the policy with a pool for each sorter instance.
+     */
+    public static JFBExecutionPolicy ownPool(int allowedThreads) {
+        return allowedThreads == 1
+                ? SEQUENTIAL
+                : new JFBExecutionPolicy(null, allowedThreads > 0 ? allowedThreads : -1, DEFAULT_FORK_THRESHOLDS);
+    }
+
+    /**
+     * Returns the policy which makes every sorter use the given pool.
+     * @param pool the pool to use.
+     * @return the policy which uses the given pool.
+     */
+    public static JFBExecutionPolicy sharedPool(ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "The pool must not be null");
+        return new JFBExecutionPolicy(pool, pool.getParallelism(), DEFAULT_FORK_THRESHOLDS);
+    }
+
+    /**
+     * Returns a policy which uses the same threads as this one, but the given fork thresholds.
+     * The first threshold is used for two-dimensional subproblems, the second one for three-dimensional ones,
+     * and so on. The last threshold is also used for all higher dimensions.
+     *
+     * @param thresholdsByDimension the fork thresholds, starting from dimension two.
+     * @return the policy with the given fork thresholds.
+     */
+    public JFBExecutionPolicy withForkThresholds(int... thresholdsByDimension) {
+        Objects.requireNonNull(thresholdsByDimension, "The thresholds must not be null");
+        if (thresholdsByDimension.length == 0) {
+            throw new IllegalArgumentException("At least one threshold must be given");
+        }
+        for (int threshold : thresholdsByDimension) {
+            if (threshold < 1) {
+                throw new IllegalArgumentException("The thresholds must be positive, found " + threshold);
+            }
+        }
+        return new JFBExecutionPolicy(sharedPool, allowedThreads, thresholdsByDimension.clone());
+    }
+
+    /**
+     * Returns a policy which uses the same threads as this one, but the fork thresholds measured on this machine.
+     *
+     * For every dimension up to the given one, the threshold is the smallest problem size,
+     * such that the sequential sorting of random points of this size takes considerably longer
+     * than forking and joining a task in the pool of this policy. The calibration takes up to several seconds.
+     *
+     * @param maximumDimension the maximum dimension to calibrate.
+     * @return the policy with the measured fork thresholds.
+     */
+    public JFBExecutionPolicy calibrated(int maximumDimension) {
+        if (maximumDimension < 2) {
+            throw new IllegalArgumentException("The maximum dimension must be at least 2");
+        }
+        if (sharedPool == null && allowedThreads == 1) {
+            return this;
+        }
+        ForkJoinPool pool = sharedPool;
+        if (pool == null) {
+            pool = allowedThreads > 1 ? new ForkJoinPool(allowedThreads) : new ForkJoinPool();
+        }
+        try {
+            double forkCost = measureForkCost(pool);
+            int[] thresholds = new int[maximumDimension - 1];
+            for (int d = 2; d <= maximumDimension; ++d) {
+                thresholds[d - 2] = measureThreshold(d, CALIBRATION_FORK_COST_RATIO * forkCost);
+            }
+            return new JFBExecutionPolicy(sharedPool, allowedThreads, thresholds);
+        } finally {
+            if (pool != sharedPool) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Returns the fork threshold for subproblems of the given dimension.
+     * @param dimension the dimension of a subproblem.
+     * @return the minimum size of a subproblem to be forked, minus one.
+     */
+    public int getForkThreshold(int dimension) {
+        return forkThresholds[Math.min(Math.max(dimension, 2), forkThresholds.length + 1) - 2];
+    }
+
+    /**
+     * Returns whether this policy may run things in parallel.
+     * @return {@code true} if this policy may run things in parallel, {@code false} otherwise.
+     */
+    public boolean isParallel() {
+        return sharedPool != null || allowedThreads != 1;
+    }
+
+    /**
+     * Returns the description of threads used by this policy.
+     * @return the description of threads.
+     */
+    public String getDescription() {
+        if (sharedPool != null) {
+            return "shared pool of " + allowedThreads + " thread(s)";
+        } else {
+            return allowedThreads == -1 ? "unlimited threads" : allowedThreads + " thread(s)";
+        }
+    }
+
+    /**
+     * Returns the pool to run tasks according to this policy: either the shared pool, or a new pool,
+     * or {@code null} if this policy is sequential. Every pool obtained by this method must be eventually
+     * passed to {@link #releasePool(ForkJoinPool)}.
+     *
+     * @return the pool to run tasks, or {@code null} if everything shall run in the calling thread.
+     */
+    public ForkJoinPool acquirePool() {
+        if (sharedPool != null) {
+            return sharedPool;
+        } else if (allowedThreads == 1) {
+            return null;
+        } else {
+            return allowedThreads > 1 ? new ForkJoinPool(allowedThreads) : new ForkJoinPool();
+        }
+    }
+
+    /**
+     * Releases the pool obtained by {@link #acquirePool()}. The pool is shut down unless it is the shared pool.
+     * @param pool the pool to release, which may be {@code null}.
+     */
+    public void releasePool(ForkJoinPool pool) {
+        if (pool != null && pool != sharedPool) {
+            pool.shutdown();
+        }
+    }
+
+    private static double measureForkCost(ForkJoinPool pool) {
+        RecursiveAction action = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                RecursiveAction[] children = new RecursiveAction[CALIBRATION_FORKS];
+                for (int i = 0; i < CALIBRATION_FORKS; ++i) {
+                    children[i] = new RecursiveAction() {
+                        @Override
+                        protected void compute() {}
+                    };
+                    children[i].fork();
+                }
+                for (int i = CALIBRATION_FORKS - 1; i >= 0; --i) {
+                    children[i].join();
+                }
+            }
+        };
+        long best = Long.MAX_VALUE;
+        for (int t = 0; t < CALIBRATION_REPEATS; ++t) {
+            long time = System.nanoTime();
+            pool.invoke(action);
+            best = Math.min(best, System.nanoTime() - time);
+            action.reinitialize();
+        }
+        return (double) best / CALIBRATION_FORKS;
+    }
+
+    private static int measureThreshold(int dimension, double targetTime) {
+        Random random = new Random(2389247523L + dimension);
+        double[][] points = new double[CALIBRATION_MAXIMUM_POINTS][dimension];
+        for (double[] point : points) {
+            for (int j = 0; j < dimension; ++j) {
+                point[j] = random.nextDouble();
+            }
+        }
+        try (NonDominatedSorting sorting = new JFBDouble(new RedBlackRankQueryStructure(CALIBRATION_MAXIMUM_POINTS),
+                dimension, SEQUENTIAL, Dummy.getWrapperInstance(), SingleScanV1.factory())) {
+            // The largest size is sorted first without measuring, so that the small sizes are not timed
+            // before the code is compiled, which would make them look slower than they are.
+            int[] ranks = new int[CALIBRATION_MAXIMUM_POINTS];
+            for (int t = 0; t < CALIBRATION_REPEATS; ++t) {
+                sorting.sort(points, ranks);
+            }
+            int size = 64;
+            while (size < CALIBRATION_MAXIMUM_POINTS) {
+                double[][] subset = Arrays.copyOf(points, size);
+                int[] subsetRanks = new int[size];
+                long best = Long.MAX_VALUE;
+                for (int t = 0; t < CALIBRATION_REPEATS; ++t) {
+                    long time = System.nanoTime();
+                    sorting.sort(subset, subsetRanks);
+                    best = Math.min(best, System.nanoTime() - time);
+                }
+                if (best >= targetTime) {
+                    break;
+                }
+                size *= 2;
+            }
+            return size;
+        }
+    }
+}
@@ -1,22 +1,56 @@
 package ru.ifmo.nds.jfb;
 
+import java.util.Arrays;
+
 import ru.ifmo.nds.util.RankQueryStructureInt;
 import ru.ifmo.nds.util.median.DestructiveMedianFactory;
 
 public class JFBInt extends JFBBase {
     private RankQueryStructureInt rankQuery;
     private int[] compressedOrdinates;
+    private int[] ordinateCounts;
+    private boolean ordinatesAreIntegral;
 
     public JFBInt(RankQueryStructureInt rankQueryStructure,
                   int maximumDimension,
                   int allowedThreads,
                   HybridAlgorithmWrapper hybridWrapper,
                   DestructiveMedianFactory medianFactory) {
+        this(rankQueryStructure, maximumDimension, JFBExecutionPolicy.ownPool(allowedThreads),
+                hybridWrapper, medianFactory);
+    }
+
+    public JFBInt(RankQueryStructureInt rankQueryStructure,
+                  int maximumDimension,
+                  JFBExecutionPolicy executionPolicy,
+                  HybridAlgorithmWrapper hybridWrapper,
+                  DestructiveMedianFactory medianFactory) {
+        this(rankQueryStructure, maximumDimension, executionPolicy, hybridWrapper, medianFactory, false);
+    }
+
+    public JFBInt(RankQueryStructureInt rankQueryStructure,
+                  int maximumDimension,
+                  JFBExecutionPolicy executionPolicy,
+                  HybridAlgorithmWrapper hybridWrapper,
+                  DestructiveMedianFactory medianFactory,
+                  boolean useThreeDimensionalSweep) {
+        this(rankQueryStructure, maximumDimension, executionPolicy, hybridWrapper, medianFactory, false,
+                useThreeDimensionalSweep, "ordinate compression");
+    }
+
+    JFBInt(RankQueryStructureInt rankQueryStructure,
+           int maximumDimension,
+           JFBExecutionPolicy executionPolicy,
+           HybridAlgorithmWrapper hybridWrapper,
+           DestructiveMedianFactory medianFactory,
+           boolean rankSpace,
+           boolean useThreeDimensionalSweep,
+           String compressionName) {
         super(rankQueryStructure.maximumPoints(),
                 maximumDimension,
-                rankQueryStructure.supportsMultipleThreads() ? allowedThreads : 1,
-                hybridWrapper, medianFactory,
-                "ordinate compression, data structure = " + rankQueryStructure.getName());
+                rankQueryStructure.supportsMultipleThreads() ? executionPolicy : JFBExecutionPolicy.sequential(),
+                hybridWrapper, medianFactory, rankSpace, useThreeDimensionalSweep,
+                compressionName + ", data structure = " + rankQueryStructure.getName());
         compressedOrdinates = new int[rankQueryStructure.maximumPoints()];
         this.rankQuery = rankQueryStructure;
     }
@@ -24,19 +58,82 @@ public class JFBInt extends JFBBase {
     @Override
     protected void closeImpl() {
         super.closeImpl();
+        rankQuery.releaseHandles();
         rankQuery = null;
         compressedOrdinates = null;
+        ordinateCounts = null;
+    }
+
+    @Override
+    protected void sortCheckedInt(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        ordinatesAreIntegral = true;
+        try {
+            super.sortCheckedInt(points, ranks, maximalMeaningfulRank);
+        } finally {
+            ordinatesAreIntegral = false;
+        }
+    }
+
+    @Override
+    protected void sortCheckedLong(long[][] points, int[] ranks, int maximalMeaningfulRank) {
+        ordinatesAreIntegral = true;
+        try {
+            super.sortCheckedLong(points, ranks, maximalMeaningfulRank);
+        } finally {
+            ordinatesAreIntegral = false;
+        }
     }
 
     @Override
     protected void postTransposePointHook(int newN) {
-        sorter.compressCoordinates(transposedPoints[1], indices, compressedOrdinates, 0, newN);
+        if (rankSpace) {
+            // The ordinates are already compressed.
+            double[] ordinates = transposedPoints[1];
+            for (int i = 0; i < newN; ++i) {
+                compressedOrdinates[i] = (int) ordinates[i];
+            }
+        } else if (!ordinatesAreIntegral || !compressIntegralOrdinates(newN)) {
+            sorter.compressCoordinates(transposedPoints[1], indices, compressedOrdinates, 0, newN);
+        }
+    }
+
+    // If the ordinates are integers from a small range, the compression is done by counting, without sorting.
+    private boolean compressIntegralOrdinates(int newN) {
+        double[] ordinates = transposedPoints[1];
+        double min = ordinates[0], max = min;
+        for (int i = 1; i < newN; ++i) {
+            double value = ordinates[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (max - min >= 2.0 * compressedOrdinates.length) {
+            return false;
+        }
+        int range = (int) (max - min) + 1;
+        if (ordinateCounts == null) {
+            ordinateCounts = new int[2 * compressedOrdinates.length];
+        }
+        int[] counts = ordinateCounts;
+        Arrays.fill(counts, 0, range, 0);
+        for (int i = 0; i < newN; ++i) {
+            counts[(int) (ordinates[i] - min)] = 1;
+        }
+        for (int v = 0, sum = 0; v < range; ++v) {
+            int present = counts[v];
+            counts[v] = sum;
+            sum += present;
+        }
+        for (int i = 0; i < newN; ++i) {
+            compressedOrdinates[i] = counts[(int) (ordinates[i] - min)];
+        }
+        return true;
     }
 
     @Override
-    protected int sweepA(int from, int until) {
+    protected int sweepA(int from, int until, int tempFrom) {
         int[] local = compressedOrdinates;
-        RankQueryStructureInt.RangeHandle rankQuery = this.rankQuery.createHandle(from, from, until, indices, local);
+        RankQueryStructureInt.RangeHandle handle = this.rankQuery.createHandle(tempFrom, from, until, indices, local);
+        RankQueryStructureInt.RangeHandle rankQuery = handle;
         int minOverflow = until;
         for (int i = from; i < until; ++i) {
             int curr = indices[i];
@@ -49,13 +146,15 @@ public class JFBInt extends JFBBase {
                 minOverflow = i;
             }
         }
+        this.rankQuery.releaseHandle(handle);
         return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, until);
     }
 
     @Override
     protected int sweepB(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom) {
         int[] local = compressedOrdinates;
-        RankQueryStructureInt.RangeHandle rankQuery = this.rankQuery.createHandle(tempFrom, goodFrom, goodUntil, indices, local);
+        RankQueryStructureInt.RangeHandle handle = this.rankQuery.createHandle(tempFrom, goodFrom, goodUntil, indices, local);
+        RankQueryStructureInt.RangeHandle rankQuery = handle;
         int goodI = goodFrom;
         int minOverflow = weakUntil;
         for (int weakI = weakFrom; weakI < weakUntil; ++weakI) {
@@ -72,6 +171,7 @@ public class JFBInt extends JFBBase {
                 minOverflow = weakI;
             }
         }
+        this.rankQuery.releaseHandle(handle);
         return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, weakUntil);
     }
 }
@@ -0,0 +1,29 @@
+package ru.ifmo.nds.jfb;
+
+import ru.ifmo.nds.util.RankQueryStructureInt;
+
+/**
+ * This is a variant of the Jensen-Fortin-Buzdalov algorithm which works in the rank space.
+ *
+ * Before the recursion starts, the values of every objective are replaced by their ranks among the unique points.
+ * In the rank space, a range of points can be split at the middle of its value range instead of at its median:
+ * every part of such a split has at most half of the value span of the range, so the recursion depth
+ * remains logarithmic. This way, no median selection and no copying of values for it is needed.
+ */
+public class JFBRankSpace extends JFBInt {
+    public JFBRankSpace(RankQueryStructureInt rankQueryStructure,
+                        int maximumDimension,
+                        JFBExecutionPolicy executionPolicy,
+                        HybridAlgorithmWrapper hybridWrapper) {
+        this(rankQueryStructure, maximumDimension, executionPolicy, hybridWrapper, false);
+    }
+
+    public JFBRankSpace(RankQueryStructureInt rankQueryStructure,
+                        int maximumDimension,
+                        JFBExecutionPolicy executionPolicy,
+                        HybridAlgorithmWrapper hybridWrapper,
+                        boolean useThreeDimensionalSweep) {
+        super(rankQueryStructure, maximumDimension, executionPolicy, hybridWrapper, null, true,
+                useThreeDimensionalSweep, "rank space");
+    }
+}
@@ -0,0 +1,132 @@
+package ru.ifmo.nds.jfb.hybrid;
+
+import java.util.Objects;
+
+import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
+
+/**
+ * This hybrid chooses, separately for every subproblem, whether to continue the divide-and-conquer
+ * or to solve it by pairwise comparisons as in {@link LinearNDS}, by {@link ENS} or by {@link NDT}.
+ * The choice is made by a {@link HybridCostModel} from the size of the subproblem, its dimension and,
+ * for helperB subproblems, the numbers of good and weak points.
+ */
+public final class Composite extends HybridAlgorithmWrapper {
+    private static final int ALWAYS = Integer.MAX_VALUE;
+
+    private final HybridCostModel costModel;
+    private final int treeThreshold;
+    private final LinearNDS pairwise = new LinearNDS(ALWAYS, ALWAYS);
+    private final ENS ens = new ENS(ALWAYS, ALWAYS);
+    private final NDT ndt;
+
+    public Composite(HybridCostModel costModel, int treeThreshold) {
+        this.costModel = Objects.requireNonNull(costModel, "The cost model must not be null");
+        this.treeThreshold = treeThreshold;
+        this.ndt = new NDT(ALWAYS, ALWAYS, treeThreshold);
+    }
+
+    @Override
+    public boolean supportsMultipleThreads() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "Composite (" + costModel + ", tree threshold = " + treeThreshold + ")";
+    }
+
+    @Override
+    public HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
+        return new Instance(this, ranks, indices, points, transposedPoints);
+    }
+
+    // The delegates are created on their first use, as the cost model may never choose some of them.
+    // The hooks may be called from several threads, so the creation is synchronized.
+    private static final class Instance extends HybridAlgorithmWrapper.Instance {
+        private final Composite wrapper;
+        private final int[] ranks;
+        private final int[] indices;
+        private final double[][] points;
+        private final double[][] transposedPoints;
+
+        private volatile HybridAlgorithmWrapper.Instance pairwise;
+        private volatile HybridAlgorithmWrapper.Instance ens;
+        private volatile HybridAlgorithmWrapper.Instance ndt;
+
+        private Instance(Composite wrapper, int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
+            this.wrapper = wrapper;
+            this.ranks = ranks;
+            this.indices = indices;
+            this.points = points;
+            this.transposedPoints = transposedPoints;
+        }
+
+        private HybridAlgorithmWrapper.Instance delegate(HybridCostModel.Strategy strategy) {
+            HybridAlgorithmWrapper.Instance result;
+            switch (strategy) {
+                case PAIRWISE: result = pairwise; break;
+                case ENS: result = ens; break;
+                case NDT: result = ndt; break;
+                default: return null;
+            }
+            return result != null ? result : createDelegate(strategy);
+        }
+
+        private synchronized HybridAlgorithmWrapper.Instance createDelegate(HybridCostModel.Strategy strategy) {
+            switch (strategy) {
+                case PAIRWISE:
+                    if (pairwise == null) {
+                        pairwise = wrapper.pairwise.create(ranks, indices, points, transposedPoints);
+                    }
+                    return pairwise;
+                case ENS:
+                    if (ens == null) {
+                        ens = wrapper.ens.create(ranks, indices, points, transposedPoints);
+                    }
+                    return ens;
+                case NDT:
+                    if (ndt == null) {
+                        ndt = wrapper.ndt.create(ranks, indices, points, transposedPoints);
+                    }
+                    return ndt;
+                default:
+                    throw new IllegalArgumentException("No delegate for the strategy " + strategy);
+            }
+        }
+
+        @Override
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
+            if (obj == 1) {
+                return -1;
+            }
+            HybridAlgorithmWrapper.Instance delegate = delegate(wrapper.costModel.chooseA(until - from, obj));
+            return delegate == null ? -1 : delegate.helperAHook(from, until, obj, tempFrom, maximalMeaningfulRank);
+        }
+
+        @Override
+        public int helperBHook(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int obj, int tempFrom, int maximalMeaningfulRank) {
+            if (obj == 1) {
+                return -1;
+            }
+            HybridAlgorithmWrapper.Instance delegate = delegate(wrapper.costModel.chooseB(goodUntil - goodFrom, weakUntil - weakFrom, obj));
+            return delegate == null ? -1
+                    : delegate.helperBHook(goodFrom, goodUntil, weakFrom, weakUntil, obj, tempFrom, maximalMeaningfulRank);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (pairwise != null) {
+                pairwise.close();
+                pairwise = null;
+            }
+            if (ens != null) {
+                ens.close();
+                ens = null;
+            }
+            if (ndt != null) {
+                ndt.close();
+                ndt = null;
+            }
+        }
+    }
+}
@@ -27,7 +27,7 @@ public final class Dummy extends HybridAlgorithmWrapper {
 
     private static final Instance INSTANCE = new Instance() {
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             return -1;
         }
 
@@ -93,12 +93,12 @@ public final class ENS extends HybridAlgorithmWrapper {
         }
 
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             if (notHookCondition(until - from, obj)) {
                 return -1;
             }
 
-            int sliceOffset = from * STORAGE_MULTIPLE;
+            int sliceOffset = tempFrom * STORAGE_MULTIPLE;
             int pointOffset = sliceOffset + 3 * (until - from);
 
             int sliceCurrent = sliceOffset - 3;
@@ -268,7 +268,8 @@ public final class ENS extends HybridAlgorithmWrapper {
                 return helperBSingleRank(-minRank, goodFrom, goodUntil, weakFrom, weakUntil, obj, maximalMeaningfulRank, tempFrom);
             } else {
                 // "good" has multiple fronts (called "slices" here), need to go a more complicated way.
-                ArraySorter.sortIndicesByValues(space, space, sortedIndicesOffset, sortedIndicesOffset + goodSize);
+                // The slices are not filled yet, so their place serves as the scratch for the counting sort.
+                ArraySorter.sortIndicesByValues(space, space, sortedIndicesOffset, sortedIndicesOffset + goodSize, space, sliceOffset);
                 int sliceLast = distributePointsBetweenSlices(space, sortedIndicesOffset, sortedIndicesOffset + goodSize, sliceOffset, tempFrom);
                 int minOverflowed = weakUntil;
                 for (int weak = weakFrom, good = goodFrom, sliceOfGood = ranksAndSlicesOffset; weak < weakUntil; ++weak) {
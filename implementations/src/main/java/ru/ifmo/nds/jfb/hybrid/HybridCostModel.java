@@ -0,0 +1,138 @@
+package ru.ifmo.nds.jfb.hybrid;
+
+/**
+ * This is the cost model used by {@link Composite} to choose, for every subproblem, whether to continue
+ * the divide-and-conquer or to hand the subproblem over to one of the fallback algorithms.
+ *
+ * For a helperA subproblem of size {@code n}, or a helperB subproblem with {@code g} good
+ * and {@code w} weak points, the costs are estimated as follows, where {@code L(x) = log2(x) + 1}:
+ * <ul>
+ *     <li>divide and conquer: {@code n L(n)^2} and {@code (g + w) L(2 min(g, w)) L(g + w)};</li>
+ *     <li>pairwise comparisons, as in {@link LinearNDS}: {@code p n^2 / 2} and {@code 2 p g w};</li>
+ *     <li>{@link ENS}: {@code e n^1.5} and {@code e (g + w) sqrt(2 g)};</li>
+ *     <li>{@link NDT}: {@code t n L(n)^3} and {@code t (g + w) L(2 g)^3}.</li>
+ * </ul>
+ * The coefficients {@code p}, {@code e} and {@code t} are separate for three-dimensional subproblems
+ * and for all higher dimensions. For a balanced helperB subproblem, where {@code g = w = n / 2},
+ * the estimates are the same as for helperA. However, a subproblem with a few good points
+ * and many weak ones is cheap for the fallbacks, but not for the divide-and-conquer,
+ * which still has to split the weak points.
+ *
+ * The default coefficients are chosen such that, for helperA subproblems, each fallback breaks even
+ * with the divide-and-conquer at the built-in threshold of that fallback,
+ * see {@link ru.ifmo.nds.jfb.HybridThresholds#builtIn()}.
+ *
+ * The instances of this class are immutable.
+ */
+public final class HybridCostModel {
+    /**
+     * The strategies to solve a subproblem.
+     */
+    public enum Strategy {
+        DIVIDE_AND_CONQUER, PAIRWISE, ENS, NDT
+    }
+
+    private static final double INV_LOG_2 = 1 / Math.log(2);
+    private static final HybridCostModel DEFAULT = new HybridCostModel(
+            1.766, 1.169, 5.84, 5.28, 0.1308, 0.0654);
+
+    private final double pairwise3D, pairwiseAll;
+    private final double ens3D, ensAll;
+    private final double ndt3D, ndtAll;
+
+    /**
+     * Creates a cost model with the given coefficients.
+     *
+     * @param pairwise3D the coefficient for the pairwise comparisons in three dimensions.
+     * @param pairwiseAll the coefficient for the pairwise comparisons in higher dimensions.
+     * @param ens3D the coefficient for ENS in three dimensions.
+     * @param ensAll the coefficient for ENS in higher dimensions.
+     * @param ndt3D the coefficient for NDT in three dimensions.
+     * @param ndtAll the coefficient for NDT in higher dimensions.
+     */
+    public HybridCostModel(double pairwise3D, double pairwiseAll,
+                           double ens3D, double ensAll,
+                           double ndt3D, double ndtAll) {
+        this.pairwise3D = requirePositive(pairwise3D);
+        this.pairwiseAll = requirePositive(pairwiseAll);
+        this.ens3D = requirePositive(ens3D);
+        this.ensAll = requirePositive(ensAll);
+        this.ndt3D = requirePositive(ndt3D);
+        this.ndtAll = requirePositive(ndtAll);
+    }
+
+    /**
+     * Returns the default cost model.
+     * @return the default cost model.
+     */
+    public static HybridCostModel getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Chooses the cheapest strategy for a helperA subproblem.
+     * @param n the number of points.
+     * @param obj the maximum objective to consider, which is at least 2.
+     * @return the cheapest strategy.
+     */
+    public Strategy chooseA(int n, int obj) {
+        double ln = log(n);
+        double dc = n * ln * ln;
+        double pairwise = (obj == 2 ? pairwise3D : pairwiseAll) * n * (double) n / 2;
+        double ens = (obj == 2 ? ens3D : ensAll) * n * Math.sqrt(n);
+        double ndt = (obj == 2 ? ndt3D : ndtAll) * n * ln * ln * ln;
+        return cheapest(dc, pairwise, ens, ndt);
+    }
+
+    /**
+     * Chooses the cheapest strategy for a helperB subproblem.
+     * @param good the number of good points.
+     * @param weak the number of weak points.
+     * @param obj the maximum objective to consider, which is at least 2.
+     * @return the cheapest strategy.
+     */
+    public Strategy chooseB(int good, int weak, int obj) {
+        int n = good + weak;
+        double lg = log(2 * good);
+        double dc = n * log(2 * Math.min(good, weak)) * log(n);
+        double pairwise = (obj == 2 ? pairwise3D : pairwiseAll) * 2 * good * (double) weak;
+        double ens = (obj == 2 ? ens3D : ensAll) * n * Math.sqrt(2 * good);
+        double ndt = (obj == 2 ? ndt3D : ndtAll) * n * lg * lg * lg;
+        return cheapest(dc, pairwise, ens, ndt);
+    }
+
+    @Override
+    public String toString() {
+        return "pairwise = " + pairwise3D + "/" + pairwiseAll
+                + ", ENS = " + ens3D + "/" + ensAll
+                + ", NDT = " + ndt3D + "/" + ndtAll;
+    }
+
+    private static Strategy cheapest(double dc, double pairwise, double ens, double ndt) {
+        Strategy best = Strategy.DIVIDE_AND_CONQUER;
+        double bestCost = dc;
+        if (pairwise < bestCost) {
+            best = Strategy.PAIRWISE;
+            bestCost = pairwise;
+        }
+        if (ens < bestCost) {
+            best = Strategy.ENS;
+            bestCost = ens;
+        }
+        if (ndt < bestCost) {
+            best = Strategy.NDT;
+        }
+        return best;
+    }
+
+    private static double log(int x) {
+        return Math.log(x) * INV_LOG_2 + 1;
+    }
+
+    private static double requirePositive(double value) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("The coefficients must be positive and finite, found " + value);
+        }
+        return value;
+    }
+}
@@ -4,11 +4,15 @@ import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
 import ru.ifmo.nds.jfb.JFBBase;
 
 public final class LinearNDS extends HybridAlgorithmWrapper {
-    private static final int THRESHOLD_3D = 50;
-    private static final int THRESHOLD_ALL = 100;
+    private static final LinearNDS WRAPPER_INSTANCE = new LinearNDS(50, 100);
 
-    private static final LinearNDS WRAPPER_INSTANCE = new LinearNDS();
-    private LinearNDS() {}
+    private final int threshold3D;
+    private final int thresholdAll;
+
+    public LinearNDS(int threshold3D, int thresholdAll) {
+        this.threshold3D = threshold3D;
+        this.thresholdAll = thresholdAll;
+    }
 
     public static LinearNDS getWrapperInstance() {
         return WRAPPER_INSTANCE;
@@ -21,40 +25,51 @@ public final class LinearNDS extends HybridAlgorithmWrapper {
 
     @Override
     public String getName() {
-        return "LinearNDS";
+        return "LinearNDS (threshold 3D = " + threshold3D + ", threshold all = " + thresholdAll + ")";
     }
 
     @Override
     public HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
-        return new Instance(ranks, indices, points);
+        return new Instance(ranks, indices, points, transposedPoints, threshold3D, thresholdAll);
     }
 
     private static final class Instance extends HybridAlgorithmWrapper.Instance {
         private final int[] ranks;
         private final int[] indices;
         private final double[][] points;
+        private final double[][] transposedPoints;
+        private final int[] scratch;
+
+        private final int threshold3D;
+        private final int thresholdAll;
 
-        private Instance(int[] ranks, int[] indices, double[][] points) {
+        private Instance(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints,
+                         int threshold3D, int thresholdAll) {
             this.ranks = ranks;
             this.indices = indices;
             this.points = points;
+            this.transposedPoints = transposedPoints;
+            this.scratch = new int[indices.length];
+            this.threshold3D = threshold3D;
+            this.thresholdAll = thresholdAll;
         }
 
         private boolean notHookCondition(int size, int obj) {
             switch (obj) {
                 case 1: return true;
-                case 2: return size >= THRESHOLD_3D;
-                default: return size >= THRESHOLD_ALL;
+                case 2: return size >= threshold3D;
+                default: return size >= thresholdAll;
             }
         }
 
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             if (notHookCondition(until - from, obj)) {
                 return -1;
             }
             for (int left = from; left < until; ++left) {
-                until = JFBBase.updateByPoint(ranks, indices, points, maximalMeaningfulRank, indices[left], left + 1, until, obj);
+                until = JFBBase.updateByPoint(ranks, indices, points, transposedPoints, scratch, tempFrom,
+                        maximalMeaningfulRank, indices[left], left + 1, until, obj);
             }
             return until;
         }
@@ -69,7 +84,8 @@ public final class LinearNDS extends HybridAlgorithmWrapper {
                 while (weakMin < weakUntil && indices[weakMin] < goodIndex) {
                     ++weakMin;
                 }
-                weakUntil = JFBBase.updateByPoint(ranks, indices, points, maximalMeaningfulRank, goodIndex, weakMin, weakUntil, obj);
+                weakUntil = JFBBase.updateByPoint(ranks, indices, points, transposedPoints, scratch, tempFrom,
+                        maximalMeaningfulRank, goodIndex, weakMin, weakUntil, obj);
             }
             return weakUntil;
         }
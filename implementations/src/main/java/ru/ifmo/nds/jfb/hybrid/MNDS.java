@@ -0,0 +1,274 @@
+package ru.ifmo.nds.jfb.hybrid;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
+import ru.ifmo.nds.jfb.JFBBase;
+import ru.ifmo.nds.util.ArraySorter;
+
+/**
+ * This hybrid solves small subproblems in the way of the MNDS algorithm, see {@link ru.ifmo.nds.mnds.BitSetImplementation}.
+ * For every weak point, a bit set of the good points which may dominate it is kept, and for every objective
+ * it is intersected with the bit set of the good points which are not greater in this objective,
+ * which is maintained while scanning the points sorted by this objective.
+ *
+ * The bit sets are stored as rows of a single {@code long[]} array, which is quadratic in the threshold,
+ * so the memory is still linear in the number of points. Such arrays are kept in a pool owned by the sorter,
+ * which has at most one array per thread running the hooks, and is emptied when the sorter is closed.
+ */
+public final class MNDS extends HybridAlgorithmWrapper {
+    private final int threshold3D;
+    private final int thresholdAll;
+
+    public MNDS(int threshold3D, int thresholdAll) {
+        this.threshold3D = threshold3D;
+        this.thresholdAll = thresholdAll;
+    }
+
+    @Override
+    public boolean supportsMultipleThreads() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "MNDS (threshold 3D = " + threshold3D + ", threshold all = " + thresholdAll + ")";
+    }
+
+    @Override
+    public HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
+        return new Instance(ranks, indices, points, threshold3D, thresholdAll);
+    }
+
+    private static final class Scratch {
+        private final long[] rows;
+        private final long[] scan;
+        private final int[] order;
+        private final int[] limits;
+        private final int[] goodRanks;
+        private final ArraySorter sorter;
+
+        private Scratch(int maximumSize) {
+            int words = (maximumSize + 63) >>> 6;
+            rows = new long[maximumSize * words];
+            scan = new long[words];
+            order = new int[maximumSize];
+            limits = new int[maximumSize];
+            goodRanks = new int[maximumSize];
+            sorter = new ArraySorter(maximumSize);
+        }
+    }
+
+    private static final class Instance extends HybridAlgorithmWrapper.Instance {
+        private final int[] ranks;
+        private final int[] indices;
+        private final double[][] points;
+        private final int[] localIndices;
+        private final ConcurrentLinkedDeque<Scratch> scratches = new ConcurrentLinkedDeque<>();
+        private final int maximumSize;
+
+        private final int threshold3D;
+        private final int thresholdAll;
+
+        private Instance(int[] ranks, int[] indices, double[][] points, int threshold3D, int thresholdAll) {
+            this.ranks = ranks;
+            this.indices = indices;
+            this.points = points;
+            this.localIndices = new int[indices.length];
+            this.threshold3D = threshold3D;
+            this.thresholdAll = thresholdAll;
+
+            // The subproblems which are handled are strictly smaller than the threshold.
+            this.maximumSize = Math.max(1, Math.min(indices.length, Math.max(threshold3D, thresholdAll) - 1));
+        }
+
+        // A hook never waits for other tasks, so a scratch is taken by at most one hook per thread at a time.
+        private Scratch acquireScratch() {
+            Scratch s = scratches.pollFirst();
+            return s != null ? s : new Scratch(maximumSize);
+        }
+
+        @Override
+        public void close() {
+            scratches.clear();
+        }
+
+        private boolean notHookCondition(int size, int obj) {
+            switch (obj) {
+                case 1: return true;
+                case 2: return size >= threshold3D;
+                default: return size >= thresholdAll;
+            }
+        }
+
+        // Intersects the row of every weak point with the good points preceding it in the order of every objective.
+        // The local indices of good points are non-negative, the ones of weak points are complemented.
+        private void intersectByObjectives(Scratch s, int size, int words, int obj) {
+            long[] rows = s.rows, scan = s.scan;
+            int[] order = s.order, limits = s.limits;
+            for (int o = obj; o > 0; --o) {
+                s.sorter.sortComparingByIndicesIfEqual(points, order, 0, size, o);
+                Arrays.fill(scan, 0, words, 0);
+                for (int i = 0; i < size; ++i) {
+                    int local = localIndices[order[i]];
+                    if (local >= 0) {
+                        scan[local >>> 6] |= 1L << local;
+                    } else {
+                        local = ~local;
+                        for (int w = 0, r = local * words, wu = limits[local]; w < wu; ++w, ++r) {
+                            rows[r] &= scan[w];
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int maximumRankInRow(long[] rows, int rowOffset, int wordLimit, int[] goodRanks, int rank) {
+            for (int w = 0; w < wordLimit; ++w) {
+                long word = rows[rowOffset + w];
+                while (word != 0) {
+                    int goodRank = goodRanks[(w << 6) + Long.numberOfTrailingZeros(word)];
+                    if (rank <= goodRank) {
+                        rank = goodRank + 1;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return rank;
+        }
+
+        @Override
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
+            int size = until - from;
+            if (notHookCondition(size, obj)) {
+                return -1;
+            }
+
+            Scratch s = acquireScratch();
+            int result = helperA(s, from, until, obj, maximalMeaningfulRank);
+            scratches.offerFirst(s);
+            return result;
+        }
+
+        private int helperA(Scratch s, int from, int until, int obj, int maximalMeaningfulRank) {
+            int size = until - from;
+            long[] rows = s.rows;
+            int[] order = s.order, limits = s.limits, goodRanks = s.goodRanks;
+            int words = (size + 63) >>> 6;
+
+            // Every point is both good and weak here. Its row initially contains all lexicographically smaller points.
+            for (int i = 0, r = 0; i < size; ++i, r += words) {
+                int ii = indices[from + i];
+                localIndices[ii] = i;
+                order[i] = ii;
+                int fullWords = i >>> 6;
+                Arrays.fill(rows, r, r + fullWords, -1L);
+                rows[r + fullWords] = (1L << i) - 1;
+                limits[i] = fullWords + 1;
+            }
+            // Every point is intersected with the scan before being added to it, so it never dominates itself.
+            for (int o = obj; o > 0; --o) {
+                s.sorter.sortComparingByIndicesIfEqual(points, order, 0, size, o);
+                long[] scan = s.scan;
+                Arrays.fill(scan, 0, words, 0);
+                for (int i = 0; i < size; ++i) {
+                    int local = localIndices[order[i]];
+                    for (int w = 0, r = local * words, wu = limits[local]; w < wu; ++w, ++r) {
+                        rows[r] &= scan[w];
+                    }
+                    scan[local >>> 6] |= 1L << local;
+                }
+            }
+
+            int minOverflow = until;
+            for (int i = 0, r = 0; i < size; ++i, r += words) {
+                int ii = indices[from + i];
+                int rank = maximumRankInRow(rows, r, limits[i], goodRanks, ranks[ii]);
+                if (rank > maximalMeaningfulRank) {
+                    rank = maximalMeaningfulRank + 1;
+                    if (minOverflow == until) {
+                        minOverflow = from + i;
+                    }
+                }
+                ranks[ii] = rank;
+                goodRanks[i] = rank;
+            }
+            return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, until);
+        }
+
+        @Override
+        public int helperBHook(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int obj, int tempFrom, int maximalMeaningfulRank) {
+            int goodSize = goodUntil - goodFrom;
+            int weakSize = weakUntil - weakFrom;
+            if (notHookCondition(goodSize + weakSize, obj)) {
+                return -1;
+            }
+
+            Scratch s = acquireScratch();
+            int result = helperB(s, goodFrom, goodUntil, weakFrom, weakUntil, obj, maximalMeaningfulRank);
+            scratches.offerFirst(s);
+            return result;
+        }
+
+        private int helperB(Scratch s, int goodFrom, int goodUntil, int weakFrom, int weakUntil, int obj, int maximalMeaningfulRank) {
+            int goodSize = goodUntil - goodFrom;
+            int weakSize = weakUntil - weakFrom;
+            long[] rows = s.rows;
+            int[] order = s.order, limits = s.limits, goodRanks = s.goodRanks;
+            int words = (goodSize + 63) >>> 6;
+
+            int maxGoodRank = -1;
+            for (int i = 0; i < goodSize; ++i) {
+                int gi = indices[goodFrom + i];
+                localIndices[gi] = i;
+                order[i] = gi;
+                int rank = ranks[gi];
+                goodRanks[i] = rank;
+                if (maxGoodRank < rank) {
+                    maxGoodRank = rank;
+                }
+            }
+            // The row of a weak point initially contains all lexicographically smaller good points.
+            // Weak points which cannot be dominated, or cannot get a larger rank, are not considered at all.
+            int size = goodSize;
+            for (int i = 0, good = 0, r = 0; i < weakSize; ++i, r += words) {
+                int wi = indices[weakFrom + i];
+                while (good < goodSize && order[good] < wi) {
+                    ++good;
+                }
+                if (good == 0 || ranks[wi] > maxGoodRank) {
+                    limits[i] = 0;
+                } else {
+                    localIndices[wi] = ~i;
+                    order[size++] = wi;
+                    int fullWords = (good - 1) >>> 6;
+                    Arrays.fill(rows, r, r + fullWords, -1L);
+                    rows[r + fullWords] = -1L >>> (63 - ((good - 1) & 63));
+                    limits[i] = fullWords + 1;
+                }
+            }
+            if (size == goodSize) {
+                return weakUntil;
+            }
+            intersectByObjectives(s, size, words, obj);
+
+            int minOverflow = weakUntil;
+            for (int i = 0, r = 0; i < weakSize; ++i, r += words) {
+                int wordLimit = limits[i];
+                if (wordLimit != 0) {
+                    int wi = indices[weakFrom + i];
+                    int rank = maximumRankInRow(rows, r, wordLimit, goodRanks, ranks[wi]);
+                    if (rank > maximalMeaningfulRank) {
+                        rank = maximalMeaningfulRank + 1;
+                        if (minOverflow == weakUntil) {
+                            minOverflow = weakFrom + i;
+                        }
+                    }
+                    ranks[wi] = rank;
+                }
+            }
+            return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, weakUntil);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Arrays;
 import ru.ifmo.nds.NonDominatedSorting;
 import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.RequiredCountTracker;
 
 public class ENS_NDT extends NonDominatedSorting {
     private SplitBuilder splitBuilder;
@@ -12,6 +13,7 @@ public class ENS_NDT extends NonDominatedSorting {
     private int[] ranks;
     private double[][] transposedPoints;
     private double[][] points;
+    private RequiredCountTracker requiredCountTracker;
     private final int threshold;
 
     public ENS_NDT(int maximumPoints, int maximumDimension, int threshold) {
@@ -25,6 +27,7 @@ public class ENS_NDT extends NonDominatedSorting {
         }
         splitBuilder = new SplitBuilder(transposedPoints, maximumPoints, threshold);
         points = new double[maximumPoints][];
+        requiredCountTracker = new RequiredCountTracker(maximumPoints);
     }
 
     @Override
@@ -39,6 +42,7 @@ public class ENS_NDT extends NonDominatedSorting {
         ranks = null;
         transposedPoints = null;
         points = null;
+        requiredCountTracker = null;
     }
 
     @Override
@@ -49,15 +53,79 @@ public class ENS_NDT extends NonDominatedSorting {
         sorter.lexicographicalSort(points, indices, 0, n, dim);
 
         int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
-        Arrays.fill(this.ranks, 0, newN, 0);
+        transposeUniquePoints(newN, dim);
+        sortUniquePoints(n, newN, dim, ranks, maximalMeaningfulRank, null);
+    }
 
-        TreeNode empty = threshold == 1 ? TreeNode.EMPTY_1 : TreeNode.EMPTY;
+    @Override
+    protected void sortCheckedUntilCount(double[][] points, int[] ranks, int requiredCount) {
+        int n = points.length;
+        int dim = points[0].length;
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(points, indices, 0, n, dim);
+
+        int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        transposeUniquePoints(newN, dim);
+        requiredCountTracker.reset(requiredCount, newN - 1);
+        sortUniquePoints(n, newN, dim, ranks, newN - 1, requiredCountTracker);
+    }
+
+    @Override
+    protected void sortCheckedFlat(double[] points, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(points, dim, indices, 0, n, dim);
+
+        int newN = ArraySorter.retainUniquePoints(points, n, dim, indices, getFlatPointRowPool(), this.points, ranks);
+        transposeUniquePoints(newN, dim);
+        sortUniquePoints(n, newN, dim, ranks, maximalMeaningfulRank, null);
+    }
+
+    @Override
+    protected void sortCheckedColumns(double[][] columns, int n, int[] ranks, int maximalMeaningfulRank) {
+        int dim = columns.length;
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSortByColumns(columns, indices, 0, n, dim);
+
+        // After that, indices[i] is the original index of the i-th unique point.
+        // The tree needs the columns, and the dominance checks need the rows, so both are gathered.
+        int newN = ArraySorter.retainUniquePoints(columns, n, indices, ranks);
+        for (int j = 1; j < dim; ++j) {
+            double[] source = columns[j];
+            double[] target = transposedPoints[j];
+            for (int i = 0; i < newN; ++i) {
+                target[i] = source[indices[i]];
+            }
+        }
+        double[][] rowPool = getFlatPointRowPool();
+        for (int i = 0; i < newN; ++i) {
+            this.points[i] = ArrayHelper.gatherToPooledRow(columns, dim, indices[i], rowPool, i);
+        }
+        sortUniquePoints(n, newN, dim, ranks, maximalMeaningfulRank, null);
+    }
+
+    private void transposeUniquePoints(int newN, int dim) {
         for (int i = 0; i < newN; ++i) {
-            levels[i] = empty;
+            double[] point = this.points[i];
             for (int j = 1; j < dim; ++j) {
-                transposedPoints[j][i] = this.points[i][j];
+                transposedPoints[j][i] = point[j];
             }
         }
+    }
+
+    private void sortUniquePoints(int n, int newN, int dim, int[] ranks, int maximalMeaningfulRank,
+                                  RequiredCountTracker tracker) {
+        Arrays.fill(this.ranks, 0, newN, 0);
+        if (tracker != null) {
+            // Every unique point counts as many times as it occurs in the input.
+            Arrays.fill(indices, 0, newN, 0);
+            for (int i = 0; i < n; ++i) {
+                ++indices[ranks[i]];
+            }
+            maximalMeaningfulRank = tracker.add(0, indices[0]);
+        }
+
+        TreeNode empty = threshold == 1 ? TreeNode.EMPTY_1 : TreeNode.EMPTY;
+        Arrays.fill(levels, 0, newN, empty);
 
         Split split = splitBuilder.result(newN, dim);
 
@@ -86,6 +154,10 @@ public class ENS_NDT extends NonDominatedSorting {
             } else {
                 levels[0] = levels[0].add(current, split, threshold);
             }
+            if (tracker != null) {
+                maximalMeaningfulRank = tracker.add(this.ranks[i], indices[i]);
+                maxRank = Math.min(maxRank, maximalMeaningfulRank + 1);
+            }
         }
 
         for (int i = 0; i < n; ++i) {
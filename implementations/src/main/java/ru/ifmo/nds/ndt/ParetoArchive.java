@@ -0,0 +1,325 @@
+package ru.ifmo.nds.ndt;
+
+import java.util.Objects;
+
+/**
+ * This class maintains an archive of mutually non-dominated points, which supports dominance queries
+ * and insertion of new points, which evicts the archive points dominated by the new point.
+ *
+ * The points are kept in the leaves of a split tree, which is built by {@link SplitBuilder} in the same way
+ * as for the ENS-NDT algorithm. A query descends only into those subtrees which may contain the points
+ * dominating the query point, or dominated by it. As the archive changes, the leaves may grow
+ * and the medians may become outdated, so the tree is rebuilt from scratch once the number of updates
+ * since the last rebuild exceeds the size of the archive at that time, which keeps the amortized cost
+ * of rebuilding logarithmic per update.
+ *
+ * All memory, including the points and the tree nodes, is allocated in advance for the given maximum number
+ * of points, so insertions and evictions do not allocate.
+ */
+public final class ParetoArchive {
+    private static final int SPLIT_THRESHOLD = 8;
+    private static final int MINIMUM_UPDATES_BEFORE_REBUILD = 64;
+    private static final int NONE = -1;
+
+    private final int maximumPoints;
+    private final int dimension;
+
+    // The points are identified by the indices of their rows, the free rows are linked by nextInLeaf.
+    private final double[][] points;
+    private final double[][] transposedPoints;
+    private final int[] nextInLeaf;
+    private final int[] previousInLeaf;
+    private final int[] liveIds;
+    private int freeHead;
+    private int size;
+
+    // The tree nodes. The leaves have no good child, and contain the lists of points starting at leafHead.
+    private final int[] nodeCoordinate;
+    private final double[] nodeValue;
+    private final int[] nodeGood;
+    private final int[] nodeWeak;
+    private final int[] leafHead;
+    private int nNodes;
+    private int root;
+
+    private final SplitBuilder splitBuilder;
+    private int updatesSinceRebuild;
+    private int sizeAtRebuild;
+
+    /**
+     * Creates an empty archive.
+     * @param maximumPoints the maximum number of points the archive can hold at the same time.
+     * @param dimension the dimension of the points.
+     */
+    public ParetoArchive(int maximumPoints, int dimension) {
+        if (maximumPoints < 0) {
+            throw new IllegalArgumentException("The maximum number of points must be non-negative");
+        }
+        if (dimension < 1) {
+            throw new IllegalArgumentException("The dimension must be positive");
+        }
+        this.maximumPoints = maximumPoints;
+        this.dimension = dimension;
+
+        points = new double[maximumPoints][dimension];
+        // The split builder never splits by the first coordinate, which is fine for ENS-NDT,
+        // where the points come in the lexicographical order, but not here. Hence all coordinates are shifted by one.
+        transposedPoints = new double[dimension + 1][];
+        for (int d = 1; d <= dimension; ++d) {
+            transposedPoints[d] = new double[maximumPoints];
+        }
+        nextInLeaf = new int[maximumPoints];
+        previousInLeaf = new int[maximumPoints];
+        liveIds = new int[maximumPoints];
+
+        // Every split takes one point from the pool of splits, so there are at most as many leaves plus one.
+        int maximumNodes = 2 * maximumPoints + 1;
+        nodeCoordinate = new int[maximumNodes];
+        nodeValue = new double[maximumNodes];
+        nodeGood = new int[maximumNodes];
+        nodeWeak = new int[maximumNodes];
+        leafHead = new int[maximumNodes];
+
+        splitBuilder = new SplitBuilder(transposedPoints, maximumPoints, SPLIT_THRESHOLD);
+        clear();
+    }
+
+    /**
+     * Returns the maximum number of points the archive can hold at the same time.
+     * @return the maximum number of points.
+     */
+    public int getMaximumPoints() {
+        return maximumPoints;
+    }
+
+    /**
+     * Returns the dimension of the points.
+     * @return the dimension of the points.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of points in the archive.
+     * @return the number of points in the archive.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all points from the archive.
+     */
+    public void clear() {
+        for (int i = 0; i < maximumPoints; ++i) {
+            nextInLeaf[i] = i + 1 < maximumPoints ? i + 1 : NONE;
+        }
+        freeHead = maximumPoints == 0 ? NONE : 0;
+        size = 0;
+        nNodes = 0;
+        root = newLeaf();
+        updatesSinceRebuild = 0;
+        sizeAtRebuild = 0;
+    }
+
+    /**
+     * Checks whether the given point is strictly dominated by some point of the archive.
+     * @param point the point to be checked.
+     * @return {@code true} if the point is dominated, {@code false} otherwise.
+     */
+    public boolean isDominated(double[] point) {
+        checkPoint(point);
+        int dominator = findWeakDominator(root, point);
+        // If the point is equal to some archive point, no other archive point may dominate it.
+        return dominator != NONE && !equal(points[dominator], point);
+    }
+
+    /**
+     * Inserts the given point into the archive, unless it is dominated by, or equal to, some point of the archive.
+     * All points of the archive which are dominated by the given point are evicted.
+     * The point is copied, so the caller may change the array afterwards.
+     *
+     * @param point the point to be inserted.
+     * @return {@code true} if the point was inserted, {@code false} otherwise.
+     * @throws IllegalStateException if the archive is full after evicting the dominated points.
+     */
+    public boolean insert(double[] point) {
+        checkPoint(point);
+        if (findWeakDominator(root, point) != NONE) {
+            return false;
+        }
+        evictDominated(root, point);
+        if (freeHead == NONE) {
+            throw new IllegalStateException("The archive is full, its maximum size is " + maximumPoints);
+        }
+        int id = freeHead;
+        freeHead = nextInLeaf[id];
+        double[] row = points[id];
+        System.arraycopy(point, 0, row, 0, dimension);
+        for (int d = 0; d < dimension; ++d) {
+            transposedPoints[d + 1][id] = point[d];
+        }
+        addToLeaf(findLeaf(row), id);
+        ++size;
+        if (++updatesSinceRebuild > Math.max(MINIMUM_UPDATES_BEFORE_REBUILD, sizeAtRebuild)) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the copies of all points in the archive, in no particular order.
+     * @return the points of the archive.
+     */
+    public double[][] toArray() {
+        double[][] rv = new double[size][];
+        int count = collectLiveIds();
+        for (int i = 0; i < count; ++i) {
+            rv[i] = points[liveIds[i]].clone();
+        }
+        return rv;
+    }
+
+    private void checkPoint(double[] point) {
+        Objects.requireNonNull(point, "The point must not be null");
+        if (point.length != dimension) {
+            throw new IllegalArgumentException("The point has dimension " + point.length
+                    + ", but the archive has dimension " + dimension);
+        }
+    }
+
+    private static boolean weaklyDominates(double[] good, double[] weak, int dimension) {
+        for (int i = 0; i < dimension; ++i) {
+            if (good[i] > weak[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equal(double[] a, double[] b) {
+        for (int i = 0; i < dimension; ++i) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The points in the weak subtree are not less than the split value, so they cannot dominate smaller points.
+    private int findWeakDominator(int node, double[] point) {
+        while (nodeGood[node] != NONE) {
+            if (point[nodeCoordinate[node]] < nodeValue[node]) {
+                node = nodeGood[node];
+            } else {
+                int result = findWeakDominator(nodeGood[node], point);
+                if (result != NONE) {
+                    return result;
+                }
+                node = nodeWeak[node];
+            }
+        }
+        for (int id = leafHead[node]; id != NONE; id = nextInLeaf[id]) {
+            if (weaklyDominates(points[id], point, dimension)) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+
+    // The points in the good subtree are less than the split value, so they cannot be dominated by larger points.
+    // This is called only for points which are not equal to any archive point, so weak dominance is strict here.
+    private void evictDominated(int node, double[] point) {
+        while (nodeGood[node] != NONE) {
+            if (point[nodeCoordinate[node]] < nodeValue[node]) {
+                evictDominated(nodeGood[node], point);
+            }
+            node = nodeWeak[node];
+        }
+        for (int id = leafHead[node], next; id != NONE; id = next) {
+            next = nextInLeaf[id];
+            if (weaklyDominates(point, points[id], dimension)) {
+                removeFromLeaf(node, id);
+                nextInLeaf[id] = freeHead;
+                freeHead = id;
+                --size;
+                ++updatesSinceRebuild;
+            }
+        }
+    }
+
+    private int findLeaf(double[] point) {
+        int node = root;
+        while (nodeGood[node] != NONE) {
+            node = point[nodeCoordinate[node]] < nodeValue[node] ? nodeGood[node] : nodeWeak[node];
+        }
+        return node;
+    }
+
+    private void addToLeaf(int leaf, int id) {
+        int head = leafHead[leaf];
+        nextInLeaf[id] = head;
+        previousInLeaf[id] = NONE;
+        if (head != NONE) {
+            previousInLeaf[head] = id;
+        }
+        leafHead[leaf] = id;
+    }
+
+    private void removeFromLeaf(int leaf, int id) {
+        int prev = previousInLeaf[id], next = nextInLeaf[id];
+        if (prev == NONE) {
+            leafHead[leaf] = next;
+        } else {
+            nextInLeaf[prev] = next;
+        }
+        if (next != NONE) {
+            previousInLeaf[next] = prev;
+        }
+    }
+
+    private int newLeaf() {
+        int node = nNodes++;
+        nodeGood[node] = NONE;
+        nodeWeak[node] = NONE;
+        leafHead[node] = NONE;
+        return node;
+    }
+
+    private int collectLiveIds() {
+        int count = 0;
+        for (int node = 0; node < nNodes; ++node) {
+            if (nodeGood[node] == NONE) {
+                for (int id = leafHead[node]; id != NONE; id = nextInLeaf[id]) {
+                    liveIds[count++] = id;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void rebuild() {
+        int count = collectLiveIds();
+        nNodes = 0;
+        root = count == 0 ? newLeaf() : flatten(splitBuilder.result(0, count, liveIds, dimension + 1));
+        for (int i = 0; i < count; ++i) {
+            int id = liveIds[i];
+            addToLeaf(findLeaf(points[id]), id);
+        }
+        updatesSinceRebuild = 0;
+        sizeAtRebuild = count;
+    }
+
+    private int flatten(Split split) {
+        if (split == Split.NULL_POINTS || split == Split.NULL_MAX_DEPTH) {
+            return newLeaf();
+        }
+        int node = nNodes++;
+        nodeCoordinate[node] = split.coordinate - 1;
+        nodeValue[node] = split.value;
+        nodeGood[node] = flatten(split.good);
+        nodeWeak[node] = flatten(split.weak);
+        return node;
+    }
+}
@@ -6,8 +6,8 @@ public abstract class TreeNode {
     public abstract TreeNode add(double[] point, Split split, int splitThreshold);
     public abstract boolean dominates(double[] point, Split split);
 
-    static final TreeNode EMPTY = new EmptyNode();
-    static final TreeNode EMPTY_1 = new EmptyNode1();
+    public static final TreeNode EMPTY = new EmptyNode();
+    public static final TreeNode EMPTY_1 = new EmptyNode1();
 
     private static class EmptyNode extends TreeNode {
         @Override
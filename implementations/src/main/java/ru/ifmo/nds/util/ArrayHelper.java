@@ -18,6 +18,71 @@ public final class ArrayHelper {
         return true;
     }
 
+    public static boolean equal(final double[] a, final int aOffset, final double[] b, final int bOffset, final int length) {
+        for (int i = 0; i < length; ++i) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static double[] copyToPooledRow(double[] source, int offset, int length, double[][] pool, int poolIndex) {
+        double[] row = pool[poolIndex];
+        if (row == null || row.length != length) {
+            pool[poolIndex] = row = new double[length];
+        }
+        System.arraycopy(source, offset, row, 0, length);
+        return row;
+    }
+
+    public static double[] widenToPooledRow(float[] source, double[][] pool, int poolIndex) {
+        int length = source.length;
+        double[] row = pool[poolIndex];
+        if (row == null || row.length != length) {
+            pool[poolIndex] = row = new double[length];
+        }
+        for (int i = 0; i < length; ++i) {
+            row[i] = source[i];
+        }
+        return row;
+    }
+
+    public static double[] widenToPooledRow(int[] source, double[][] pool, int poolIndex) {
+        int length = source.length;
+        double[] row = pool[poolIndex];
+        if (row == null || row.length != length) {
+            pool[poolIndex] = row = new double[length];
+        }
+        for (int i = 0; i < length; ++i) {
+            row[i] = source[i];
+        }
+        return row;
+    }
+
+    public static double[] widenToPooledRow(long[] source, double[][] pool, int poolIndex) {
+        int length = source.length;
+        double[] row = pool[poolIndex];
+        if (row == null || row.length != length) {
+            pool[poolIndex] = row = new double[length];
+        }
+        for (int i = 0; i < length; ++i) {
+            row[i] = source[i];
+        }
+        return row;
+    }
+
+    public static double[] gatherToPooledRow(double[][] columns, int length, int index, double[][] pool, int poolIndex) {
+        double[] row = pool[poolIndex];
+        if (row == null || row.length != length) {
+            pool[poolIndex] = row = new double[length];
+        }
+        for (int i = 0; i < length; ++i) {
+            row[i] = columns[i][index];
+        }
+        return row;
+    }
+
     public static void fillIdentity(int[] array, int n) {
         for (int i = 0; i < n; ++i) {
             array[i] = i;
@@ -1,19 +1,45 @@
 package ru.ifmo.nds.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public final class ArraySorter {
     private final double[] scratch;
     private double[][] points = null;
+    private double[] flatPoints = null;
+    private double[][] columns = null;
+    private float[][] floatPoints = null;
+    private int flatDimension = -1;
     private int[] indices = null;
     private int coordinate = -1;
     private int maxCoordinate = -1;
 
+    // These are allocated when a range of at least RADIX_SORT_THRESHOLD values is sorted for the first time.
+    private long[] radixKeys = null;
+    private long[] radixKeysTemp = null;
+    private int[] radixIndicesTemp = null;
+    private int[] radixCounts = null;
+    // The counts of the parallel tasks, which are reused between the tasks and the calls.
+    private final ConcurrentLinkedDeque<int[]> parallelRadixCounts = new ConcurrentLinkedDeque<>();
+
     private static final int INDICES_BY_VALUES_INSERTION_THRESHOLD = 47;
     private static final int INDICES_BY_VALUES_INSERTION_THRESHOLD_ENTRY = 160;
 
     private static final int INSERTION_LEX_SORT_THRESHOLD = 42;
 
+    // Ranges smaller than this are sorted in the current thread even if a pool is given.
+    private static final int PARALLEL_LEX_SORT_THRESHOLD = 1 << 13;
+
+    // Ranges of at least this size are sorted by the LSD radix sort on the bit patterns of the values.
+    private static final int RADIX_SORT_THRESHOLD = 2048;
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+    private static final int RADIX_PASSES = 6;
+
     public ArraySorter(int maximumPoints) {
         this.scratch = new double[maximumPoints];
     }
@@ -66,16 +92,99 @@ public final class ArraySorter {
         }
     }
 
-    private void sortImpl(int from, int until) {
+    // Sorts the values in scratch along with the indices. The radix sort needs the counts,
+    // which must not be shared by the parallel tasks, and may be null only for ranges too small for it.
+    private void sortScratch(int from, int until, int[] counts) {
+        if (until - from >= RADIX_SORT_THRESHOLD) {
+            radixSort(from, until, counts);
+        } else {
+            sortImplInside(from, until);
+        }
+    }
+
+    private void radixSort(int from, int until, int[] counts) {
+        Arrays.fill(counts, 0);
+        long[] keys = radixKeys;
+        for (int i = from; i < until; ++i) {
+            // The keys compare as unsigned numbers in the same way as the values do.
+            // Adding zero turns -0.0 into 0.0, which are equal for the comparison sort as well.
+            long bits = Double.doubleToRawLongBits(scratch[i] + 0.0);
+            long key = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            keys[i] = key;
+            for (int pass = 0, shift = 0; pass < RADIX_PASSES; ++pass, shift += RADIX_BITS) {
+                ++counts[(pass << RADIX_BITS) + (int) ((key >>> shift) & RADIX_MASK)];
+            }
+        }
+        long[] sourceKeys = keys, targetKeys = radixKeysTemp;
+        int[] sourceIndices = indices, targetIndices = radixIndicesTemp;
+        for (int pass = 0, shift = 0; pass < RADIX_PASSES; ++pass, shift += RADIX_BITS) {
+            int base = pass << RADIX_BITS;
+            if (countsToPositions(counts, base, from, until - from)) {
+                for (int i = from; i < until; ++i) {
+                    long key = sourceKeys[i];
+                    int target = counts[base + (int) ((key >>> shift) & RADIX_MASK)]++;
+                    targetKeys[target] = key;
+                    targetIndices[target] = sourceIndices[i];
+                }
+                long[] tk = sourceKeys;
+                sourceKeys = targetKeys;
+                targetKeys = tk;
+                int[] ti = sourceIndices;
+                sourceIndices = targetIndices;
+                targetIndices = ti;
+            }
+        }
+        if (sourceIndices != indices) {
+            System.arraycopy(sourceIndices, from, indices, from, until - from);
+        }
         for (int i = from; i < until; ++i) {
-            scratch[i] = points[indices[i]][coordinate];
+            long key = sourceKeys[i];
+            scratch[i] = Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
         }
-        sortImplInside(from, until);
     }
 
-    private void lexSortImpl(int from, int until, int coordinate) {
-        this.coordinate = coordinate;
-        sortImpl(from, until);
+    // Returns false if all keys have the same digit, so the pass can be skipped.
+    private static boolean countsToPositions(int[] counts, int base, int from, int size) {
+        for (int digit = base, end = base + RADIX_MASK + 1, sum = from; digit < end; ++digit) {
+            int count = counts[digit];
+            if (count == size) {
+                return false;
+            }
+            counts[digit] = sum;
+            sum += count;
+        }
+        return true;
+    }
+
+    private void sortImpl(int from, int until) {
+        fillScratch(from, until, coordinate);
+        sortScratch(from, until, radixCounts);
+    }
+
+    private void fillScratch(int from, int until, int coordinate) {
+        if (points != null) {
+            for (int i = from; i < until; ++i) {
+                scratch[i] = points[indices[i]][coordinate];
+            }
+        } else if (flatPoints != null) {
+            for (int i = from; i < until; ++i) {
+                scratch[i] = flatPoints[indices[i] * flatDimension + coordinate];
+            }
+        } else if (floatPoints != null) {
+            for (int i = from; i < until; ++i) {
+                scratch[i] = floatPoints[indices[i]][coordinate];
+            }
+        } else {
+            double[] column = columns[coordinate];
+            for (int i = from; i < until; ++i) {
+                scratch[i] = column[indices[i]];
+            }
+        }
+    }
+
+    private void lexSortImpl(int from, int until, int coordinate, int[] counts) {
+        fillScratch(from, until, coordinate);
+        sortScratch(from, until, counts);
 
         if (coordinate + 1 < maxCoordinate) {
             int last = from;
@@ -84,36 +193,159 @@ public final class ArraySorter {
                 double currX = scratch[i];
                 if (currX != lastX) {
                     if (last + 1 < i) {
-                        lexSortImpl(last, i, coordinate + 1);
+                        lexSortImpl(last, i, coordinate + 1, counts);
                     }
                     last = i;
                     lastX = currX;
                 }
             }
             if (last + 1 < until) {
-                lexSortImpl(last, until, coordinate + 1);
+                lexSortImpl(last, until, coordinate + 1, counts);
             }
         }
     }
 
-    private void checkSize(int from, int until) {
+    private void lexSortImpl(int from, int until, ForkJoinPool pool) {
+        if (pool == null || until - from < PARALLEL_LEX_SORT_THRESHOLD) {
+            lexSortImpl(from, until, 0, radixCounts);
+        } else {
+            pool.invoke(parallelLexSort(from, until, 0));
+        }
+    }
+
+    // The tasks below work on disjoint ranges of scratch, indices and radix buffers, and only read the other fields.
+
+    private int[] acquireRadixCounts(int size) {
+        if (size < RADIX_SORT_THRESHOLD) {
+            return null;
+        }
+        int[] counts = parallelRadixCounts.poll();
+        return counts != null ? counts : new int[RADIX_PASSES << RADIX_BITS];
+    }
+
+    private void releaseRadixCounts(int[] counts) {
+        if (counts != null) {
+            parallelRadixCounts.push(counts);
+        }
+    }
+
+    private RecursiveAction parallelFill(final int from, final int until, final int coordinate) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (until - from < PARALLEL_LEX_SORT_THRESHOLD) {
+                    fillScratch(from, until, coordinate);
+                } else {
+                    int mid = (from + until) >>> 1;
+                    invokeAll(parallelFill(from, mid, coordinate), parallelFill(mid, until, coordinate));
+                }
+            }
+        };
+    }
+
+    private RecursiveAction parallelSort(final int from, final int until) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (until - from < PARALLEL_LEX_SORT_THRESHOLD) {
+                    int[] counts = acquireRadixCounts(until - from);
+                    sortScratch(from, until, counts);
+                    releaseRadixCounts(counts);
+                } else {
+                    long pack = split(scratch, indices, from, until);
+                    int l = (int) (pack);
+                    int r = (int) (pack >> 32);
+                    invokeAll(parallelSort(from, Math.max(from, r + 1)), parallelSort(Math.min(l, until), until));
+                }
+            }
+        };
+    }
+
+    private RecursiveAction parallelLexSort(final int from, final int until, final int coordinate) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (until - from < PARALLEL_LEX_SORT_THRESHOLD) {
+                    int[] counts = acquireRadixCounts(until - from);
+                    lexSortImpl(from, until, coordinate, counts);
+                    releaseRadixCounts(counts);
+                    return;
+                }
+                parallelFill(from, until, coordinate).invoke();
+                parallelSort(from, until).invoke();
+
+                if (coordinate + 1 < maxCoordinate) {
+                    // The large runs of equal values are forked first, then the small ones are sorted in this thread.
+                    // The forked tasks overwrite their parts of scratch, so the small runs are remembered beforehand.
+                    List<RecursiveAction> tasks = new ArrayList<>();
+                    int[] smallRuns = new int[16];
+                    int nSmallRuns = 0, maxSmallRun = 0;
+                    int last = from;
+                    double lastX = scratch[from];
+                    for (int i = from + 1; i <= until; ++i) {
+                        if (i == until || scratch[i] != lastX) {
+                            if (i - last >= PARALLEL_LEX_SORT_THRESHOLD) {
+                                RecursiveAction task = parallelLexSort(last, i, coordinate + 1);
+                                task.fork();
+                                tasks.add(task);
+                            } else if (last + 1 < i) {
+                                if (2 * nSmallRuns + 2 > smallRuns.length) {
+                                    smallRuns = Arrays.copyOf(smallRuns, 2 * smallRuns.length);
+                                }
+                                smallRuns[2 * nSmallRuns] = last;
+                                smallRuns[2 * nSmallRuns + 1] = i;
+                                ++nSmallRuns;
+                                maxSmallRun = Math.max(maxSmallRun, i - last);
+                            }
+                            if (i < until) {
+                                last = i;
+                                lastX = scratch[i];
+                            }
+                        }
+                    }
+                    int[] counts = acquireRadixCounts(maxSmallRun);
+                    for (int run = 0; run < nSmallRuns; ++run) {
+                        lexSortImpl(smallRuns[2 * run], smallRuns[2 * run + 1], coordinate + 1, counts);
+                    }
+                    releaseRadixCounts(counts);
+                    for (RecursiveAction task : tasks) {
+                        task.join();
+                    }
+                }
+            }
+        };
+    }
+
+    private void prepare(int from, int until) {
         if (until > scratch.length) {
             throw new IllegalArgumentException("The internal scratch array length is " + scratch.length
                     + ", but you requested from = " + from + " until = " + until + " which is " + (until - from));
         }
+        if (until - from >= RADIX_SORT_THRESHOLD && radixKeys == null) {
+            radixKeys = new long[scratch.length];
+            radixKeysTemp = new long[scratch.length];
+            radixIndicesTemp = new int[scratch.length];
+            radixCounts = new int[RADIX_PASSES << RADIX_BITS];
+        }
     }
 
     public void compressCoordinates(double[] original, int[] indices, int[] target, int from, int until) {
-        checkSize(from, until);
-
-        System.arraycopy(original, from, scratch, from, until - from);
-        for (int i = from; i < until; ++i) {
-            indices[i] = i;
+        sortForCompression(original, indices, from, until);
+        double prev = Double.NaN;
+        for (int i = from, x = -1; i < until; ++i) {
+            int ii = indices[i];
+            double curr = scratch[i];
+            if (prev != curr) {
+                prev = curr;
+                ++x;
+            }
+            target[ii] = x;
         }
-        this.indices = indices;
-        sortImplInside(from, until);
-        this.indices = null;
+    }
 
+    // The original values are copied to the scratch first, so the target may be the same array as the original.
+    public void compressCoordinates(double[] original, int[] indices, double[] target, int from, int until) {
+        sortForCompression(original, indices, from, until);
         double prev = Double.NaN;
         for (int i = from, x = -1; i < until; ++i) {
             int ii = indices[i];
@@ -126,8 +358,20 @@ public final class ArraySorter {
         }
     }
 
+    private void sortForCompression(double[] original, int[] indices, int from, int until) {
+        prepare(from, until);
+
+        System.arraycopy(original, from, scratch, from, until - from);
+        for (int i = from; i < until; ++i) {
+            indices[i] = i;
+        }
+        this.indices = indices;
+        sortScratch(from, until, radixCounts);
+        this.indices = null;
+    }
+
     public void sort(double[][] points, int[] indices, int from, int until, int whichCoordinate) {
-        checkSize(from, until);
+        prepare(from, until);
         this.points = points;
         this.indices = indices;
         this.coordinate = whichCoordinate;
@@ -140,18 +384,90 @@ public final class ArraySorter {
     }
 
     public void lexicographicalSort(double[][] points, int[] indices, int from, int until, int maxCoordinate) {
-        checkSize(from, until);
+        lexicographicalSort(points, indices, from, until, maxCoordinate, null);
+    }
+
+    public void lexicographicalSort(double[][] points, int[] indices, int from, int until, int maxCoordinate, ForkJoinPool pool) {
+        prepare(from, until);
         this.points = points;
         this.indices = indices;
         this.maxCoordinate = maxCoordinate;
 
-        lexSortImpl(from, until, 0);
+        lexSortImpl(from, until, pool);
 
         this.points = null;
         this.indices = null;
         this.maxCoordinate = -1;
     }
 
+    public void sort(double[] points, int dimension, int[] indices, int from, int until, int whichCoordinate) {
+        prepare(from, until);
+        this.flatPoints = points;
+        this.flatDimension = dimension;
+        this.indices = indices;
+        this.coordinate = whichCoordinate;
+
+        sortImpl(from, until);
+
+        this.flatPoints = null;
+        this.flatDimension = -1;
+        this.indices = null;
+        this.coordinate = -1;
+    }
+
+    public void lexicographicalSort(double[] points, int dimension, int[] indices, int from, int until, int maxCoordinate) {
+        lexicographicalSort(points, dimension, indices, from, until, maxCoordinate, null);
+    }
+
+    public void lexicographicalSort(double[] points, int dimension, int[] indices, int from, int until, int maxCoordinate, ForkJoinPool pool) {
+        prepare(from, until);
+        this.flatPoints = points;
+        this.flatDimension = dimension;
+        this.indices = indices;
+        this.maxCoordinate = maxCoordinate;
+
+        lexSortImpl(from, until, pool);
+
+        this.flatPoints = null;
+        this.flatDimension = -1;
+        this.indices = null;
+        this.maxCoordinate = -1;
+    }
+
+    public void lexicographicalSortByColumns(double[][] columns, int[] indices, int from, int until, int maxCoordinate) {
+        lexicographicalSortByColumns(columns, indices, from, until, maxCoordinate, null);
+    }
+
+    public void lexicographicalSortByColumns(double[][] columns, int[] indices, int from, int until, int maxCoordinate, ForkJoinPool pool) {
+        prepare(from, until);
+        this.columns = columns;
+        this.indices = indices;
+        this.maxCoordinate = maxCoordinate;
+
+        lexSortImpl(from, until, pool);
+
+        this.columns = null;
+        this.indices = null;
+        this.maxCoordinate = -1;
+    }
+
+    public void lexicographicalSort(float[][] points, int[] indices, int from, int until, int maxCoordinate) {
+        lexicographicalSort(points, indices, from, until, maxCoordinate, null);
+    }
+
+    public void lexicographicalSort(float[][] points, int[] indices, int from, int until, int maxCoordinate, ForkJoinPool pool) {
+        prepare(from, until);
+        this.floatPoints = points;
+        this.indices = indices;
+        this.maxCoordinate = maxCoordinate;
+
+        lexSortImpl(from, until, pool);
+
+        this.floatPoints = null;
+        this.indices = null;
+        this.maxCoordinate = -1;
+    }
+
     private void sortComparingByIndicesIfEqualImpl(int from, int until) {
         sortImpl(from, until);
 
@@ -175,7 +491,7 @@ public final class ArraySorter {
     }
 
     public void sortComparingByIndicesIfEqual(double[][] points, int[] indices, int from, int until, int coordinate) {
-        checkSize(from, until);
+        prepare(from, until);
 
         this.points = points;
         this.indices = indices;
@@ -209,6 +525,85 @@ public final class ArraySorter {
         return newN;
     }
 
+    public static int retainUniquePoints(double[] sourcePoints, int n, int dimension, int[] sortedIndices,
+                                         double[][] rowPool, double[][] targetPoints, int[] reindex) {
+        int newN = 1, lastP = 0;
+        int lastII = sortedIndices[0];
+        int lastOffset = lastII * dimension;
+        targetPoints[0] = ArrayHelper.copyToPooledRow(sourcePoints, lastOffset, dimension, rowPool, 0);
+        reindex[lastII] = lastP;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            int currOffset = currII * dimension;
+            if (!ArrayHelper.equal(sourcePoints, lastOffset, sourcePoints, currOffset, dimension)) {
+                targetPoints[newN] = ArrayHelper.copyToPooledRow(sourcePoints, currOffset, dimension, rowPool, newN);
+                lastOffset = currOffset;
+                lastP = newN;
+                ++newN;
+            }
+            reindex[currII] = lastP;
+        }
+        return newN;
+    }
+
+    private static boolean equalInColumns(double[][] columns, int a, int b) {
+        for (double[] column : columns) {
+            if (column[a] != column[b]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Unlike other versions, compacts sortedIndices in-place, such that its first elements
+    // become the original indices of the unique points.
+    public static int retainUniquePoints(double[][] columns, int n, int[] sortedIndices, int[] reindex) {
+        int newN = 1, lastP = 0;
+        int lastII = sortedIndices[0];
+        reindex[lastII] = lastP;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            if (!equalInColumns(columns, lastII, currII)) {
+                sortedIndices[newN] = currII;
+                lastII = currII;
+                lastP = newN;
+                ++newN;
+            }
+            reindex[currII] = lastP;
+        }
+        return newN;
+    }
+
+    private static boolean equal(float[] a, float[] b, int dim) {
+        for (int i = 0; i < dim; ++i) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same as for the columns, compacts sortedIndices in-place.
+    public static int retainUniquePoints(float[][] points, int n, int[] sortedIndices, int[] reindex) {
+        int newN = 1, lastP = 0;
+        int lastII = sortedIndices[0];
+        float[] lastPoint = points[lastII];
+        int dim = lastPoint.length;
+        reindex[lastII] = lastP;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            float[] currPoint = points[currII];
+            if (!equal(lastPoint, currPoint, dim)) {
+                sortedIndices[newN] = currII;
+                lastPoint = currPoint;
+                lastP = newN;
+                ++newN;
+            }
+            reindex[currII] = lastP;
+        }
+        return newN;
+    }
+
     private static long splitIndicesByRanks(int[] indices, int[] values, int from, int until) {
         int left = from, right = until - 1;
         int pivot = values[indices[(from + until) >>> 1]];
@@ -256,6 +651,53 @@ public final class ArraySorter {
         }
     }
 
+    // Sorts in place by counting if the values span at most the size of the range, and the bucket bounds fit
+    // into scratch[scratchFrom, scratchFrom + 2 * span + 1), otherwise returns false.
+    private static boolean countingSortIndicesByValues(int[] indices, int[] values, int from, int until,
+                                                       int[] scratch, int scratchFrom) {
+        int min = values[indices[from]], max = min;
+        for (int i = from + 1; i < until; ++i) {
+            int value = values[indices[i]];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if ((long) max - min >= until - from) {
+            return false;
+        }
+        int nBuckets = max - min + 1;
+        if ((long) scratchFrom + 2 * nBuckets + 1 > scratch.length) {
+            return false;
+        }
+        // The bucket starts are in scratch[starts, starts + nBuckets], the next free places in the following nBuckets.
+        int starts = scratchFrom, heads = scratchFrom + nBuckets + 1;
+        Arrays.fill(scratch, starts, heads, 0);
+        for (int i = from; i < until; ++i) {
+            ++scratch[starts + values[indices[i]] - min + 1];
+        }
+        scratch[starts] = from;
+        for (int b = 0; b < nBuckets; ++b) {
+            scratch[starts + b + 1] += scratch[starts + b];
+        }
+        System.arraycopy(scratch, starts, scratch, heads, nBuckets);
+        // Every index is swapped directly into the next free place of its bucket.
+        for (int b = 0; b < nBuckets; ++b) {
+            int end = scratch[starts + b + 1];
+            int head;
+            while ((head = scratch[heads + b]) < end) {
+                int index = indices[head];
+                int target = values[index] - min;
+                if (target == b) {
+                    scratch[heads + b] = head + 1;
+                } else {
+                    int targetHead = scratch[heads + target]++;
+                    indices[head] = indices[targetHead];
+                    indices[targetHead] = index;
+                }
+            }
+        }
+        return true;
+    }
+
     public static void sortIndicesByValues(int[] indices, int[] values, int from, int until) {
         if (from + INDICES_BY_VALUES_INSERTION_THRESHOLD_ENTRY > until) {
             insertionSortIndicesByValues(indices, values, from, until - 1);
@@ -263,4 +705,15 @@ public final class ArraySorter {
             sortIndicesByValuesImpl(indices, values, from, until);
         }
     }
+
+    // Same as above, but sorts by counting if the values span at most the size of the range.
+    // The counting sort uses scratch[scratchFrom, scratchFrom + 2 * (until - from) + 1) at most,
+    // if there is less space, the quicksort is used.
+    public static void sortIndicesByValues(int[] indices, int[] values, int from, int until, int[] scratch, int scratchFrom) {
+        if (from + INDICES_BY_VALUES_INSERTION_THRESHOLD_ENTRY > until) {
+            insertionSortIndicesByValues(indices, values, from, until - 1);
+        } else if (!countingSortIndicesByValues(indices, values, from, until, scratch, scratchFrom)) {
+            sortIndicesByValuesImpl(indices, values, from, until);
+        }
+    }
 }
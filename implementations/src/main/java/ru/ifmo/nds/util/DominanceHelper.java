@@ -27,6 +27,16 @@ public final class DominanceHelper {
         return true;
     }
 
+    public static boolean strictlyDominatesAssumingLexicographicallySmaller(double[] points, int goodOffset, int weakOffset, int maxObj) {
+        // Same as above, but the points are stored contiguously in a single row-major array.
+        for (int i = maxObj; i > 0; --i) {
+            if (points[goodOffset + i] > points[weakOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean strictlyDominatesAssumingNotEqual(double[] goodPoint, double[] weakPoint, int maxObj) {
         for (int i = maxObj; i >= 0; --i) {
             if (goodPoint[i] > weakPoint[i]) {
@@ -0,0 +1,288 @@
+package ru.ifmo.nds.util;
+
+/**
+ * This class contains one-versus-many dominance checks, which are the inner loops of many algorithms.
+ *
+ * There are two implementations. The scalar one checks the points one by one, objective by objective,
+ * and stops as soon as the answer is known. The blocked one processes up to {@link #BLOCK_SIZE} points at once,
+ * one objective at a time, and keeps the points which are still candidates in a compact list.
+ * The latter has no unpredictable branches in the innermost loop, which pays off in higher dimensions.
+ *
+ * The implementation returned by {@link #getDefault()} can be chosen at runtime
+ * using the system property {@code ru.ifmo.nds.dominanceKernel}, whose values are {@code "scalar"} and
+ * {@code "blocked"}. The default is the blocked implementation.
+ *
+ * An implementation on top of the incubating Vector API ({@code jdk.incubator.vector}) is out of scope.
+ * The API needs the incubator module to be added both when compiling and when running,
+ * which the build of this library does not do, and which would be imposed on every user of it.
+ */
+public abstract class DominanceKernel {
+    /**
+     * The maximum number of points processed at once by the blocked implementation.
+     */
+    public static final int BLOCK_SIZE = 64;
+
+    private static final DominanceKernel SCALAR = new Scalar();
+    private static final DominanceKernel BLOCKED = new Blocked();
+    private static final DominanceKernel DEFAULT = "scalar".equals(System.getProperty("ru.ifmo.nds.dominanceKernel"))
+            ? SCALAR : BLOCKED;
+
+    DominanceKernel() {}
+
+    /**
+     * Returns the scalar implementation.
+     * @return the scalar implementation.
+     */
+    public static DominanceKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns the blocked implementation.
+     * @return the blocked implementation.
+     */
+    public static DominanceKernel blocked() {
+        return BLOCKED;
+    }
+
+    /**
+     * Returns the implementation chosen by the system property {@code ru.ifmo.nds.dominanceKernel}.
+     * @return the default implementation.
+     */
+    public static DominanceKernel getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the name of the implementation.
+     * @return the name of the implementation.
+     */
+    public abstract String getName();
+
+    /**
+     * Finds the points with indices {@code indices[from]}, ..., {@code indices[until - 1]},
+     * which are strictly dominated by the given point, assuming it is lexicographically smaller than all of them.
+     *
+     * The positions {@code i} of such points, in increasing order, are written to {@code output}
+     * starting at {@code outputFrom}. The output array is also used as scratch space,
+     * so it shall have {@code until - from} elements starting at {@code outputFrom}.
+     *
+     * @param good the point to test.
+     * @param points the points, one per row.
+     * @param transposedPoints the same points, one per objective.
+     * @param indices the indices of the points to test against.
+     * @param from the minimum inclusive position in {@code indices}.
+     * @param until the maximum exclusive position in {@code indices}.
+     * @param maxObj the maximum objective to compare.
+     * @param output the array to write the positions of the dominated points.
+     * @param outputFrom the first position in {@code output} to use.
+     * @return the number of the dominated points.
+     */
+    public abstract int findDominatedAssumingLexicographicallySmaller(
+            double[] good, double[][] points, double[][] transposedPoints,
+            int[] indices, int from, int until, int maxObj, int[] output, int outputFrom);
+
+    /**
+     * Retains those of the positions {@code positions[positionsFrom]}, ..., {@code positions[positionsUntil - 1]},
+     * whose points {@code indices[position]} are strictly dominated by the given point,
+     * assuming it is lexicographically smaller than all of them.
+     * The retained positions are moved to the beginning of the range, keeping their order.
+     *
+     * @param good the point to test.
+     * @param points the points, one per row.
+     * @param transposedPoints the same points, one per objective.
+     * @param indices the indices of the points.
+     * @param positions the positions in {@code indices} of the points to test against.
+     * @param positionsFrom the minimum inclusive index in {@code positions}.
+     * @param positionsUntil the maximum exclusive index in {@code positions}.
+     * @param maxObj the maximum objective to compare.
+     * @return the number of the dominated points.
+     */
+    public abstract int retainDominatedAssumingLexicographicallySmaller(
+            double[] good, double[][] points, double[][] transposedPoints,
+            int[] indices, int[] positions, int positionsFrom, int positionsUntil, int maxObj);
+
+    /**
+     * Tests whether any of the points with indices {@code candidates[0]}, ..., {@code candidates[count - 1]}
+     * strictly dominates the given point, assuming they all are lexicographically smaller than it.
+     * The contents of {@code candidates} may be changed.
+     *
+     * @param points the points, one per row.
+     * @param candidates the indices of the points which may dominate the given point.
+     * @param count the number of the candidates.
+     * @param weak the point to test.
+     * @param maxObj the maximum objective to compare.
+     * @return {@code true} if one of the candidates dominates the point, {@code false} otherwise.
+     */
+    public abstract boolean anyDominatesAssumingLexicographicallySmaller(
+            double[][] points, int[] candidates, int count, double[] weak, int maxObj);
+
+    /**
+     * The same as {@link #anyDominatesAssumingLexicographicallySmaller(double[][], int[], int, double[], int)},
+     * but the points are stored in a single row-major array.
+     *
+     * @param points the points, {@code dim} values per point.
+     * @param dim the number of values per point.
+     * @param candidates the indices of the points which may dominate the given point.
+     * @param count the number of the candidates.
+     * @param weakOffset the offset of the point to test in {@code points}.
+     * @param maxObj the maximum objective to compare.
+     * @return {@code true} if one of the candidates dominates the point, {@code false} otherwise.
+     */
+    public abstract boolean anyDominatesAssumingLexicographicallySmaller(
+            double[] points, int dim, int[] candidates, int count, int weakOffset, int maxObj);
+
+    private static final class Scalar extends DominanceKernel {
+        @Override
+        public String getName() {
+            return "scalar";
+        }
+
+        @Override
+        public int findDominatedAssumingLexicographicallySmaller(
+                double[] good, double[][] points, double[][] transposedPoints,
+                int[] indices, int from, int until, int maxObj, int[] output, int outputFrom) {
+            int count = outputFrom;
+            for (int i = from; i < until; ++i) {
+                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(good, points[indices[i]], maxObj)) {
+                    output[count] = i;
+                    ++count;
+                }
+            }
+            return count - outputFrom;
+        }
+
+        @Override
+        public int retainDominatedAssumingLexicographicallySmaller(
+                double[] good, double[][] points, double[][] transposedPoints,
+                int[] indices, int[] positions, int positionsFrom, int positionsUntil, int maxObj) {
+            int count = positionsFrom;
+            for (int k = positionsFrom; k < positionsUntil; ++k) {
+                int position = positions[k];
+                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(good, points[indices[position]], maxObj)) {
+                    positions[count] = position;
+                    ++count;
+                }
+            }
+            return count - positionsFrom;
+        }
+
+        @Override
+        public boolean anyDominatesAssumingLexicographicallySmaller(
+                double[][] points, int[] candidates, int count, double[] weak, int maxObj) {
+            for (int i = 0; i < count; ++i) {
+                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[candidates[i]], weak, maxObj)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean anyDominatesAssumingLexicographicallySmaller(
+                double[] points, int dim, int[] candidates, int count, int weakOffset, int maxObj) {
+            for (int i = 0; i < count; ++i) {
+                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points, candidates[i] * dim, weakOffset, maxObj)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Blocked extends DominanceKernel {
+        @Override
+        public String getName() {
+            return "blocked";
+        }
+
+        @Override
+        public int findDominatedAssumingLexicographicallySmaller(
+                double[] good, double[][] points, double[][] transposedPoints,
+                int[] indices, int from, int until, int maxObj, int[] output, int outputFrom) {
+            int count = outputFrom;
+            for (int blockFrom = from; blockFrom < until; blockFrom += BLOCK_SIZE) {
+                int blockUntil = Math.min(until, blockFrom + BLOCK_SIZE);
+                int alive = count;
+                for (int i = blockFrom; i < blockUntil; ++i) {
+                    output[alive] = i;
+                    ++alive;
+                }
+                for (int obj = maxObj; obj > 0 && alive > count; --obj) {
+                    double goodValue = good[obj];
+                    double[] column = transposedPoints[obj];
+                    int newAlive = count;
+                    for (int k = count; k < alive; ++k) {
+                        int position = output[k];
+                        output[newAlive] = position;
+                        newAlive += goodValue <= column[indices[position]] ? 1 : 0;
+                    }
+                    alive = newAlive;
+                }
+                count = alive;
+            }
+            return count - outputFrom;
+        }
+
+        @Override
+        public int retainDominatedAssumingLexicographicallySmaller(
+                double[] good, double[][] points, double[][] transposedPoints,
+                int[] indices, int[] positions, int positionsFrom, int positionsUntil, int maxObj) {
+            int count = positionsFrom;
+            for (int blockFrom = positionsFrom; blockFrom < positionsUntil; blockFrom += BLOCK_SIZE) {
+                int blockUntil = Math.min(positionsUntil, blockFrom + BLOCK_SIZE);
+                // The retained positions never overtake the ones being read, so the block moves in place.
+                int alive = count;
+                for (int k = blockFrom; k < blockUntil; ++k) {
+                    positions[alive] = positions[k];
+                    ++alive;
+                }
+                for (int obj = maxObj; obj > 0 && alive > count; --obj) {
+                    double goodValue = good[obj];
+                    double[] column = transposedPoints[obj];
+                    int newAlive = count;
+                    for (int k = count; k < alive; ++k) {
+                        int position = positions[k];
+                        positions[newAlive] = position;
+                        newAlive += goodValue <= column[indices[position]] ? 1 : 0;
+                    }
+                    alive = newAlive;
+                }
+                count = alive;
+            }
+            return count - positionsFrom;
+        }
+
+        @Override
+        public boolean anyDominatesAssumingLexicographicallySmaller(
+                double[][] points, int[] candidates, int count, double[] weak, int maxObj) {
+            for (int obj = maxObj; obj > 0 && count > 0; --obj) {
+                double weakValue = weak[obj];
+                int newCount = 0;
+                for (int k = 0; k < count; ++k) {
+                    int candidate = candidates[k];
+                    candidates[newCount] = candidate;
+                    newCount += points[candidate][obj] <= weakValue ? 1 : 0;
+                }
+                count = newCount;
+            }
+            return count > 0;
+        }
+
+        @Override
+        public boolean anyDominatesAssumingLexicographicallySmaller(
+                double[] points, int dim, int[] candidates, int count, int weakOffset, int maxObj) {
+            for (int obj = maxObj; obj > 0 && count > 0; --obj) {
+                double weakValue = points[weakOffset + obj];
+                int newCount = 0;
+                for (int k = 0; k < count; ++k) {
+                    int candidate = candidates[k];
+                    candidates[newCount] = candidate;
+                    newCount += points[candidate * dim + obj] <= weakValue ? 1 : 0;
+                }
+                count = newCount;
+            }
+            return count > 0;
+        }
+    }
+}
@@ -5,10 +5,12 @@ import java.util.Arrays;
 public final class FenwickRankQueryStructureDouble extends RankQueryStructureDouble {
     private final double[] keys;
     private final int[] values;
+    private final RangeHandleImpl[] handles;
 
     public FenwickRankQueryStructureDouble(int maximumSize) {
         keys = new double[maximumSize];
         values = new int[maximumSize];
+        handles = new RangeHandleImpl[maximumSize + 1];
     }
 
     @Override
@@ -28,15 +30,25 @@ public final class FenwickRankQueryStructureDouble extends RankQueryStructureDou
 
     @Override
     public RangeHandle createHandle(int storageStart, int from, int until, int[] indices, double[] keys) {
-        return new RangeHandleImpl(storageStart, from, until, indices, keys);
+        // Handles with the same storage start are never used at the same time, so they can be cached.
+        RangeHandleImpl handle = handles[storageStart];
+        if (handle == null) {
+            handles[storageStart] = handle = new RangeHandleImpl(storageStart);
+        }
+        handle.initialize(from, until, indices, keys);
+        return handle;
     }
 
     private final class RangeHandleImpl extends RangeHandle {
-        private final int size;
         private final int offset;
+        private int size;
 
-        private RangeHandleImpl(int storageStart, int from, int until, int[] indices, double[] k) {
+        private RangeHandleImpl(int storageStart) {
             this.offset = storageStart;
+        }
+
+        private void initialize(int from, int until, int[] indices, double[] k) {
+            int storageStart = offset;
             for (int i = from, j = offset; i < until; ++i, ++j) {
                 keys[j] = k[indices[i]];
             }
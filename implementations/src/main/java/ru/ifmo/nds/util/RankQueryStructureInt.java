@@ -35,6 +35,22 @@ public abstract class RankQueryStructureInt {
      */
     public abstract RangeHandle createHandle(int storageStart, int from, int until, int[] indices, int[] keys);
 
+    /**
+     * Tells that the given handle, which was returned by {@link #createHandle(int, int, int, int[], int[])},
+     * and all handles returned by its operations will not be used anymore, so their memory may be reused.
+     *
+     * The default implementation does nothing.
+     *
+     * @param handle the handle which will not be used anymore.
+     */
+    public void releaseHandle(RangeHandle handle) {}
+
+    /**
+     * Frees the memory kept for reuse by the released handles. This is called when the owner of this data structure
+     * is closed. The default implementation does nothing.
+     */
+    public void releaseHandles() {}
+
     public abstract static class RangeHandle {
         /**
          * Puts a value for the given key.
@@ -0,0 +1,61 @@
+package ru.ifmo.nds.util;
+
+import java.util.Arrays;
+
+/**
+ * This class is used by algorithms which assign final ranks to points one by one,
+ * when only the first fronts containing at least the required number of points are needed.
+ *
+ * The tracker counts the points with final ranks in every front. As soon as the first {@code k} fronts
+ * are known to contain enough points, all ranks starting from {@code k} become meaningless,
+ * so the tracker lowers the maximal meaningful rank to {@code k - 1}.
+ * Since the fronts only grow, the maximal meaningful rank never increases.
+ */
+public final class RequiredCountTracker {
+    private final int[] counts;
+    private int requiredCount;
+    private int bound;
+    private int sum;
+
+    public RequiredCountTracker(int maximumPoints) {
+        counts = new int[maximumPoints + 1];
+    }
+
+    /**
+     * Prepares the tracker for a new run.
+     * @param requiredCount the required number of points in the first fronts.
+     * @param maximalMeaningfulRank the initial maximal meaningful rank, which must not exceed the maximum number of points.
+     */
+    public void reset(int requiredCount, int maximalMeaningfulRank) {
+        this.requiredCount = requiredCount;
+        this.bound = maximalMeaningfulRank + 1;
+        this.sum = 0;
+        Arrays.fill(counts, 0, bound, 0);
+    }
+
+    /**
+     * Records that the given number of points has the given final rank.
+     * @param rank the rank of the points.
+     * @param count the number of the points.
+     * @return the new maximal meaningful rank.
+     */
+    public int add(int rank, int count) {
+        if (rank < bound) {
+            counts[rank] += count;
+            sum += count;
+            while (bound > 1 && sum - counts[bound - 1] >= requiredCount) {
+                --bound;
+                sum -= counts[bound];
+            }
+        }
+        return bound - 1;
+    }
+
+    /**
+     * Returns the current maximal meaningful rank.
+     * @return the current maximal meaningful rank.
+     */
+    public int getMaximalMeaningfulRank() {
+        return bound - 1;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.ifmo.nds.util;
+
+import java.util.Random;
+
+/**
+ * This class performs non-dominated sorting of three-dimensional points in {@code O(n log n log k)} expected time,
+ * where {@code k} is the number of fronts.
+ *
+ * The points are processed in the lexicographical order, so every point can only be dominated by the points
+ * processed before it, and exactly by those which are not greater in the second and the third objectives.
+ * For every front, the projections of its points onto these two objectives are kept as a staircase,
+ * that is, only the projections which are not dominated by other projections from the same front.
+ * If a point is dominated by a point from some front, it is also dominated by a point from every previous front,
+ * so the rank of a point is found by binary search over the fronts.
+ *
+ * The staircases are treaps ordered by the second objective, in which the third objective decreases.
+ * The nodes of the treaps are the points themselves, so all the memory is allocated in advance.
+ */
+public final class ThreeDimensionalSweep {
+    private static final int NONE = -1;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] priorities;
+    private final int[] roots;
+
+    private double[] ys;
+    private double[] zs;
+    private int splitRight;
+
+    public ThreeDimensionalSweep(int maximumPoints) {
+        left = new int[maximumPoints];
+        right = new int[maximumPoints];
+        priorities = new int[maximumPoints];
+        roots = new int[maximumPoints];
+        Random random = new Random(maximumPoints);
+        for (int i = 0; i < maximumPoints; ++i) {
+            priorities[i] = random.nextInt();
+        }
+    }
+
+    /**
+     * Assigns the ranks to the given points.
+     *
+     * The points are given by their second and third objectives, and must be distinct
+     * and sorted lexicographically. Only the first objective is thus not needed.
+     * The ranks which exceed the maximal meaningful rank are replaced by the maximal meaningful rank plus one.
+     *
+     * @param ys the second objectives of the points.
+     * @param zs the third objectives of the points.
+     * @param n the number of points.
+     * @param ranks the array to store the ranks.
+     * @param maximalMeaningfulRank the maximal meaningful rank.
+     */
+    public void sort(double[] ys, double[] zs, int n, int[] ranks, int maximalMeaningfulRank) {
+        this.ys = ys;
+        this.zs = zs;
+        int nFronts = 0;
+        for (int i = 0; i < n; ++i) {
+            double y = ys[i], z = zs[i];
+            int rank;
+            if (nFronts == 0 || isDominatedBy(roots[nFronts - 1], y, z)) {
+                rank = nFronts;
+            } else {
+                int lo = -1, hi = nFronts - 1;
+                while (hi - lo > 1) {
+                    int mid = (lo + hi) >>> 1;
+                    if (isDominatedBy(roots[mid], y, z)) {
+                        lo = mid;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                rank = hi;
+            }
+            if (rank > maximalMeaningfulRank) {
+                ranks[i] = maximalMeaningfulRank + 1;
+            } else {
+                ranks[i] = rank;
+                if (rank == nFronts) {
+                    roots[nFronts++] = NONE;
+                }
+                roots[rank] = insert(roots[rank], i, y, z);
+            }
+        }
+        this.ys = null;
+        this.zs = null;
+    }
+
+    private boolean isDominatedBy(int node, double y, double z) {
+        while (node != NONE) {
+            if (ys[node] <= y) {
+                if (zs[node] <= z) {
+                    return true;
+                }
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return false;
+    }
+
+    // The point is not dominated by the staircase, but it may dominate some of its points.
+    // These points follow the place of the new one, and they are removed.
+    private int insert(int root, int point, double y, double z) {
+        left[point] = NONE;
+        right[point] = NONE;
+        int smaller = splitBySecond(root, y);
+        splitByThird(splitRight, z);
+        return merge(merge(smaller, point), splitRight);
+    }
+
+    // Returns the treap with the points whose second objective is less than y, the rest goes to splitRight.
+    private int splitBySecond(int node, double y) {
+        if (node == NONE) {
+            splitRight = NONE;
+            return NONE;
+        }
+        if (ys[node] < y) {
+            right[node] = splitBySecond(right[node], y);
+            return node;
+        } else {
+            int smaller = splitBySecond(left[node], y);
+            left[node] = splitRight;
+            splitRight = node;
+            return smaller;
+        }
+    }
+
+    // Returns the treap with the points whose third objective is not less than z, the rest goes to splitRight.
+    private int splitByThird(int node, double z) {
+        if (node == NONE) {
+            splitRight = NONE;
+            return NONE;
+        }
+        if (zs[node] >= z) {
+            right[node] = splitByThird(right[node], z);
+            return node;
+        } else {
+            int smaller = splitByThird(left[node], z);
+            left[node] = splitRight;
+            splitRight = node;
+            return smaller;
+        }
+    }
+
+    private int merge(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        if (priorities[a] > priorities[b]) {
+            right[a] = merge(right[a], b);
+            return a;
+        } else {
+            left[b] = merge(a, left[b]);
+            return b;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ru.ifmo.nds.util;
+
+import java.util.Random;
+
+/**
+ * This is an implementation of the rank query structure using a treap,
+ * whose nodes are stored in primitive arrays instead of objects.
+ *
+ * The treap stores only the points which are not dominated in the key-value sense,
+ * so the values increase together with the keys. A handle uses the nodes starting from its storage start,
+ * and the removed nodes are reused, so the handle never needs more nodes than the number of different keys.
+ * The handles are cached by their storage start, so creating a handle does not allocate memory,
+ * except for the first time a certain storage start is used.
+ */
+public final class TreapRankQueryStructure extends RankQueryStructureDouble {
+    private final double[] keys;
+    private final int[] values;
+    private final int[] priorities;
+    private final int[] left;
+    private final int[] right;
+    private final RangeHandleImpl[] handles;
+
+    public TreapRankQueryStructure(int maximumPoints) {
+        keys = new double[maximumPoints];
+        values = new int[maximumPoints];
+        priorities = new int[maximumPoints];
+        left = new int[maximumPoints];
+        right = new int[maximumPoints];
+        handles = new RangeHandleImpl[maximumPoints + 1];
+
+        Random random = new Random(maximumPoints * 9234523L + 1);
+        for (int i = 0; i < maximumPoints; ++i) {
+            priorities[i] = random.nextInt();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Treap on arrays";
+    }
+
+    @Override
+    public int maximumPoints() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean supportsMultipleThreads() {
+        return true;
+    }
+
+    @Override
+    public RangeHandle createHandle(int storageStart, int from, int until, int[] indices, double[] keys) {
+        RangeHandleImpl handle = handles[storageStart];
+        if (handle == null) {
+            handles[storageStart] = handle = new RangeHandleImpl(storageStart);
+        }
+        handle.clear();
+        return handle;
+    }
+
+    private final class RangeHandleImpl extends RangeHandle {
+        private final int offset;
+        private int root;
+        private int nextFree;
+        private int freeHead;
+
+        // The results of a split. As handles do not share storage, this is safe to have these as fields.
+        private int splitLeft, splitRight;
+
+        private RangeHandleImpl(int storageStart) {
+            this.offset = storageStart;
+        }
+
+        private void clear() {
+            root = -1;
+            nextFree = offset;
+            freeHead = -1;
+        }
+
+        @Override
+        public RangeHandle put(double key, int value) {
+            if (getMaximumWithKeyAtMost(key, value) < value) {
+                // The nodes with keys not smaller than the new one, and with values not greater than the new one,
+                // form a contiguous range which is to be removed.
+                splitByKey(root, key);
+                int smaller = splitLeft;
+                splitByValue(splitRight, value);
+                int greater = splitRight;
+                release(splitLeft);
+
+                int node;
+                if (freeHead != -1) {
+                    node = freeHead;
+                    freeHead = left[node];
+                } else {
+                    node = nextFree++;
+                }
+                keys[node] = key;
+                values[node] = value;
+                left[node] = -1;
+                right[node] = -1;
+                root = merge(merge(smaller, node), greater);
+            }
+            return this;
+        }
+
+        @Override
+        public int getMaximumWithKeyAtMost(double key, int minimumMeaningfulAnswer) {
+            int node = root;
+            int result = -1;
+            while (node != -1) {
+                if (keys[node] <= key) {
+                    result = values[node];
+                    node = right[node];
+                } else {
+                    node = left[node];
+                }
+            }
+            return result;
+        }
+
+        // Splits the subtree into the nodes with keys smaller than the given key and all other nodes.
+        private void splitByKey(int node, double key) {
+            if (node == -1) {
+                splitLeft = splitRight = -1;
+            } else if (keys[node] < key) {
+                splitByKey(right[node], key);
+                right[node] = splitLeft;
+                splitLeft = node;
+            } else {
+                splitByKey(left[node], key);
+                left[node] = splitRight;
+                splitRight = node;
+            }
+        }
+
+        // Splits the subtree into the nodes with values not greater than the given value and all other nodes.
+        private void splitByValue(int node, int value) {
+            if (node == -1) {
+                splitLeft = splitRight = -1;
+            } else if (values[node] <= value) {
+                splitByValue(right[node], value);
+                right[node] = splitLeft;
+                splitLeft = node;
+            } else {
+                splitByValue(left[node], value);
+                left[node] = splitRight;
+                splitRight = node;
+            }
+        }
+
+        // Puts all nodes of the subtree to the list of free nodes, which is linked using the left children.
+        private void release(int node) {
+            if (node != -1) {
+                release(left[node]);
+                release(right[node]);
+                left[node] = freeHead;
+                freeHead = node;
+            }
+        }
+
+        private int merge(int l, int r) {
+            if (l == -1) {
+                return r;
+            }
+            if (r == -1) {
+                return l;
+            }
+            if (priorities[l] > priorities[r]) {
+                right[l] = merge(right[l], r);
+                return l;
+            } else {
+                left[r] = merge(l, left[r]);
+                return r;
+            }
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package ru.ifmo.nds.util;
 
+import java.util.concurrent.ConcurrentLinkedDeque;
+
 import ru.ifmo.nds.util.veb.VanEmdeBoasSet;
 
+/**
+ * This is an implementation of the rank query structure using a van Emde Boas tree over the compressed keys.
+ *
+ * The keys of a single handle span the whole range of points, so the handles cannot be partitioned by storage start.
+ * Instead, the released handles are kept in a pool, and a new handle is created only if the pool is empty.
+ * As a sweep never waits for other tasks, there are at most as many handles as there are threads running sweeps.
+ * The pool is emptied by {@link #releaseHandles()}.
+ */
 public final class VanEmdeBoasRankQueryStructureInt extends RankQueryStructureInt {
-    private final EmptyOrSingleHandle smallHandle;
+    private final int maximumPoints;
+    private final ConcurrentLinkedDeque<EmptyOrSingleHandle> handles = new ConcurrentLinkedDeque<>();
 
     public VanEmdeBoasRankQueryStructureInt(int maximumPoints) {
-        VanEmdeBoasRangeHandle bigHandle = new VanEmdeBoasRangeHandle(maximumPoints);
-        smallHandle = new EmptyOrSingleHandle(bigHandle);
+        this.maximumPoints = maximumPoints;
     }
 
     @Override
@@ -17,18 +27,33 @@ public final class VanEmdeBoasRankQueryStructureInt extends RankQueryStructureIn
 
     @Override
     public int maximumPoints() {
-        return smallHandle.forTwoOrMore.values.length;
+        return maximumPoints;
     }
 
     @Override
     public boolean supportsMultipleThreads() {
-        return false;
+        return true;
     }
 
     @Override
     public RangeHandle createHandle(int storageStart, int from, int until, int[] indices, int[] keys) {
-        smallHandle.clear();
-        return smallHandle;
+        EmptyOrSingleHandle handle = handles.pollFirst();
+        if (handle == null) {
+            handle = new EmptyOrSingleHandle(new VanEmdeBoasRangeHandle(maximumPoints));
+        } else {
+            handle.clear();
+        }
+        return handle;
+    }
+
+    @Override
+    public void releaseHandle(RangeHandle handle) {
+        handles.offerFirst((EmptyOrSingleHandle) handle);
+    }
+
+    @Override
+    public void releaseHandles() {
+        handles.clear();
     }
 
     private static final class EmptyOrSingleHandle extends RangeHandle {
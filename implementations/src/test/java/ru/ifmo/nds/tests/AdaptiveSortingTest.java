@@ -0,0 +1,33 @@
+package ru.ifmo.nds.tests;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+import ru.ifmo.nds.AdaptiveNonDominatedSortingFactory;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.adaptive.DecisionTable;
+
+public class AdaptiveSortingTest extends CorrectnessTestsBase {
+    private static final String TABLE = String.join("\n",
+            "# dimension, points, fronts, algorithm ID",
+            "2 10 * ens.bs",
+            "2 1000 1 jfb.rbtree.hybrid.ens",
+            "2 1000 1000 bos.improved",
+            "3 10 * corner",
+            "3 1000 10 ens.ndt.8",
+            "3 1000 500 jfb.veb.hybrid.ens",
+            "5 100 * deductive",
+            "5 1000 1 fnds.linear",
+            "5 1000 1000 jfb.rankspace.hybrid.ens",
+            "10 100 * filter");
+
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        try {
+            return new AdaptiveNonDominatedSortingFactory(DecisionTable.read(new StringReader(TABLE)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.ifmo.nds.tests;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import org.junit.Assert;
@@ -75,4 +76,157 @@ public class ArraySorterTests {
             }
         }
     }
+
+    private void checkParallelLexicographicalSort(int size, int dim, int domain) {
+        Random random = new Random(size * 31L + dim * 7L + domain);
+        double[][] points = new double[size][dim];
+        double[] flat = new double[size * dim];
+        double[][] columns = new double[dim][size];
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < dim; ++j) {
+                // Small domains in the first coordinates give long runs of ties, which are sorted in parallel too.
+                double value = j < 2 ? random.nextInt(domain) : random.nextDouble();
+                points[i][j] = value;
+                flat[i * dim + j] = value;
+                columns[j][i] = value;
+            }
+        }
+        ArraySorter sorter = new ArraySorter(size);
+        int[] expected = new int[size];
+        for (int i = 0; i < size; ++i) {
+            expected[i] = i;
+        }
+        sorter.lexicographicalSort(points, expected, 0, size, dim);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] found = new int[size];
+            for (int variant = 0; variant < 3; ++variant) {
+                for (int i = 0; i < size; ++i) {
+                    found[i] = i;
+                }
+                switch (variant) {
+                    case 0: sorter.lexicographicalSort(points, found, 0, size, dim, pool); break;
+                    case 1: sorter.lexicographicalSort(flat, dim, found, 0, size, dim, pool); break;
+                    default: sorter.lexicographicalSortByColumns(columns, found, 0, size, dim, pool); break;
+                }
+                // The indices of equal points may come in any order, so the points are compared instead.
+                for (int i = 0; i < size; ++i) {
+                    Assert.assertTrue(Arrays.equals(points[expected[i]], points[found[i]]));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelLexicographicalSortDistinct() {
+        checkParallelLexicographicalSort(100000, 3, 1000000);
+    }
+
+    @Test
+    public void parallelLexicographicalSortManyTies() {
+        checkParallelLexicographicalSort(100000, 4, 3);
+    }
+
+    @Test
+    public void parallelLexicographicalSortSmall() {
+        checkParallelLexicographicalSort(1000, 2, 10);
+    }
+    private void checkLargeSort(int size, Function<Random, Double> generator) {
+        Random random = new Random(size);
+        double[][] points = new double[size][1];
+        double[] values = new double[size];
+        for (int i = 0; i < size; ++i) {
+            values[i] = points[i][0] = generator.apply(random);
+        }
+        ArraySorter sorter = new ArraySorter(size);
+        int[] indices = new int[size];
+        for (int i = 0; i < size; ++i) {
+            indices[i] = i;
+        }
+        sorter.sortComparingByIndicesIfEqual(points, indices, 0, size, 0);
+        boolean[] seen = new boolean[size];
+        for (int i = 0; i < size; ++i) {
+            Assert.assertFalse(seen[indices[i]]);
+            seen[indices[i]] = true;
+            if (i > 0) {
+                double prev = values[indices[i - 1]], curr = values[indices[i]];
+                Assert.assertTrue(prev < curr || prev == curr && indices[i - 1] < indices[i]);
+            }
+        }
+
+        int[] compressed = new int[size];
+        sorter.compressCoordinates(values, indices, compressed, 0, size);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 0, x = 0; i < size; ++i) {
+            if (i > 0 && sorted[i - 1] != sorted[i]) {
+                ++x;
+            }
+            Assert.assertEquals(x, compressed[indices[i]]);
+            Assert.assertTrue(sorted[i] == values[indices[i]]);
+        }
+    }
+
+    @Test
+    public void largeSortRandomSequences() {
+        checkLargeSort(100000, random -> random.nextGaussian() * 1e6);
+    }
+
+    @Test
+    public void largeSortSmallDomainSequences() {
+        checkLargeSort(5000, random -> (double) (random.nextInt(20) - 10));
+    }
+
+    @Test
+    public void largeSortSpecialValues() {
+        double[] special = { -0.0, 0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1, -1 };
+        checkLargeSort(3000, random -> special[random.nextInt(special.length)]);
+    }
+
+    private void checkSortIndicesByValues(int size, int domain) {
+        checkSortIndicesByValues(size, domain, null);
+        checkSortIndicesByValues(size, domain, new int[2 * size + 4]);
+    }
+
+    private void checkSortIndicesByValues(int size, int domain, int[] scratch) {
+        Random random = new Random(size * 17L + domain);
+        int[] values = new int[size + 5];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = random.nextInt(domain) - domain / 2;
+        }
+        int[] indices = new int[size];
+        for (int i = 0; i < size; ++i) {
+            indices[i] = 5 + random.nextInt(size);
+        }
+        int[] expected = indices.clone();
+        Arrays.sort(expected);
+        if (scratch == null) {
+            ArraySorter.sortIndicesByValues(indices, values, 0, size);
+        } else {
+            ArraySorter.sortIndicesByValues(indices, values, 0, size, scratch, 3);
+        }
+        int[] found = indices.clone();
+        Arrays.sort(found);
+        Assert.assertArrayEquals(expected, found);
+        for (int i = 1; i < size; ++i) {
+            Assert.assertTrue(values[indices[i - 1]] <= values[indices[i]]);
+        }
+    }
+
+    @Test
+    public void sortIndicesByValuesSmallRange() {
+        checkSortIndicesByValues(1000, 100);
+        checkSortIndicesByValues(1000, 1000);
+        checkSortIndicesByValues(100000, 3);
+    }
+
+    @Test
+    public void sortIndicesByValuesLargeRange() {
+        checkSortIndicesByValues(1000, 1000000);
+        checkSortIndicesByValues(100000, Integer.MAX_VALUE);
+    }
 }
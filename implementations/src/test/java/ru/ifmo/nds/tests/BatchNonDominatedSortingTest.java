@@ -0,0 +1,102 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.BatchNonDominatedSorting;
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.jfb.JFBExecutionPolicy;
+
+public class BatchNonDominatedSortingTest {
+    private void randomCheck(NonDominatedSortingFactory factory, int allowedThreads, int maximalMeaningfulRank) {
+        try (BatchNonDominatedSorting batch = new BatchNonDominatedSorting(factory, allowedThreads)) {
+            randomCheck(batch, 823547235L + allowedThreads, maximalMeaningfulRank);
+        }
+    }
+
+    private void randomCheck(BatchNonDominatedSorting batch, long seed, int maximalMeaningfulRank) {
+        Random random = new Random(seed);
+        int nPopulations = 150;
+        double[][][] populations = new double[nPopulations][][];
+        int[][] expected = new int[nPopulations][];
+        int[][] actual = new int[nPopulations][];
+        for (int i = 0; i < nPopulations; ++i) {
+            int n = random.nextInt(200);
+            int d = 1 + random.nextInt(6);
+            populations[i] = new double[n][d];
+            for (double[] point : populations[i]) {
+                for (int j = 0; j < d; ++j) {
+                    point[j] = random.nextInt(10);
+                }
+            }
+            expected[i] = new int[n];
+            actual[i] = new int[n];
+            if (n > 0) {
+                try (NonDominatedSorting sorting = ENS.getENS_BS().getInstance(n, d)) {
+                    if (maximalMeaningfulRank < 0) {
+                        sorting.sort(populations[i], expected[i]);
+                    } else {
+                        sorting.sort(populations[i], expected[i], maximalMeaningfulRank);
+                    }
+                }
+            }
+        }
+
+        for (int times = 0; times < 3; ++times) {
+            if (maximalMeaningfulRank < 0) {
+                batch.sortBatch(populations, actual);
+            } else {
+                batch.sortBatch(populations, actual, maximalMeaningfulRank);
+            }
+            for (int i = 0; i < nPopulations; ++i) {
+                Assert.assertArrayEquals(expected[i], actual[i]);
+            }
+        }
+    }
+
+    @Test
+    public void singleThreadAllRanks() {
+        randomCheck(JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1), 1, -1);
+    }
+
+    @Test
+    public void multipleThreadsAllRanks() {
+        randomCheck(JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1), 4, -1);
+    }
+
+    @Test
+    public void unlimitedThreadsLimitedRanks() {
+        randomCheck(ENS.getENS_NDT(8), -1, 3);
+    }
+
+    @Test
+    public void sharedPoolAllRanks() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            JFBExecutionPolicy policy = JFBExecutionPolicy.sharedPool(pool);
+            NonDominatedSortingFactory factory = JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1);
+            for (int batches = 0; batches < 2; ++batches) {
+                try (BatchNonDominatedSorting batch = new BatchNonDominatedSorting(factory, policy)) {
+                    randomCheck(batch, 823547235L + batches, -1);
+                }
+                // The shared pool survives closing the batch sorters which use it.
+                Assert.assertFalse(pool.isShutdown());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentNumberOfRankArraysFails() {
+        try (BatchNonDominatedSorting batch = new BatchNonDominatedSorting(ENS.getENS_BS(), 2)) {
+            batch.sortBatch(new double[2][1][1], new int[1][1]);
+        }
+    }
+}
@@ -106,6 +106,49 @@ public abstract class CorrectnessTestsBase {
             Arrays.fill(actualOutput, 2347);
             sorting.sort(input, actualOutput);
             assertArrayEquals(expectedOutput, actualOutput);
+
+            double[] flatInput = flatten(input);
+            int dimension = input[0].length;
+            for (int maxRank = maxExpectedOutput; maxRank >= 0; maxRank /= 2) {
+                int[] localExpectedOutput = expectedOutput.clone();
+                for (int i = 0; i < localExpectedOutput.length; ++i) {
+                    if (localExpectedOutput[i] > maxRank) {
+                        localExpectedOutput[i] = maxRank + 1;
+                    }
+                }
+                Arrays.fill(actualOutput, 2347);
+                sorting.sort(flatInput, input.length, dimension, actualOutput, maxRank);
+                assertArrayEquals(localExpectedOutput, actualOutput);
+                if (maxRank == 0) {
+                    break;
+                }
+            }
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(flatInput, input.length, dimension, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+
+            double[][] columnInput = transpose(input);
+            for (int maxRank = maxExpectedOutput; maxRank >= 0; maxRank /= 2) {
+                int[] localExpectedOutput = expectedOutput.clone();
+                for (int i = 0; i < localExpectedOutput.length; ++i) {
+                    if (localExpectedOutput[i] > maxRank) {
+                        localExpectedOutput[i] = maxRank + 1;
+                    }
+                }
+                Arrays.fill(actualOutput, 2347);
+                sorting.sortColumns(columnInput, input.length, actualOutput, maxRank);
+                assertArrayEquals(localExpectedOutput, actualOutput);
+                if (maxRank == 0) {
+                    break;
+                }
+            }
+            Arrays.fill(actualOutput, 2347);
+            sorting.sortColumns(columnInput, input.length, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+
+            checkSortUntilCount(sorting, input, expectedOutput);
+            checkSortToFronts(sorting, input, expectedOutput);
+            checkTypedInputs(sorting, input, expectedOutput);
         }
 
         try (NonDominatedSorting sorting = factory.getInstance(dupInput.length, dupInput[0].length)) {
@@ -115,9 +158,131 @@ public abstract class CorrectnessTestsBase {
             Arrays.fill(actualOutput, 2347);
             sorting.sort(dupInput, actualOutput);
             assertArrayEquals(dupOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(flatten(dupInput), dupInput.length, dupInput[0].length, actualOutput);
+            assertArrayEquals(dupOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sortColumns(transpose(dupInput), dupInput.length, actualOutput);
+            assertArrayEquals(dupOutput, actualOutput);
+
+            checkSortUntilCount(sorting, dupInput, dupOutput);
+            checkSortToFronts(sorting, dupInput, dupOutput);
+        }
+    }
+
+    private void checkSortUntilCount(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        int n = expectedOutput.length;
+        int[] frontSizes = new int[n + 1];
+        for (int rank : expectedOutput) {
+            ++frontSizes[rank];
+        }
+        int[] actualOutput = new int[n];
+        int[] requiredCounts = { 1, 2, n / 3, n / 2 + 1, n - 1, n, n + 1 };
+        for (int requiredCount : requiredCounts) {
+            if (requiredCount <= 0) {
+                continue;
+            }
+            int expectedFronts = 0;
+            for (int count = 0; count < requiredCount && frontSizes[expectedFronts] > 0; ++expectedFronts) {
+                count += frontSizes[expectedFronts];
+            }
+            int[] localExpectedOutput = expectedOutput.clone();
+            for (int i = 0; i < n; ++i) {
+                localExpectedOutput[i] = Math.min(localExpectedOutput[i], expectedFronts);
+            }
+            Arrays.fill(actualOutput, 2347);
+            Assert.assertEquals(expectedFronts, sorting.sortUntilCount(input, actualOutput, requiredCount));
+            assertArrayEquals(localExpectedOutput, actualOutput);
         }
     }
 
+    private void checkTypedInputs(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        int n = input.length;
+        boolean isFloat = true, isInt = true;
+        float[][] floatInput = new float[n][];
+        int[][] intInput = new int[n][];
+        long[][] longInput = new long[n][];
+        long[][] hugeLongInput = new long[n][];
+        for (int i = 0; i < n; ++i) {
+            int dim = input[i].length;
+            floatInput[i] = new float[dim];
+            intInput[i] = new int[dim];
+            longInput[i] = new long[dim];
+            hugeLongInput[i] = new long[dim];
+            for (int j = 0; j < dim; ++j) {
+                double value = input[i][j];
+                floatInput[i][j] = (float) value;
+                intInput[i][j] = (int) value;
+                longInput[i][j] = (long) value;
+                // These values are not exactly representable as doubles, but they still keep the order.
+                hugeLongInput[i][j] = (long) value * (1L << 40) + 1;
+                isFloat &= floatInput[i][j] == value;
+                isInt &= intInput[i][j] == value && Math.abs(value) < (1 << 20);
+            }
+        }
+        int[] actualOutput = new int[n];
+        if (isFloat) {
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(floatInput, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+        }
+        if (isInt) {
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(intInput, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(longInput, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(hugeLongInput, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+        }
+    }
+
+    private void checkSortToFronts(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        int n = expectedOutput.length;
+        int expectedFronts = 0;
+        for (int rank : expectedOutput) {
+            expectedFronts = Math.max(expectedFronts, rank + 1);
+        }
+        int[] frontStart = new int[n + 1];
+        int[] pointsByFront = new int[n];
+        Arrays.fill(frontStart, 2347);
+        Arrays.fill(pointsByFront, 2347);
+        Assert.assertEquals(expectedFronts, sorting.sortToFronts(input, frontStart, pointsByFront));
+        Assert.assertEquals(0, frontStart[0]);
+        Assert.assertEquals(n, frontStart[expectedFronts]);
+        int[] actualOutput = new int[n];
+        Arrays.fill(actualOutput, -1);
+        for (int front = 0; front < expectedFronts; ++front) {
+            Assert.assertTrue(frontStart[front] < frontStart[front + 1]);
+            for (int i = frontStart[front]; i < frontStart[front + 1]; ++i) {
+                Assert.assertEquals(-1, actualOutput[pointsByFront[i]]);
+                actualOutput[pointsByFront[i]] = front;
+            }
+        }
+        assertArrayEquals(expectedOutput, actualOutput);
+    }
+
+    private double[][] transpose(double[][] points) {
+        double[][] rv = new double[points[0].length][points.length];
+        for (int i = 0; i < points.length; ++i) {
+            for (int j = 0; j < rv.length; ++j) {
+                rv[j][i] = points[i][j];
+            }
+        }
+        return rv;
+    }
+
+    private double[] flatten(double[][] points) {
+        int dimension = points[0].length;
+        double[] rv = new double[points.length * dimension];
+        for (int i = 0; i < points.length; ++i) {
+            System.arraycopy(points[i], 0, rv, i * dimension, dimension);
+        }
+        return rv;
+    }
+
     private int[][] concat(int[][] a, int[][] b) {
         int[][] rv = new int[a.length + b.length][];
         for (int i = 0; i < a.length; ++i) {
@@ -343,6 +508,58 @@ public abstract class CorrectnessTestsBase {
         groupCheck(hc, ranks);
     }
 
+    private int[] naiveRanks(int[][] points) {
+        Integer[] order = new Integer[points.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            for (int j = 0; j < points[a].length; ++j) {
+                int cmp = Integer.compare(points[a][j], points[b][j]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        });
+        int[] ranks = new int[points.length];
+        for (int i = 0; i < order.length; ++i) {
+            int[] weak = points[order[i]];
+            for (int j = 0; j < i; ++j) {
+                int[] good = points[order[j]];
+                boolean dominates = !Arrays.equals(good, weak);
+                for (int k = 0; dominates && k < good.length; ++k) {
+                    dominates = good[k] <= weak[k];
+                }
+                if (dominates) {
+                    ranks[order[i]] = Math.max(ranks[order[i]], ranks[order[j]] + 1);
+                }
+            }
+        }
+        return ranks;
+    }
+
+    private void randomLargeImpl(int dimension, int size, int maxCoordinate, long seed) {
+        Random r = new Random(seed);
+        int[][] data = new int[size][dimension];
+        for (int[] point : data) {
+            for (int j = 0; j < dimension; ++j) {
+                point[j] = r.nextInt(maxCoordinate);
+            }
+        }
+        groupCheck(data, naiveRanks(data));
+    }
+
+    @Test
+    public void randomLarge3D() {
+        randomLargeImpl(3, 2000, 300, 72365235);
+    }
+
+    @Test
+    public void randomLarge5D() {
+        randomLargeImpl(5, 2000, 20, 92735211);
+    }
+
     private void hyperplaneImpl(int dimension) {
         Random r = new Random(346357);
         int[][] data = new int[100][dimension];
@@ -0,0 +1,127 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.CrowdingDistanceSelection;
+import ru.ifmo.nds.FastNonDominatedSorting;
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+
+public class CrowdingDistanceSelectionTest {
+    private static double[] crowdingDistances(double[][] points, int[] front) {
+        int size = front.length;
+        double[] rv = new double[size];
+        Integer[] order = new Integer[size];
+        for (int d = 0; d < points[0].length; ++d) {
+            final int obj = d;
+            for (int i = 0; i < size; ++i) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(points[front[a]][obj], points[front[b]][obj]));
+            double range = points[front[order[size - 1]]][d] - points[front[order[0]]][d];
+            rv[order[0]] = Double.POSITIVE_INFINITY;
+            rv[order[size - 1]] = Double.POSITIVE_INFINITY;
+            for (int i = 1; i < size - 1; ++i) {
+                if (range > 0) {
+                    rv[order[i]] += (points[front[order[i + 1]]][d] - points[front[order[i - 1]]][d]) / range;
+                }
+            }
+        }
+        return rv;
+    }
+
+    private static void check(NonDominatedSortingFactory factory, double[][] points, int count) {
+        int n = points.length;
+        int[] ranks = new int[n];
+        try (NonDominatedSorting sorting = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(n, points[0].length)) {
+            sorting.sort(points, ranks);
+        }
+        int[] selected = new int[count];
+        try (CrowdingDistanceSelection selection = new CrowdingDistanceSelection(factory, n, points[0].length)) {
+            selection.select(points, count, selected);
+        }
+
+        int[] frontSizes = new int[n + 1];
+        for (int rank : ranks) {
+            ++frontSizes[rank];
+        }
+        int splitRank = 0;
+        for (int sum = frontSizes[0]; sum < count; sum += frontSizes[++splitRank]);
+
+        boolean[] isSelected = new boolean[n];
+        for (int index : selected) {
+            Assert.assertFalse(isSelected[index]);
+            isSelected[index] = true;
+            Assert.assertTrue(ranks[index] <= splitRank);
+        }
+        int[] splitFront = new int[frontSizes[splitRank]];
+        for (int i = 0, j = 0; i < n; ++i) {
+            if (ranks[i] < splitRank) {
+                Assert.assertTrue(isSelected[i]);
+            } else if (ranks[i] == splitRank) {
+                splitFront[j++] = i;
+            }
+        }
+        double[] distances = crowdingDistances(points, splitFront);
+        double minSelected = Double.POSITIVE_INFINITY, maxNotSelected = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < splitFront.length; ++i) {
+            if (isSelected[splitFront[i]]) {
+                minSelected = Math.min(minSelected, distances[i]);
+            } else {
+                maxNotSelected = Math.max(maxNotSelected, distances[i]);
+            }
+        }
+        Assert.assertTrue(minSelected >= maxNotSelected - 1e-9);
+    }
+
+    private static void randomTests(NonDominatedSortingFactory factory) {
+        Random random = new Random(8234723);
+        for (int t = 0; t < 100; ++t) {
+            int n = 2 + random.nextInt(200);
+            int dim = 2 + random.nextInt(4);
+            boolean discrete = random.nextBoolean();
+            double[][] points = new double[n][dim];
+            for (double[] point : points) {
+                for (int j = 0; j < dim; ++j) {
+                    point[j] = discrete ? random.nextInt(5) : random.nextDouble();
+                }
+            }
+            check(factory, points, 1 + random.nextInt(n));
+        }
+    }
+
+    @Test
+    public void randomWithJFB() {
+        randomTests(JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1));
+    }
+
+    @Test
+    public void randomWithFNDS() {
+        randomTests(FastNonDominatedSorting.getLinearMemoryImplementation());
+    }
+
+    @Test
+    public void selectAll() {
+        double[][] points = {{1, 2}, {2, 1}, {3, 3}};
+        int[] selected = new int[3];
+        try (CrowdingDistanceSelection selection = new CrowdingDistanceSelection(
+                JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1), 3, 2)) {
+            selection.select(points, 3, selected);
+        }
+        Arrays.sort(selected);
+        Assert.assertArrayEquals(new int[] {0, 1, 2}, selected);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyToSelect() {
+        try (CrowdingDistanceSelection selection = new CrowdingDistanceSelection(
+                JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1), 3, 2)) {
+            selection.select(new double[][] {{1, 2}, {2, 1}}, 3, new int[3]);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.ifmo.nds.tests;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.AdaptiveNonDominatedSortingFactory;
+import ru.ifmo.nds.adaptive.DecisionTable;
+import ru.ifmo.nds.adaptive.FrontCountEstimator;
+
+public class DecisionTableTest {
+    private static DecisionTable read(String... lines) throws IOException {
+        return DecisionTable.read(new StringReader(String.join("\n", lines)));
+    }
+
+    @Test
+    public void selectClosestCell() throws IOException {
+        DecisionTable table = read(
+                "2 10 * a",
+                "2 10000 1 b",
+                "2 10000 10000 c",
+                "10 10 * d");
+        Assert.assertTrue(table.usesFrontCount());
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), table.getAlgorithmIds());
+        Assert.assertEquals("a", table.select(2, 50, 3));
+        Assert.assertEquals("a", table.select(3, 20, DecisionTable.ANY_FRONTS));
+        Assert.assertEquals("b", table.select(2, 5000, 2));
+        Assert.assertEquals("c", table.select(3, 20000, 3000));
+        Assert.assertEquals("d", table.select(7, 20000, 3000));
+    }
+
+    @Test
+    public void firstEntryWinsTies() throws IOException {
+        DecisionTable table = read("3 100 * x", "3 100 * y");
+        Assert.assertFalse(table.usesFrontCount());
+        Assert.assertEquals("x", table.select(3, 100, 7));
+    }
+
+    @Test
+    public void writeAndReadBack() throws IOException {
+        DecisionTable table = read("# comment", "", "2 10 * a", "5 100 20 b");
+        StringWriter writer = new StringWriter();
+        table.write(writer);
+        DecisionTable copy = DecisionTable.read(new StringReader(writer.toString()));
+        StringWriter copyWriter = new StringWriter();
+        copy.write(copyWriter);
+        Assert.assertEquals(writer.toString(), copyWriter.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedLine() throws IOException {
+        read("2 10 a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveFronts() throws IOException {
+        read("2 10 0 a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyTable() throws IOException {
+        read("# nothing here");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownAlgorithm() {
+        new AdaptiveNonDominatedSortingFactory(DecisionTable.singleAlgorithm("no.such.algorithm"));
+    }
+
+    @Test
+    public void frontCountEstimates() {
+        int n = 10000, sampleSize = 100;
+        for (int fronts : new int[] {1, 2, 10, 50, 1000, 10000}) {
+            double[][] points = new double[n][];
+            for (int i = 0; i < n; ++i) {
+                int front = i % fronts;
+                double position = (double) (i / fronts) / (n / fronts);
+                points[i] = new double[] {front + position, front + 1 - position};
+            }
+            try (FrontCountEstimator estimator = new FrontCountEstimator(sampleSize, 2)) {
+                int estimate = estimator.estimate(points);
+                Assert.assertTrue("fronts = " + fronts + ", estimate = " + estimate,
+                        estimate * 3 >= fronts && estimate <= fronts * 3);
+            }
+        }
+    }
+
+    @Test
+    public void frontCountIsExactOnSmallInputs() {
+        double[][] points = {{1, 2}, {2, 1}, {3, 3}, {4, 4}};
+        try (FrontCountEstimator estimator = new FrontCountEstimator(10, 2)) {
+            Assert.assertEquals(3, estimator.estimate(points));
+        }
+    }
+}
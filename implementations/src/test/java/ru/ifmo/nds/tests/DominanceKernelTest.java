@@ -0,0 +1,93 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.DominanceHelper;
+import ru.ifmo.nds.util.DominanceKernel;
+
+public class DominanceKernelTest {
+    private void randomCheck(DominanceKernel kernel, int dimension, int maxCoordinate, long seed) {
+        Random random = new Random(seed);
+        int n = 300;
+        double[][] points = new double[n][dimension];
+        double[][] transposed = new double[dimension][n];
+        double[] flat = new double[n * dimension];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < dimension; ++j) {
+                flat[i * dimension + j] = transposed[j][i] = points[i][j] = random.nextInt(maxCoordinate);
+            }
+        }
+        int[] indices = new int[n];
+        ArrayHelper.fillIdentity(indices, n);
+        int[] output = new int[n + 10];
+        int[] candidates = new int[DominanceKernel.BLOCK_SIZE];
+        int maxObj = dimension - 1;
+
+        for (int t = 0; t < 200; ++t) {
+            int good = random.nextInt(n);
+            int from = random.nextInt(n), until = from + random.nextInt(n - from + 1);
+            int outputFrom = random.nextInt(10);
+            int count = kernel.findDominatedAssumingLexicographicallySmaller(points[good], points, transposed,
+                    indices, from, until, maxObj, output, outputFrom);
+            int expectedCount = 0;
+            for (int i = from; i < until; ++i) {
+                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[good], points[i], maxObj)) {
+                    Assert.assertTrue(expectedCount < count);
+                    Assert.assertEquals(i, output[outputFrom + expectedCount]);
+                    ++expectedCount;
+                }
+            }
+            Assert.assertEquals(expectedCount, count);
+
+            // A random subset of the same range, in the increasing order.
+            int positionsUntil = outputFrom;
+            for (int i = from; i < until; ++i) {
+                if (random.nextBoolean()) {
+                    output[positionsUntil++] = i;
+                }
+            }
+            int[] positions = output.clone();
+            count = kernel.retainDominatedAssumingLexicographicallySmaller(points[good], points, transposed,
+                    indices, output, outputFrom, positionsUntil, maxObj);
+            expectedCount = 0;
+            for (int k = outputFrom; k < positionsUntil; ++k) {
+                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[good], points[positions[k]], maxObj)) {
+                    Assert.assertTrue(expectedCount < count);
+                    Assert.assertEquals(positions[k], output[outputFrom + expectedCount]);
+                    ++expectedCount;
+                }
+            }
+            Assert.assertEquals(expectedCount, count);
+
+            int weak = random.nextInt(n);
+            int nCandidates = random.nextInt(candidates.length + 1);
+            boolean expected = false;
+            for (int i = 0; i < nCandidates; ++i) {
+                candidates[i] = random.nextInt(n);
+                expected |= DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[candidates[i]], points[weak], maxObj);
+            }
+            int[] candidatesCopy = candidates.clone();
+            Assert.assertEquals(expected, kernel.anyDominatesAssumingLexicographicallySmaller(
+                    points, candidates, nCandidates, points[weak], maxObj));
+            Assert.assertEquals(expected, kernel.anyDominatesAssumingLexicographicallySmaller(
+                    flat, dimension, candidatesCopy, nCandidates, weak * dimension, maxObj));
+        }
+    }
+
+    @Test
+    public void scalar() {
+        randomCheck(DominanceKernel.scalar(), 3, 10, 72364221);
+        randomCheck(DominanceKernel.scalar(), 10, 3, 82347521);
+    }
+
+    @Test
+    public void blocked() {
+        randomCheck(DominanceKernel.blocked(), 3, 10, 72364221);
+        randomCheck(DominanceKernel.blocked(), 10, 3, 82347521);
+        randomCheck(DominanceKernel.blocked(), 20, 2, 52346233);
+    }
+}
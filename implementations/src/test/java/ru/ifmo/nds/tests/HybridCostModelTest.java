@@ -0,0 +1,38 @@
+package ru.ifmo.nds.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.jfb.hybrid.HybridCostModel;
+import ru.ifmo.nds.jfb.hybrid.HybridCostModel.Strategy;
+
+public class HybridCostModelTest {
+    private final HybridCostModel model = HybridCostModel.getDefault();
+
+    @Test
+    public void largeBalancedProblemsAreDivided() {
+        Assert.assertEquals(Strategy.DIVIDE_AND_CONQUER, model.chooseA(100000, 2));
+        Assert.assertEquals(Strategy.DIVIDE_AND_CONQUER, model.chooseA(100000, 5));
+        Assert.assertEquals(Strategy.DIVIDE_AND_CONQUER, model.chooseB(50000, 50000, 2));
+        Assert.assertEquals(Strategy.DIVIDE_AND_CONQUER, model.chooseB(50000, 50000, 5));
+    }
+
+    @Test
+    public void smallProblemsAreHandedOver() {
+        Assert.assertTrue(model.chooseA(10, 2) != Strategy.DIVIDE_AND_CONQUER);
+        Assert.assertTrue(model.chooseA(10, 5) != Strategy.DIVIDE_AND_CONQUER);
+        Assert.assertTrue(model.chooseB(5, 5, 2) != Strategy.DIVIDE_AND_CONQUER);
+    }
+
+    @Test
+    public void lopsidedHelperBIsHandedOver() {
+        Assert.assertEquals(Strategy.DIVIDE_AND_CONQUER, model.chooseB(1000, 1000, 2));
+        Assert.assertTrue(model.chooseB(2, 1998, 2) != Strategy.DIVIDE_AND_CONQUER);
+        Assert.assertTrue(model.chooseB(2, 100000, 2) != Strategy.DIVIDE_AND_CONQUER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveCoefficient() {
+        new HybridCostModel(1, 1, 1, 0, 1, 1);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.ifmo.nds.tests;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.jfb.HybridThresholds;
+
+public class HybridThresholdsTest {
+    @Test
+    public void defaultIsBuiltInWithoutProfile() {
+        Assert.assertEquals(HybridThresholds.builtIn().toString(), HybridThresholds.getDefault().toString());
+    }
+
+    @Test
+    public void writeAndReadBack() throws IOException {
+        HybridThresholds thresholds = HybridThresholds.builtIn().withENS(10, 20).withNDT(30, 40).withLinearNDS(50, 60).withMNDS(70, 80);
+        StringWriter writer = new StringWriter();
+        thresholds.write(writer);
+        HybridThresholds copy = HybridThresholds.read(new StringReader(writer.toString()));
+        Assert.assertEquals(thresholds.toString(), copy.toString());
+        Assert.assertEquals("ENS (threshold 3D = 10, threshold all = 20)", copy.createENS().getName());
+        Assert.assertEquals("MNDS (threshold 3D = 70, threshold all = 80)", copy.createMNDS().getName());
+    }
+
+    @Test
+    public void missingKeysAreBuiltIn() throws IOException {
+        HybridThresholds thresholds = HybridThresholds.read(new StringReader("ens.threshold3D = 7\n"));
+        Assert.assertEquals(HybridThresholds.builtIn().withENS(7, 200).toString(), thresholds.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonIntegerValue() throws IOException {
+        HybridThresholds.read(new StringReader("ndt.thresholdAll = many\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveValue() {
+        HybridThresholds.builtIn().withLinearNDS(0, 100);
+    }
+
+    @Test
+    public void tuningReturnsValidThresholds() {
+        Random random = new Random(823467234);
+        List<double[][]> workload = new ArrayList<>();
+        for (int d = 3; d <= 4; ++d) {
+            double[][] population = new double[300][d];
+            for (double[] point : population) {
+                for (int j = 0; j < d; ++j) {
+                    point[j] = random.nextDouble();
+                }
+            }
+            workload.add(population);
+        }
+        HybridThresholds tuned = HybridThresholds.builtIn().tuned(workload, 8);
+        // The values cannot be predicted, but they must form a valid profile.
+        Assert.assertNotNull(tuned.createENS());
+        Assert.assertNotNull(tuned.createNDT(8));
+        Assert.assertNotNull(tuned.createLinearNDS());
+        Assert.assertNotNull(tuned.createMNDS());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.ifmo.nds.tests;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.jfb.JFBExecutionPolicy;
+
+public class JFBExecutionPolicyTest {
+    @Test
+    public void thresholdsByDimension() {
+        JFBExecutionPolicy policy = JFBExecutionPolicy.ownPool(4).withForkThresholds(100, 50);
+        Assert.assertEquals(100, policy.getForkThreshold(2));
+        Assert.assertEquals(50, policy.getForkThreshold(3));
+        Assert.assertEquals(50, policy.getForkThreshold(10));
+        Assert.assertTrue(policy.isParallel());
+    }
+
+    @Test
+    public void singleThreadIsSequential() {
+        Assert.assertFalse(JFBExecutionPolicy.ownPool(1).isParallel());
+        Assert.assertFalse(JFBExecutionPolicy.sequential().isParallel());
+    }
+
+    @Test
+    public void calibrationGivesPositiveThresholds() {
+        JFBExecutionPolicy policy = JFBExecutionPolicy.sharedPool(ForkJoinPool.commonPool()).calibrated(4);
+        for (int d = 2; d <= 4; ++d) {
+            Assert.assertTrue(policy.getForkThreshold(d) > 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveThresholdFails() {
+        JFBExecutionPolicy.sequential().withForkThresholds(10, 0);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.ifmo.nds.tests;
+
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.jfb.HybridThresholds;
+import ru.ifmo.nds.jfb.JFBExecutionPolicy;
+
+public class JensenFortinBuzdalovRedBlackHybridLinearFNDSSmallThresholdsTest extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        return JensenFortinBuzdalov.getRedBlackTreeSweepHybridFNDSImplementation(JFBExecutionPolicy.sequential(),
+                HybridThresholds.builtIn().withLinearNDS(7, 13));
+    }
+}
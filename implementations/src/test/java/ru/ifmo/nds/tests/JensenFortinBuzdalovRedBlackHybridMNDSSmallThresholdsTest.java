@@ -0,0 +1,15 @@
+package ru.ifmo.nds.tests;
+
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.jfb.HybridThresholds;
+import ru.ifmo.nds.jfb.JFBExecutionPolicy;
+
+public class JensenFortinBuzdalovRedBlackHybridMNDSSmallThresholdsTest extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        // Thresholds around 64 test the rows of the bit sets which span several words.
+        return JensenFortinBuzdalov.getRedBlackTreeSweepHybridMNDSImplementation(JFBExecutionPolicy.sequential(),
+                HybridThresholds.builtIn().withMNDS(67, 131));
+    }
+}
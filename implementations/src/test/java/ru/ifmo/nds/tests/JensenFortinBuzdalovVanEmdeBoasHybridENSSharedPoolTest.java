@@ -0,0 +1,16 @@
+package ru.ifmo.nds.tests;
+
+import java.util.concurrent.ForkJoinPool;
+
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.jfb.JFBExecutionPolicy;
+
+public class JensenFortinBuzdalovVanEmdeBoasHybridENSSharedPoolTest extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        // Small thresholds make forks happen even on small tests.
+        JFBExecutionPolicy policy = JFBExecutionPolicy.sharedPool(ForkJoinPool.commonPool()).withForkThresholds(40, 20, 10);
+        return JensenFortinBuzdalov.getVanEmdeBoasHybridENSImplementation(policy);
+    }
+}
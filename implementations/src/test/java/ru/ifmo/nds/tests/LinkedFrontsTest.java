@@ -0,0 +1,99 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.IncrementalNonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.incremental.LinkedFronts;
+
+public class LinkedFrontsTest {
+    private void randomCheck(int maximumPoints, int dimension, int maxCoordinate, long seed) {
+        Random random = new Random(seed);
+        IncrementalNonDominatedSorting incremental = new LinkedFronts(maximumPoints, dimension);
+        int[] listenedRanks = new int[maximumPoints];
+        incremental.setRankChangeListener((id, oldRank, newRank) -> {
+            Assert.assertEquals(listenedRanks[id], oldRank);
+            Assert.assertEquals(1, Math.abs(newRank - oldRank));
+            listenedRanks[id] = newRank;
+        });
+
+        double[][] points = new double[maximumPoints][];
+        int[] ids = new int[maximumPoints];
+        int size = 0;
+
+        try (NonDominatedSorting sorting = ENS.getENS_BS().getInstance(maximumPoints, dimension)) {
+            for (int step = 0; step < 1000; ++step) {
+                if (size < maximumPoints && (size == 0 || random.nextInt(3) != 0)) {
+                    double[] point = new double[dimension];
+                    for (int j = 0; j < dimension; ++j) {
+                        point[j] = random.nextInt(maxCoordinate);
+                    }
+                    int id = incremental.add(point);
+                    Assert.assertTrue(incremental.contains(id));
+                    listenedRanks[id] = incremental.rankOf(id);
+                    points[size] = point;
+                    ids[size] = id;
+                    ++size;
+                } else {
+                    int index = random.nextInt(size);
+                    incremental.remove(ids[index]);
+                    Assert.assertFalse(incremental.contains(ids[index]));
+                    --size;
+                    points[index] = points[size];
+                    ids[index] = ids[size];
+                }
+
+                Assert.assertEquals(size, incremental.size());
+                int[] expected = new int[size];
+                int maxRank = -1;
+                if (size > 0) {
+                    sorting.sort(Arrays.copyOf(points, size), expected);
+                }
+                for (int i = 0; i < size; ++i) {
+                    Assert.assertEquals(expected[i], incremental.rankOf(ids[i]));
+                    Assert.assertEquals(expected[i], listenedRanks[ids[i]]);
+                    maxRank = Math.max(maxRank, expected[i]);
+                }
+                Assert.assertEquals(maxRank + 1, incremental.getNumberOfFronts());
+            }
+        }
+    }
+
+    @Test
+    public void random2D() {
+        randomCheck(50, 2, 20, 7236452);
+    }
+
+    @Test
+    public void random3D() {
+        randomCheck(100, 3, 10, 8234752);
+    }
+
+    @Test
+    public void random5D() {
+        randomCheck(100, 5, 5, 1294853);
+    }
+
+    @Test
+    public void manyDuplicates() {
+        randomCheck(40, 3, 2, 3485712);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removingUnknownIdFails() {
+        new LinkedFronts(10, 2).remove(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addingTooManyPointsFails() {
+        IncrementalNonDominatedSorting incremental = new LinkedFronts(2, 2);
+        incremental.add(new double[] {1, 2});
+        incremental.add(new double[] {2, 1});
+        incremental.add(new double[] {3, 3});
+    }
+}
@@ -0,0 +1,84 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.FastNonDominatedSorting;
+import ru.ifmo.nds.NonDominatedFilter;
+import ru.ifmo.nds.NonDominatedSorting;
+
+public class NonDominatedFilterTest {
+    private void checkAgainstSorting(NonDominatedFilter filter, int dimension, int maxCoordinate, boolean sphere, long seed) {
+        Random random = new Random(seed);
+        try (NonDominatedSorting reference = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(500, dimension)) {
+            for (int t = 0; t < 100; ++t) {
+                int n = 1 + random.nextInt(500);
+                double[][] points = new double[n][dimension];
+                for (double[] point : points) {
+                    double norm = 0;
+                    for (int j = 0; j < dimension; ++j) {
+                        point[j] = 1 + random.nextInt(maxCoordinate);
+                        norm += point[j] * point[j];
+                    }
+                    if (sphere) {
+                        // Most points are non-dominated then, so the pivots do not discard much.
+                        norm = Math.sqrt(norm);
+                        for (int j = 0; j < dimension; ++j) {
+                            point[j] /= norm;
+                        }
+                    }
+                }
+                int[] ranks = new int[n];
+                reference.sort(points, ranks);
+                int[] found = new int[n];
+                int count = filter.filter(points, found);
+                int expectedCount = 0;
+                for (int i = 0; i < n; ++i) {
+                    if (ranks[i] == 0) {
+                        Assert.assertEquals(i, found[expectedCount]);
+                        ++expectedCount;
+                    }
+                }
+                Assert.assertEquals(expectedCount, count);
+            }
+        }
+    }
+
+    private void checkAll(int allowedThreads) {
+        for (int dimension = 1; dimension <= 6; ++dimension) {
+            try (NonDominatedFilter filter = new NonDominatedFilter(500, dimension, allowedThreads)) {
+                checkAgainstSorting(filter, dimension, 5, false, dimension);
+                checkAgainstSorting(filter, dimension, 1000, false, dimension + 10);
+                checkAgainstSorting(filter, dimension, 1000, true, dimension + 20);
+            }
+        }
+    }
+
+    @Test
+    public void singleThreaded() {
+        checkAll(1);
+    }
+
+    @Test
+    public void multiThreaded() {
+        checkAll(-1);
+    }
+
+    @Test
+    public void smallerDimensions() {
+        try (NonDominatedFilter filter = new NonDominatedFilter(500, 6, 1)) {
+            for (int dimension = 6; dimension >= 1; --dimension) {
+                checkAgainstSorting(filter, dimension, 1000, true, dimension + 30);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentDimensions() {
+        try (NonDominatedFilter filter = new NonDominatedFilter(2, 3, 1)) {
+            filter.filter(new double[][] {{1, 2}, {2, 1, 0}}, new int[2]);
+        }
+    }
+}
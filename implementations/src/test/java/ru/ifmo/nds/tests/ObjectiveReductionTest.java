@@ -0,0 +1,87 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.FastNonDominatedSorting;
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.ObjectiveReduction;
+
+public class ObjectiveReductionTest extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        return ObjectiveReduction.wrap(JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1));
+    }
+
+    // The objectives beyond the first "essential" ones are copies, monotone transforms or constants.
+    private void checkRedundantObjectives(int essential, int dimension, long seed) {
+        Random random = new Random(seed);
+        try (NonDominatedSorting reference = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(200, dimension);
+             NonDominatedSorting sorting = getFactory().getInstance(200, dimension)) {
+            for (int t = 0; t < 100; ++t) {
+                int n = 1 + random.nextInt(200);
+                double[][] points = new double[n][dimension];
+                double[][] columns = new double[dimension][n];
+                for (double[] point : points) {
+                    for (int j = 0; j < essential; ++j) {
+                        point[j] = random.nextInt(10);
+                    }
+                    for (int j = essential; j < dimension; ++j) {
+                        double source = point[(j * 7) % essential];
+                        switch (j % 4) {
+                            case 0: point[j] = source; break;
+                            case 1: point[j] = 3 * source - 1; break;
+                            case 2: point[j] = Math.exp(source); break;
+                            default: point[j] = 42; break;
+                        }
+                    }
+                }
+                for (int i = 0; i < n; ++i) {
+                    for (int j = 0; j < dimension; ++j) {
+                        columns[j][i] = points[i][j];
+                    }
+                }
+                int[] expected = new int[n];
+                int[] found = new int[n];
+                reference.sort(points, expected);
+                sorting.sort(points, found);
+                Assert.assertArrayEquals(expected, found);
+                sorting.sortColumns(columns, n, found);
+                Assert.assertArrayEquals(expected, found);
+                int maximalMeaningfulRank = random.nextInt(5);
+                reference.sort(points, expected, maximalMeaningfulRank);
+                sorting.sort(points, found, maximalMeaningfulRank);
+                Assert.assertArrayEquals(expected, found);
+            }
+        }
+    }
+
+    @Test
+    public void redundantObjectivesOneEssential() {
+        checkRedundantObjectives(1, 6, 1);
+    }
+
+    @Test
+    public void redundantObjectivesTwoEssential() {
+        checkRedundantObjectives(2, 7, 2);
+    }
+
+    @Test
+    public void redundantObjectivesThreeEssential() {
+        checkRedundantObjectives(3, 10, 3);
+    }
+
+    @Test
+    public void allObjectivesConstant() {
+        double[][] points = {{1, 2, 3}, {1, 2, 3}, {1, 2, 3}};
+        int[] ranks = new int[3];
+        try (NonDominatedSorting sorting = getFactory().getInstance(3, 3)) {
+            sorting.sort(points, ranks);
+        }
+        Assert.assertArrayEquals(new int[3], ranks);
+    }
+}
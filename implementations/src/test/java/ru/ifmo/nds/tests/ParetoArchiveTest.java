@@ -0,0 +1,126 @@
+package ru.ifmo.nds.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.ndt.ParetoArchive;
+import ru.ifmo.nds.util.DominanceHelper;
+
+public class ParetoArchiveTest {
+    private static boolean weaklyDominates(double[] a, double[] b) {
+        for (int i = 0; i < a.length; ++i) {
+            if (a[i] > b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[][] sorted(double[][] points) {
+        Comparator<double[]> lexicographical = (a, b) -> {
+            for (int i = 0; i < a.length; ++i) {
+                int cmp = Double.compare(a[i], b[i]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        };
+        double[][] rv = points.clone();
+        Arrays.sort(rv, lexicographical);
+        return rv;
+    }
+
+    private void checkAgainstList(int dimension, int maxCoordinate, int operations, long seed) {
+        Random random = new Random(seed);
+        ParetoArchive archive = new ParetoArchive(operations, dimension);
+        List<double[]> expected = new ArrayList<>();
+        for (int t = 0; t < operations; ++t) {
+            double[] point = new double[dimension];
+            // The coordinates sum up to about the same value, so that many points are non-dominated.
+            double sum = 0;
+            for (int j = 1; j < dimension; ++j) {
+                point[j] = random.nextInt(maxCoordinate);
+                sum += point[j];
+            }
+            point[0] = Math.max(0, maxCoordinate * (dimension - 1) / 2.0 - sum + random.nextInt(3));
+
+            boolean expectedDominated = false, expectedInserted = true;
+            for (double[] p : expected) {
+                if (DominanceHelper.strictlyDominates(p, point, dimension)) {
+                    expectedDominated = true;
+                }
+                if (weaklyDominates(p, point)) {
+                    expectedInserted = false;
+                }
+            }
+            Assert.assertEquals(expectedDominated, archive.isDominated(point));
+            if (expectedInserted) {
+                expected.removeIf(p -> weaklyDominates(point, p));
+                expected.add(point.clone());
+            }
+            Assert.assertEquals(expectedInserted, archive.insert(point));
+            Assert.assertEquals(expected.size(), archive.size());
+            if (t % 97 == 0) {
+                Assert.assertTrue(Arrays.deepEquals(sorted(expected.toArray(new double[0][])), sorted(archive.toArray())));
+            }
+        }
+        Assert.assertTrue(Arrays.deepEquals(sorted(expected.toArray(new double[0][])), sorted(archive.toArray())));
+    }
+
+    @Test
+    public void oneDimension() {
+        checkAgainstList(1, 10, 1000, 1);
+    }
+
+    @Test
+    public void twoDimensions() {
+        checkAgainstList(2, 1000, 10000, 2);
+    }
+
+    @Test
+    public void threeDimensions() {
+        checkAgainstList(3, 100, 10000, 3);
+    }
+
+    @Test
+    public void fiveDimensionsManyTies() {
+        checkAgainstList(5, 5, 10000, 4);
+    }
+
+    @Test
+    public void tenDimensions() {
+        checkAgainstList(10, 100, 5000, 5);
+    }
+
+    @Test
+    public void clear() {
+        ParetoArchive archive = new ParetoArchive(10, 2);
+        Assert.assertTrue(archive.insert(new double[] {1, 2}));
+        Assert.assertTrue(archive.insert(new double[] {2, 1}));
+        Assert.assertFalse(archive.insert(new double[] {2, 1}));
+        Assert.assertTrue(archive.isDominated(new double[] {2, 2}));
+        archive.clear();
+        Assert.assertEquals(0, archive.size());
+        Assert.assertFalse(archive.isDominated(new double[] {2, 2}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void overflow() {
+        ParetoArchive archive = new ParetoArchive(2, 2);
+        archive.insert(new double[] {1, 3});
+        archive.insert(new double[] {2, 2});
+        archive.insert(new double[] {3, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongDimension() {
+        new ParetoArchive(2, 2).insert(new double[] {1, 2, 3});
+    }
+}
@@ -25,7 +25,8 @@ public abstract class RankQueryStructureIntTestsBase {
                 for (int i = 0; i < differentPoints; ++i) {
                     keys[i] = random.nextInt(upperBound);
                 }
-                RankQueryStructureInt.RangeHandle handle = structure.createHandle(0, 0, differentPoints, indices, keys);
+                RankQueryStructureInt.RangeHandle created = structure.createHandle(0, 0, differentPoints, indices, keys);
+                RankQueryStructureInt.RangeHandle handle = created;
                 Arrays.sort(keys);
 
                 int[] values = new int[differentPoints];
@@ -52,7 +53,10 @@ public abstract class RankQueryStructureIntTestsBase {
                         Assert.assertTrue(upperBoundMsg, handle.getMaximumWithKeyAtMost(q, 1000) < 1000);
                     }
                 }
+                // The next handle may reuse the memory of this one.
+                structure.releaseHandle(created);
             }
+            structure.releaseHandles();
         }
     }
 }
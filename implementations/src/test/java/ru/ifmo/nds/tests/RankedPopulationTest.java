@@ -0,0 +1,94 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.FastNonDominatedSorting;
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.RankedPopulation;
+
+public class RankedPopulationTest {
+    private void checkQueries(int dimension, int maxCoordinate, long seed) {
+        Random random = new Random(seed);
+        try (NonDominatedSorting reference = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(301, dimension);
+             NonDominatedSorting sorting = JensenFortinBuzdalov.getRedBlackTreeSweepHybridENSImplementation(1).getInstance(300, dimension)) {
+            for (int t = 0; t < 50; ++t) {
+                int n = random.nextInt(301);
+                double[][] points = new double[n + 1][dimension];
+                for (int i = 0; i < n; ++i) {
+                    for (int j = 0; j < dimension; ++j) {
+                        points[i][j] = random.nextInt(maxCoordinate);
+                    }
+                }
+                double[][] population = new double[n][];
+                System.arraycopy(points, 0, population, 0, n);
+                RankedPopulation ranked = new RankedPopulation(sorting, population);
+                Assert.assertEquals(n, ranked.size());
+
+                int[] expected = new int[n + 1];
+                for (int q = 0; q < 50; ++q) {
+                    double[] query = new double[dimension];
+                    if (n > 0 && random.nextInt(4) == 0) {
+                        System.arraycopy(points[random.nextInt(n)], 0, query, 0, dimension);
+                    } else {
+                        for (int j = 0; j < dimension; ++j) {
+                            query[j] = random.nextInt(maxCoordinate + 2) - 1;
+                        }
+                    }
+                    // Adding a point never changes the ranks of the points which dominate it.
+                    points[n] = query;
+                    reference.sort(points, expected);
+                    Assert.assertEquals(expected[n], ranked.queryRank(query));
+                }
+                int[] expectedPopulation = new int[n];
+                reference.sort(population, expectedPopulation);
+                for (int i = 0; i < n; ++i) {
+                    Assert.assertEquals(expectedPopulation[i], ranked.getRank(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void twoDimensions() {
+        checkQueries(2, 20, 1);
+    }
+
+    @Test
+    public void threeDimensionsManyTies() {
+        checkQueries(3, 4, 2);
+    }
+
+    @Test
+    public void fiveDimensions() {
+        checkQueries(5, 10, 3);
+    }
+
+    @Test
+    public void tenDimensions() {
+        checkQueries(10, 1000, 4);
+    }
+
+    @Test
+    public void queryRanks() {
+        double[][] population = {{1, 3}, {3, 1}, {2, 4}, {4, 4}};
+        double[][] queries = {{0, 0}, {2, 2}, {3, 5}, {5, 5}, {4, 4}};
+        int[] ranks = new int[queries.length];
+        try (NonDominatedSorting sorting = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(4, 2)) {
+            RankedPopulation ranked = new RankedPopulation(sorting, population);
+            Assert.assertEquals(3, ranked.getNumberOfFronts());
+            ranked.queryRanks(queries, ranks);
+        }
+        Assert.assertArrayEquals(new int[] {0, 0, 2, 3, 2}, ranks);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongDimension() {
+        try (NonDominatedSorting sorting = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(2, 2)) {
+            new RankedPopulation(sorting, new double[][] {{1, 2}, {2, 1}}).queryRank(new double[] {1, 2, 3});
+        }
+    }
+}
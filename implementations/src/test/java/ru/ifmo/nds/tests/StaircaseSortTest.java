@@ -0,0 +1,81 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.FastNonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.StaircaseSort;
+
+public class StaircaseSortTest {
+    private void compareWithReference(int dimension, int maxCoordinate, int maximalMeaningfulRank, long seed) {
+        Random random = new Random(seed);
+        try (NonDominatedSorting reference = FastNonDominatedSorting.getLinearMemoryImplementation().getInstance(300, dimension);
+             NonDominatedSorting sorting = StaircaseSort.getInstance().getInstance(300, dimension)) {
+            for (int t = 0; t < 100; ++t) {
+                int n = 1 + random.nextInt(300);
+                double[][] points = new double[n][dimension];
+                for (double[] point : points) {
+                    for (int j = 0; j < dimension; ++j) {
+                        point[j] = random.nextInt(maxCoordinate);
+                    }
+                }
+                int[] expected = new int[n];
+                int[] found = new int[n];
+                reference.sort(points, expected, maximalMeaningfulRank);
+                sorting.sort(points, found, maximalMeaningfulRank);
+                Assert.assertArrayEquals(expected, found);
+            }
+        }
+    }
+
+    @Test
+    public void oneDimension() {
+        compareWithReference(1, 50, 300, 1);
+    }
+
+    @Test
+    public void twoDimensions() {
+        compareWithReference(2, 30, 300, 2);
+    }
+
+    @Test
+    public void threeDimensionsManyTies() {
+        compareWithReference(3, 5, 300, 3);
+    }
+
+    @Test
+    public void threeDimensionsFewTies() {
+        compareWithReference(3, 100000, 300, 4);
+    }
+
+    @Test
+    public void threeDimensionsMaximalMeaningfulRank() {
+        compareWithReference(3, 20, 3, 5);
+    }
+
+    @Test
+    public void chain() {
+        int n = 1000;
+        double[][] points = new double[n][3];
+        for (int i = 0; i < n; ++i) {
+            points[i][0] = points[i][1] = points[i][2] = n - i;
+        }
+        int[] ranks = new int[n];
+        try (NonDominatedSorting sorting = StaircaseSort.getInstance().getInstance(n, 3)) {
+            sorting.sort(points, ranks);
+        }
+        for (int i = 0; i < n; ++i) {
+            Assert.assertEquals(n - 1 - i, ranks[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fourDimensions() {
+        try (NonDominatedSorting sorting = StaircaseSort.getInstance().getInstance(10, 4)) {
+            sorting.sort(new double[][] {{1, 2, 3, 4}, {4, 3, 2, 1}}, new int[2]);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.ifmo.nds.tests;
+
+import ru.ifmo.nds.util.RankQueryStructureDouble;
+import ru.ifmo.nds.util.TreapRankQueryStructure;
+
+public class TreapRankQueryStructureTest extends RankQueryStructureDoubleTestsBase {
+    @Override
+    protected RankQueryStructureDouble createStructure(int maximumPoints) {
+        return new TreapRankQueryStructure(maximumPoints);
+    }
+}